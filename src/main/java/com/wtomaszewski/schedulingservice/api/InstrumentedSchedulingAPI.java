@@ -0,0 +1,374 @@
+package main.java.com.wtomaszewski.schedulingservice.api;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
+import main.java.com.wtomaszewski.schedulingservice.metrics.Operation;
+import main.java.com.wtomaszewski.schedulingservice.metrics.SchedulingMetrics;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Records latency, outcome and result size of every call into {@link SchedulingMetrics} while they are enabled.
+ * Streamed queries are produced lazily, so only the time to open the stream is recorded for them.
+ */
+public class InstrumentedSchedulingAPI implements SchedulingAPI {
+
+    private final SchedulingAPI schedulingAPI;
+    private final SchedulingMetrics metrics;
+
+    public InstrumentedSchedulingAPI(final SchedulingAPI schedulingAPI, final SchedulingMetrics metrics) {
+        this.schedulingAPI = schedulingAPI;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void createPerson(final String name, final String email) {
+        if (!metrics.isEnabled()) {
+            schedulingAPI.createPerson(name, email);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            schedulingAPI.createPerson(name, email);
+            metrics.get(Operation.CREATE_PERSON).recordSuccess(System.nanoTime() - start, 1);
+        } catch (RuntimeException e) {
+            metrics.get(Operation.CREATE_PERSON).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void createPerson(final String name, final String email, final ZoneId zone) {
+        if (!metrics.isEnabled()) {
+            schedulingAPI.createPerson(name, email, zone);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            schedulingAPI.createPerson(name, email, zone);
+            metrics.get(Operation.CREATE_PERSON).recordSuccess(System.nanoTime() - start, 1);
+        } catch (RuntimeException e) {
+            metrics.get(Operation.CREATE_PERSON).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts) {
+        if (!metrics.isEnabled()) {
+            schedulingAPI.createMeeting(personEmails, date, hour, checkConflicts);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            schedulingAPI.createMeeting(personEmails, date, hour, checkConflicts);
+            metrics.get(Operation.CREATE_MEETING).recordSuccess(System.nanoTime() - start, 1);
+        } catch (RuntimeException e) {
+            metrics.get(Operation.CREATE_MEETING).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDateTime startTime, final Duration duration, final boolean checkConflicts) {
+        if (!metrics.isEnabled()) {
+            schedulingAPI.createMeeting(personEmails, startTime, duration, checkConflicts);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            schedulingAPI.createMeeting(personEmails, startTime, duration, checkConflicts);
+            metrics.get(Operation.CREATE_MEETING).recordSuccess(System.nanoTime() - start, 1);
+        } catch (RuntimeException e) {
+            metrics.get(Operation.CREATE_MEETING).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * A rejected meeting is an expected outcome rather than a failure, it is recorded as a success with no meeting created.
+     */
+    @Override
+    public MeetingResult tryCreateMeeting(final Set<String> personEmails, final LocalDate date, final int hour) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.tryCreateMeeting(personEmails, date, hour);
+        }
+        final long start = System.nanoTime();
+        try {
+            final MeetingResult result = schedulingAPI.tryCreateMeeting(personEmails, date, hour);
+            metrics.get(Operation.TRY_CREATE_MEETING).recordSuccess(System.nanoTime() - start, result.isSuccess() ? 1 : 0);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.TRY_CREATE_MEETING).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<Meeting> bookFirstAvailable(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.bookFirstAvailable(personEmails, startDate, startHour, endDate, endHour);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Optional<Meeting> meeting = schedulingAPI.bookFirstAvailable(personEmails, startDate, startHour, endDate, endHour);
+            metrics.get(Operation.BOOK_FIRST_AVAILABLE).recordSuccess(System.nanoTime() - start, meeting.isPresent() ? 1 : 0);
+            return meeting;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.BOOK_FIRST_AVAILABLE).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Meeting> createMeetings(final Collection<MeetingRequest> meetingRequests) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.createMeetings(meetingRequests);
+        }
+        final long start = System.nanoTime();
+        try {
+            final List<Meeting> meetings = schedulingAPI.createMeetings(meetingRequests);
+            metrics.get(Operation.CREATE_MEETINGS).recordSuccess(System.nanoTime() - start, meetings.size());
+            return meetings;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.CREATE_MEETINGS).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void createRecurringMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence, final boolean checkConflicts) {
+        if (!metrics.isEnabled()) {
+            schedulingAPI.createRecurringMeeting(personEmails, date, hour, recurrence, checkConflicts);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            schedulingAPI.createRecurringMeeting(personEmails, date, hour, recurrence, checkConflicts);
+            metrics.get(Operation.CREATE_RECURRING_MEETING).recordSuccess(System.nanoTime() - start, 1);
+        } catch (RuntimeException e) {
+            metrics.get(Operation.CREATE_RECURRING_MEETING).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate date, final int hour) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.getSchedule(email, date, hour);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Set<Meeting> schedule = schedulingAPI.getSchedule(email, date, hour);
+            metrics.get(Operation.GET_SCHEDULE).recordSuccess(System.nanoTime() - start, schedule.size());
+            return schedule;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.GET_SCHEDULE).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.getSchedule(email, startDate, startHour, endDate, endHour);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Set<Meeting> schedule = schedulingAPI.getSchedule(email, startDate, startHour, endDate, endHour);
+            metrics.get(Operation.GET_SCHEDULE).recordSuccess(System.nanoTime() - start, schedule.size());
+            return schedule;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.GET_SCHEDULE).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                               final LocalDate endDate, final int endHour) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.suggestTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Set<LocalDateTime> timeSlots = schedulingAPI.suggestTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+            metrics.get(Operation.SUGGEST_TIME_SLOTS).recordSuccess(System.nanoTime() - start, timeSlots.size());
+            return timeSlots;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.SUGGEST_TIME_SLOTS).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TimeRange> suggestTimeRanges(final Set<String> personEmails, final LocalDateTime startTime, final LocalDateTime endTime, final Duration minDuration) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.suggestTimeRanges(personEmails, startTime, endTime, minDuration);
+        }
+        final long start = System.nanoTime();
+        try {
+            final List<TimeRange> timeRanges = schedulingAPI.suggestTimeRanges(personEmails, startTime, endTime, minDuration);
+            metrics.get(Operation.SUGGEST_TIME_RANGES).recordSuccess(System.nanoTime() - start, timeRanges.size());
+            return timeRanges;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.SUGGEST_TIME_RANGES).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour,
+                                               final SlotConstraints localConstraints) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.suggestTimeSlots(personEmails, startDate, startHour, endDate, endHour, localConstraints);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Set<LocalDateTime> timeSlots = schedulingAPI.suggestTimeSlots(personEmails, startDate, startHour, endDate, endHour, localConstraints);
+            metrics.get(Operation.SUGGEST_TIME_SLOTS).recordSuccess(System.nanoTime() - start, timeSlots.size());
+            return timeSlots;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.SUGGEST_TIME_SLOTS).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public FreeTimeSlots findFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                           final LocalDate endDate, final int endHour) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+        }
+        final long start = System.nanoTime();
+        try {
+            final FreeTimeSlots timeSlots = schedulingAPI.findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+            metrics.get(Operation.FIND_FREE_TIME_SLOTS).recordSuccess(System.nanoTime() - start, timeSlots.size());
+            return timeSlots;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.FIND_FREE_TIME_SLOTS).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<Meeting> streamSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.streamSchedule(email, startDate, startHour, endDate, endHour);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Stream<Meeting> schedule = schedulingAPI.streamSchedule(email, startDate, startHour, endDate, endHour);
+            metrics.get(Operation.STREAM_SCHEDULE).recordSuccess(System.nanoTime() - start);
+            return schedule;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.STREAM_SCHEDULE).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Meeting> getSchedulePage(final String email, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.getSchedulePage(email, cursor, endDate, endHour, limit);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Page<Meeting> page = schedulingAPI.getSchedulePage(email, cursor, endDate, endHour, limit);
+            metrics.get(Operation.GET_SCHEDULE_PAGE).recordSuccess(System.nanoTime() - start, page.items().size());
+            return page;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.GET_SCHEDULE_PAGE).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<LocalDateTime> streamFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                                     final LocalDate endDate, final int endHour) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.streamFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Stream<LocalDateTime> timeSlots = schedulingAPI.streamFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+            metrics.get(Operation.STREAM_FREE_TIME_SLOTS).recordSuccess(System.nanoTime() - start);
+            return timeSlots;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.STREAM_FREE_TIME_SLOTS).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<LocalDateTime> getFreeTimeSlotPage(final Set<String> personEmails, final PageCursor cursor, final LocalDate endDate,
+                                                   final int endHour, final int limit) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.getFreeTimeSlotPage(personEmails, cursor, endDate, endHour, limit);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Page<LocalDateTime> page = schedulingAPI.getFreeTimeSlotPage(personEmails, cursor, endDate, endHour, limit);
+            metrics.get(Operation.GET_FREE_TIME_SLOT_PAGE).recordSuccess(System.nanoTime() - start, page.items().size());
+            return page;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.GET_FREE_TIME_SLOT_PAGE).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                                    final LocalDate endDate, final int endHour, final int count) {
+        return findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count, SlotConstraints.NONE);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                                    final LocalDate endDate, final int endHour, final int count, final SlotConstraints constraints) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count, constraints);
+        }
+        final long start = System.nanoTime();
+        try {
+            final List<LocalDateTime> slots = schedulingAPI.findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count, constraints);
+            metrics.get(Operation.FIND_FIRST_COMMON_SLOTS).recordSuccess(System.nanoTime() - start, slots.size());
+            return slots;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.FIND_FIRST_COMMON_SLOTS).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public MeetingSubscription subscribe(final Set<String> personEmails, final TimeRange window) {
+        if (!metrics.isEnabled()) {
+            return schedulingAPI.subscribe(personEmails, window);
+        }
+        final long start = System.nanoTime();
+        try {
+            final MeetingSubscription subscription = schedulingAPI.subscribe(personEmails, window);
+            metrics.get(Operation.SUBSCRIBE).recordSuccess(System.nanoTime() - start, personEmails.size());
+            return subscription;
+        } catch (RuntimeException e) {
+            metrics.get(Operation.SUBSCRIBE).recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package main.java.com.wtomaszewski.schedulingservice.api;
 
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
 import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
 import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
 import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
 import main.java.com.wtomaszewski.schedulingservice.repository.MeetingRepository;
@@ -8,26 +17,52 @@ import main.java.com.wtomaszewski.schedulingservice.repository.PersonRepository;
 import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
 import main.java.com.wtomaszewski.schedulingservice.service.SchedulingService;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * A meeting scheduling service that facilitates creating meetings and managing schedules.
  * Requirements clarification:
  * - Added 'checkConflicts' parameter to createMeeting method to indicate whether to check for conflicts.
  * - If conflicts are detected and 'checkConflicts' is set to true, an exception is thrown.
+ * - tryCreateMeeting always checks conflicts and returns every busy attendee and unknown email instead of throwing at the first one,
+ *   for clients which expect conflicts and retry.
+ * - bookFirstAvailable finds and books the earliest hour free for all attendees in one atomic step, instead of suggestTimeSlots
+ *   followed by a createMeeting which may lose the hour to another client; it returns an empty Optional when no hour of the range is free.
  * - Initial data for persons is provided via an in-memory person repository, which sets up some predefined persons and meetings for testing and demonstration purposes.
  * Note on time zones:
- * - The system's default time zone is used for handling current date and time.
- * - LocalDateTime.now() returns the current date and time based on the system clock of the local machine.
+ * - Dates, hours and LocalDateTime values passed to and returned from the API are UTC; meetings are stored on a UTC epoch hour/minute axis.
+ * - Every person has a ZoneId (UTC when created without one). suggestTimeSlots with SlotConstraints applies the constraints in the local time
+ *   of each attendee, using offset tables precomputed per zone, so DST gaps and overlaps need no special handling by clients.
+ * - The system's default time zone is only used to decide which meetings are old enough to be archived.
  * Potential implementation compromises:
- * - Implementing support for time zones might require refactoring to use OffsetDateTime instead.
  * - The error handling and validation mechanisms covers basic scenarios and could be improved f.e. if an exception occurs during data initialization,
  *   the entire service is marked as failed.
- * - The current implementation may not scale well for a large number of persons or meetings but the code could be refactored to be safe for multiple threads
- *   by replace HashMap with ConcurrentHashMap, synchronize methods or critical sections.
- * - Repository classes are only for preparation for future improvements as currently they are using to read the data but not for save
+ * - The service is safe for multiple threads: conflict check and reservation are atomic per set of attendees (locks striped by email),
+ *   while getSchedule and suggestTimeSlots read concurrent structures without locking. SingleWriterSchedulingService is an alternative mode
+ *   where all writes are queued to one writer thread, which also offers CompletableFuture variants of the writes.
+ * - Range queries have streamed and paged variants (streamSchedule, getSchedulePage, streamFreeTimeSlots, getFreeTimeSlotPage)
+ *   which read only as much of the calendars as the caller consumes and, unlike getSchedule, return every meeting of an hour.
+ * - Recurring meetings (createRecurringMeeting) are stored as rules and expanded only while a range is read, so a series costs
+ *   the same whatever the number of its occurrences; conflicts between two series are computed without expanding either of them.
+ * - Meetings may also start at any minute and last up to a day (createMeeting with a Duration). Hour-based queries treat an hour
+ *   as busy when any of its minutes is, suggestTimeRanges returns the exact free ranges of a window instead.
+ * - Hour reservations are kept on the heap by default; MinimalSchedulingService can keep them off-heap in a MappedReservationFile
+ *   instead, so the heap of very large tenants does not grow with their history. The file is rebuilt from the repositories on every start.
+ * - ShardedSchedulingAPI spreads persons over several services by email hash; meetings spanning shards are created in two phases
+ *   (hold on every shard, then create everywhere) and free slot searches are answered by all involved shards in parallel.
+ * - subscribe pushes meetings created after it with any of the given persons, optionally only inside a time window, instead of clients
+ *   polling getSchedule. Every subscription has a bounded queue which writers never wait for; meetings not fitting in it are reported
+ *   as one missed time range to re-read. Meetings of series are not published.
+ * - Repositories are read on startup and receive every created person and meeting before it is applied. In-memory repositories ignore
+ *   the writes, WriteAheadLogRepository appends them to a log which is replayed on the next start.
  */
 public class MinimalSchedulingAPI implements SchedulingAPI {
     private final SchedulingService schedulingService;
@@ -40,24 +75,119 @@ public class MinimalSchedulingAPI implements SchedulingAPI {
         this.schedulingService = new MinimalSchedulingService(personRepository, meetingRepository);
     }
 
+    public MinimalSchedulingAPI(final SchedulingService schedulingService) {
+        this.schedulingService = schedulingService;
+    }
+
     @Override
     public void createPerson(final String name, final String email) {
         schedulingService.createPerson(name, email);
     }
 
+    @Override
+    public void createPerson(final String name, final String email, final ZoneId zone) {
+        schedulingService.createPerson(name, email, zone);
+    }
+
     @Override
     public void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts) {
         schedulingService.createMeeting(personEmails, date, hour, checkConflicts);
     }
 
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDateTime startTime, final Duration duration, final boolean checkConflicts) {
+        schedulingService.createMeeting(personEmails, startTime, duration, checkConflicts);
+    }
+
+    @Override
+    public MeetingResult tryCreateMeeting(final Set<String> personEmails, final LocalDate date, final int hour) {
+        return schedulingService.tryCreateMeeting(personEmails, date, hour);
+    }
+
+    @Override
+    public Optional<Meeting> bookFirstAvailable(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.bookFirstAvailable(personEmails, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public List<Meeting> createMeetings(final Collection<MeetingRequest> meetingRequests) {
+        return schedulingService.createMeetings(meetingRequests);
+    }
+
+    @Override
+    public void createRecurringMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence, final boolean checkConflicts) {
+        schedulingService.createRecurringMeeting(personEmails, date, hour, recurrence, checkConflicts);
+    }
+
     @Override
     public Set<Meeting> getSchedule(final String email, final LocalDate date, final int hour) {
         return schedulingService.getSchedule(email, date, hour);
     }
 
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.getSchedule(email, startDate, startHour, endDate, endHour);
+    }
+
     @Override
     public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
                                                 final LocalDate endDate, final int endHour) {
         return schedulingService.suggestTimeSlots(personEmails, startDate, startHour, endDate, endHour);
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<TimeRange> suggestTimeRanges(final Set<String> personEmails, final LocalDateTime startTime, final LocalDateTime endTime, final Duration minDuration) {
+        return schedulingService.suggestTimeRanges(personEmails, startTime, endTime, minDuration);
+    }
+
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour,
+                                               final SlotConstraints localConstraints) {
+        return schedulingService.suggestTimeSlots(personEmails, startDate, startHour, endDate, endHour, localConstraints);
+    }
+
+    @Override
+    public FreeTimeSlots findFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                           final LocalDate endDate, final int endHour) {
+        return schedulingService.findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Stream<Meeting> streamSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.streamSchedule(email, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Page<Meeting> getSchedulePage(final String email, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        return schedulingService.getSchedulePage(email, cursor, endDate, endHour, limit);
+    }
+
+    @Override
+    public Stream<LocalDateTime> streamFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                                     final LocalDate endDate, final int endHour) {
+        return schedulingService.streamFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Page<LocalDateTime> getFreeTimeSlotPage(final Set<String> personEmails, final PageCursor cursor, final LocalDate endDate,
+                                                   final int endHour, final int limit) {
+        return schedulingService.getFreeTimeSlotPage(personEmails, cursor, endDate, endHour, limit);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                                    final LocalDate endDate, final int endHour, final int count) {
+        return schedulingService.findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                                    final LocalDate endDate, final int endHour, final int count, final SlotConstraints constraints) {
+        return schedulingService.findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count, constraints);
+    }
+
+    @Override
+    public MeetingSubscription subscribe(final Set<String> personEmails, final TimeRange window) {
+        return schedulingService.subscribe(personEmails, window);
+    }
+}
@@ -1,18 +1,69 @@
 package main.java.com.wtomaszewski.schedulingservice.api;
 
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
 import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface SchedulingAPI {
 
     void createPerson(final String name, final String email);
 
+    void createPerson(final String name, final String email, final ZoneId zone);
+
     void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts);
 
+    void createMeeting(final Set<String> personEmails, final LocalDateTime startTime, final Duration duration, final boolean checkConflicts);
+
+    MeetingResult tryCreateMeeting(final Set<String> personEmails, final LocalDate date, final int hour);
+
+    Optional<Meeting> bookFirstAvailable(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour);
+
+    List<Meeting> createMeetings(final Collection<MeetingRequest> meetingRequests);
+
+    void createRecurringMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence, final boolean checkConflicts);
+
     Set<Meeting> getSchedule(final String email, final LocalDate date, final int hour);
 
+    Set<Meeting> getSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour);
+
     Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour);
+
+    Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour,
+                                        final SlotConstraints localConstraints);
+
+    List<TimeRange> suggestTimeRanges(final Set<String> personEmails, final LocalDateTime startTime, final LocalDateTime endTime, final Duration minDuration);
+
+    FreeTimeSlots findFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour);
+
+    Stream<Meeting> streamSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour);
+
+    Page<Meeting> getSchedulePage(final String email, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit);
+
+    Stream<LocalDateTime> streamFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour);
+
+    Page<LocalDateTime> getFreeTimeSlotPage(final Set<String> personEmails, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit);
+
+    List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count);
+
+    List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count,
+                                             final SlotConstraints constraints);
+
+    MeetingSubscription subscribe(final Set<String> personEmails, final TimeRange window);
 }
@@ -0,0 +1,503 @@
+package main.java.com.wtomaszewski.schedulingservice.api;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+import main.java.com.wtomaszewski.schedulingservice.exception.PersonNotExistException;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingFeed;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+import main.java.com.wtomaszewski.schedulingservice.service.PreparedMeeting;
+import main.java.com.wtomaszewski.schedulingservice.service.SchedulingService;
+import main.java.com.wtomaszewski.schedulingservice.shard.SchedulingShard;
+import main.java.com.wtomaszewski.schedulingservice.shard.TimeHold;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService.INVALID_INPUT_ERROR;
+import static main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService.MAX_MEETING_DURATION;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochMinute;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getLocalDateTime;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.toPage;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.validateInput;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.validateMeetingResult;
+
+/**
+ * Routes the API over shards, each owning the persons whose email hashes to it.
+ * - Schedules of a person are read from the shard owning them.
+ * - Free slot searches ask every shard owning some of the attendees in parallel, each for its own attendees, and intersect the answers.
+ * - Meetings are created in two phases: every shard owning an attendee checks the meeting, holds its time and stores it as prepared,
+ *   then all of them apply it. When any shard rejects the meeting or fails to store it, the others abort it and nothing is created.
+ *   The second phase only changes memory, so once every shard prepared the meeting it is created on all of them.
+ * - Subscriptions are served by a feed of this API, which publishes a meeting once after all shards created it; the services of the shards
+ *   publish nothing for meetings created in two phases.
+ * Shards are in-process objects here, their prepare, commit and abort calls are the protocol a remote shard would have to serve.
+ */
+public class ShardedSchedulingAPI implements SchedulingAPI {
+
+    private final List<SchedulingShard> shards;
+    private final Executor fanOutExecutor;
+    private final AtomicLong transactionIds;
+    private final MeetingFeed meetingFeed;
+
+    public ShardedSchedulingAPI(final List<SchedulingShard> shards) {
+        this(shards, ForkJoinPool.commonPool());
+    }
+
+    public ShardedSchedulingAPI(final List<SchedulingShard> shards, final Executor fanOutExecutor) {
+        validateInput(shards == null || shards.isEmpty() || fanOutExecutor == null, INVALID_INPUT_ERROR);
+        this.shards = List.copyOf(shards);
+        this.fanOutExecutor = fanOutExecutor;
+        this.transactionIds = new AtomicLong();
+        this.meetingFeed = new MeetingFeed();
+    }
+
+    public int shardOf(final String email) {
+        final int hash = email.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.size());
+    }
+
+    @Override
+    public void createPerson(final String name, final String email) {
+        createPerson(name, email, ZoneOffset.UTC);
+    }
+
+    @Override
+    public void createPerson(final String name, final String email, final ZoneId zone) {
+        validateInput(email == null, INVALID_INPUT_ERROR);
+        shards.get(shardOf(email)).createPerson(name, email, zone);
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts) {
+        validateInput(personEmails == null || personEmails.isEmpty() || date == null || hour < 0 || hour > 23, INVALID_INPUT_ERROR);
+        final long startMinute = getEpochHour(date, hour) * 60;
+        createMeeting(personEmails, TimeHold.of(startMinute, startMinute + 60), checkConflicts, new Meeting(personEmails, getLocalDateTime(date, hour)),
+                schedulingService -> schedulingService.prepareMeeting(personEmails, startMinute, startMinute + 60));
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDateTime startTime, final Duration duration, final boolean checkConflicts) {
+        validateInput(personEmails == null || personEmails.isEmpty() || startTime == null || startTime.getSecond() != 0 || startTime.getNano() != 0 || !isValid(duration),
+                INVALID_INPUT_ERROR);
+        final long startMinute = getEpochMinute(startTime);
+        final long endMinute = startMinute + duration.toMinutes();
+        createMeeting(personEmails, TimeHold.of(startMinute, endMinute), checkConflicts, new Meeting(personEmails, startTime, startTime.plus(duration)),
+                schedulingService -> schedulingService.prepareMeeting(personEmails, startMinute, endMinute));
+    }
+
+    @Override
+    public MeetingResult tryCreateMeeting(final Set<String> personEmails, final LocalDate date, final int hour) {
+        validateInput(personEmails == null || personEmails.isEmpty() || date == null || hour < 0 || hour > 23, INVALID_INPUT_ERROR);
+        final long startMinute = getEpochHour(date, hour) * 60;
+        return tryCreateMeeting(personEmails, TimeHold.of(startMinute, startMinute + 60), true, new Meeting(personEmails, getLocalDateTime(date, hour)),
+                schedulingService -> schedulingService.prepareMeeting(personEmails, startMinute, startMinute + 60));
+    }
+
+    /**
+     * Takes the earliest hour free on every involved shard and creates the meeting there in two phases; when another meeting takes
+     * the hour in between, the search goes on after it, so callers never have to retry.
+     */
+    @Override
+    public Optional<Meeting> bookFirstAvailable(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        validateInput(personEmails == null || personEmails.isEmpty() || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23,
+                INVALID_INPUT_ERROR);
+        final long toHour = getEpochHour(endDate, endHour);
+        long fromHour = getEpochHour(startDate, startHour);
+        validateInput(toHour < fromHour, INVALID_INPUT_ERROR);
+        while (fromHour < toHour) {
+            final LocalDateTime from = getLocalDateTime(fromHour);
+            final PrimitiveIterator.OfLong freeHours = findFreeTimeSlots(personEmails, from.toLocalDate(), from.getHour(), endDate, endHour).epochHours();
+            if (!freeHours.hasNext()) {
+                return Optional.empty();
+            }
+            final long epochHour = freeHours.nextLong();
+            final LocalDateTime startTime = getLocalDateTime(epochHour);
+            final MeetingResult result = tryCreateMeeting(personEmails, startTime.toLocalDate(), startTime.getHour());
+            if (result.isSuccess()) {
+                return Optional.of(new Meeting(personEmails, startTime));
+            }
+            if (!result.unknownEmails().isEmpty()) {
+                validateMeetingResult(result);
+            }
+            fromHour = epochHour + 1;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Prepares every meeting of the batch before committing any of them, so either all of them are created or none.
+     */
+    @Override
+    public List<Meeting> createMeetings(final Collection<MeetingRequest> meetingRequests) {
+        validateInput(meetingRequests == null, INVALID_INPUT_ERROR);
+        final List<MeetingRequest> requests = new ArrayList<>(meetingRequests);
+        final List<Map<Integer, Set<String>>> participants = new ArrayList<>(requests.size());
+        final long[] transactionIds = new long[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            final MeetingRequest request = requests.get(i);
+            validateInput(request == null || request.personEmails() == null || request.personEmails().isEmpty() || request.date() == null
+                    || request.hour() < 0 || request.hour() > 23, INVALID_INPUT_ERROR);
+            participants.add(partition(request.personEmails()));
+            transactionIds[i] = this.transactionIds.incrementAndGet();
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            final MeetingRequest request = requests.get(i);
+            final long startMinute = getEpochHour(request.date(), request.hour()) * 60;
+            final MeetingResult result;
+            try {
+                result = prepare(transactionIds[i], participants.get(i), TimeHold.of(startMinute, startMinute + 60), request.checkConflicts(),
+                        schedulingService -> schedulingService.prepareMeeting(request.personEmails(), startMinute, startMinute + 60));
+            } catch (RuntimeException e) {
+                throw withSuppressed(e, abortAll(transactionIds, participants, i));
+            }
+            if (!result.isSuccess()) {
+                final RuntimeException failure = abortAll(transactionIds, participants, i);
+                if (failure != null) {
+                    throw failure;
+                }
+                validateMeetingResult(result);
+            }
+        }
+        final List<Meeting> meetings = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            final MeetingRequest request = requests.get(i);
+            commit(transactionIds[i], participants.get(i));
+            meetings.add(new Meeting(request.personEmails(), getLocalDateTime(request.date(), request.hour())));
+        }
+        meetingFeed.publishAll(meetings);
+        return meetings;
+    }
+
+    @Override
+    public void createRecurringMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence, final boolean checkConflicts) {
+        validateInput(personEmails == null || personEmails.isEmpty() || date == null || hour < 0 || hour > 23 || recurrence == null || !recurrence.isValid(),
+                INVALID_INPUT_ERROR);
+        final RecurrenceRule rule = RecurrenceRule.of(getEpochHour(date, hour), recurrence);
+        validateInput(rule.getCount() == 0, INVALID_INPUT_ERROR);
+        createMeeting(personEmails, TimeHold.of(rule), checkConflicts, null,
+                schedulingService -> schedulingService.prepareRecurringMeeting(personEmails, date, hour, recurrence));
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate date, final int hour) {
+        return owner(email).getSchedule(email, date, hour);
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return owner(email).getSchedule(email, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour).stream()
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * A slot starting a long enough run of allowed free hours for the attendees of every shard does so for all of them together,
+     * so the answers of the shards are simply intersected.
+     */
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour,
+                                               final SlotConstraints localConstraints) {
+        final List<Set<LocalDateTime>> shardSlots = fanOut(personEmails,
+                (schedulingService, emails) -> schedulingService.suggestTimeSlots(emails, startDate, startHour, endDate, endHour, localConstraints));
+        final Set<LocalDateTime> slots = new TreeSet<>(shardSlots.get(0));
+        for (Set<LocalDateTime> other : shardSlots.subList(1, shardSlots.size())) {
+            slots.retainAll(other);
+        }
+        return slots;
+    }
+
+    /**
+     * Shards return all their free ranges, minDuration only applies to the intersection of them.
+     */
+    @Override
+    public List<TimeRange> suggestTimeRanges(final Set<String> personEmails, final LocalDateTime startTime, final LocalDateTime endTime, final Duration minDuration) {
+        validateInput(minDuration == null || minDuration.isNegative() || minDuration.isZero(), INVALID_INPUT_ERROR);
+        final List<List<TimeRange>> shardRanges = fanOut(personEmails,
+                (schedulingService, emails) -> schedulingService.suggestTimeRanges(emails, startTime, endTime, Duration.ofMinutes(1)));
+        List<TimeRange> ranges = shardRanges.get(0);
+        for (List<TimeRange> other : shardRanges.subList(1, shardRanges.size())) {
+            ranges = intersection(ranges, other);
+        }
+        return ranges.stream()
+                .filter(range -> range.duration().compareTo(minDuration) >= 0)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public FreeTimeSlots findFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return fanOut(personEmails, (schedulingService, emails) -> schedulingService.findFreeTimeSlots(emails, startDate, startHour, endDate, endHour)).stream()
+                .reduce(FreeTimeSlots::intersection)
+                .orElseThrow();
+    }
+
+    @Override
+    public Stream<Meeting> streamSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return owner(email).streamSchedule(email, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Page<Meeting> getSchedulePage(final String email, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        return owner(email).getSchedulePage(email, cursor, endDate, endHour, limit);
+    }
+
+    @Override
+    public Stream<LocalDateTime> streamFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour).stream();
+    }
+
+    @Override
+    public Page<LocalDateTime> getFreeTimeSlotPage(final Set<String> personEmails, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        validateInput(cursor == null || cursor.startTime() == null || cursor.skip() < 0 || limit <= 0, INVALID_INPUT_ERROR);
+        final LocalDateTime startTime = getLocalDateTime(getEpochHour(cursor.startTime()));
+        final Stream<LocalDateTime> freeTimeSlots = findFreeTimeSlots(personEmails, startTime.toLocalDate(), startTime.getHour(), endDate, endHour).stream()
+                .skip(cursor.skip());
+        return toPage(freeTimeSlots, new PageCursor(startTime, cursor.skip()), limit, Function.identity());
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count) {
+        return findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count, SlotConstraints.NONE);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count,
+                                                    final SlotConstraints constraints) {
+        validateInput(count <= 0 || constraints == null || !constraints.isValid(), INVALID_INPUT_ERROR);
+        final PrimitiveIterator.OfLong freeHours = findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour).epochHours();
+        final List<LocalDateTime> slots = new ArrayList<>(count);
+        long previousHour = Long.MIN_VALUE;
+        int runLength = 0;
+        while (slots.size() < count && freeHours.hasNext()) {
+            final long hour = freeHours.nextLong();
+            if (!constraints.allows(hour)) {
+                continue;
+            }
+            runLength = hour == previousHour + 1 ? runLength + 1 : 1;
+            previousHour = hour;
+            if (runLength >= constraints.consecutiveHours()) {
+                slots.add(getLocalDateTime(hour - constraints.consecutiveHours() + 1));
+            }
+        }
+        return slots;
+    }
+
+    @Override
+    public MeetingSubscription subscribe(final Set<String> personEmails, final TimeRange window) {
+        validateInput(personEmails == null || personEmails.isEmpty() || window != null && !window.isValid(), INVALID_INPUT_ERROR);
+        for (String email : personEmails) {
+            if (!owner(email).getPersonsMap().containsKey(email)) {
+                throw new PersonNotExistException(email);
+            }
+        }
+        return meetingFeed.subscribe(personEmails, window, MeetingFeed.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    private SchedulingService owner(final String email) {
+        validateInput(email == null, INVALID_INPUT_ERROR);
+        return shards.get(shardOf(email)).getSchedulingService();
+    }
+
+    /**
+     * Emails of the given persons by the index of the shard owning them, in shard order so that shards are always prepared in the same order.
+     */
+    private Map<Integer, Set<String>> partition(final Set<String> personEmails) {
+        final Map<Integer, Set<String>> participants = new TreeMap<>();
+        for (String email : personEmails) {
+            validateInput(email == null, INVALID_INPUT_ERROR);
+            participants.computeIfAbsent(shardOf(email), shard -> new HashSet<>()).add(email);
+        }
+        return participants;
+    }
+
+    private void createMeeting(final Set<String> personEmails, final TimeHold hold, final boolean checkConflicts, final Meeting meeting,
+                               final Function<MinimalSchedulingService, PreparedMeeting> stage) {
+        validateMeetingResult(tryCreateMeeting(personEmails, hold, checkConflicts, meeting, stage));
+    }
+
+    /**
+     * Publishes meeting once it is created on every shard, unless it is null (a series).
+     */
+    private MeetingResult tryCreateMeeting(final Set<String> personEmails, final TimeHold hold, final boolean checkConflicts, final Meeting meeting,
+                                           final Function<MinimalSchedulingService, PreparedMeeting> stage) {
+        final Map<Integer, Set<String>> participants = partition(personEmails);
+        final long transactionId = transactionIds.incrementAndGet();
+        final MeetingResult result = prepare(transactionId, participants, hold, checkConflicts, stage);
+        if (result.isSuccess()) {
+            commit(transactionId, participants);
+            if (meeting != null) {
+                meetingFeed.publish(meeting);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Asks every shard even after a rejection, so the result lists the failures of all of them; nothing stays prepared when any shard rejects.
+     * A repository error of a shard stops the prepare and is thrown once the shards prepared so far aborted.
+     */
+    private MeetingResult prepare(final long transactionId, final Map<Integer, Set<String>> participants, final TimeHold hold, final boolean checkConflicts,
+                                  final Function<MinimalSchedulingService, PreparedMeeting> stage) {
+        final List<Integer> prepared = new ArrayList<>(participants.size());
+        final List<String> conflictingEmails = new ArrayList<>();
+        final List<String> unknownEmails = new ArrayList<>();
+        for (Map.Entry<Integer, Set<String>> participant : participants.entrySet()) {
+            final MeetingResult result;
+            try {
+                result = shards.get(participant.getKey()).prepare(transactionId, participant.getValue(), hold, checkConflicts, stage);
+            } catch (RuntimeException e) {
+                throw withSuppressed(e, abort(transactionId, prepared));
+            }
+            if (result.isSuccess()) {
+                prepared.add(participant.getKey());
+            } else {
+                conflictingEmails.addAll(result.conflictingEmails());
+                unknownEmails.addAll(result.unknownEmails());
+            }
+        }
+        if (prepared.size() == participants.size()) {
+            return MeetingResult.SUCCESS;
+        }
+        final RuntimeException failure = abort(transactionId, prepared);
+        if (failure != null) {
+            throw failure;
+        }
+        return new MeetingResult(conflictingEmails, unknownEmails);
+    }
+
+    /**
+     * Applies a meeting every shard prepared; this only changes memory, so it cannot fail.
+     */
+    private void commit(final long transactionId, final Map<Integer, Set<String>> participants) {
+        for (int shard : participants.keySet()) {
+            shards.get(shard).commit(transactionId);
+        }
+    }
+
+    /**
+     * Aborts on every shard even after one of them fails to store the abort; returns the failure, null when there is none.
+     */
+    private RuntimeException abort(final long transactionId, final Collection<Integer> participants) {
+        RuntimeException failure = null;
+        for (int shard : participants) {
+            try {
+                shards.get(shard).abort(transactionId);
+            } catch (RuntimeException e) {
+                failure = withSuppressed(failure, e);
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Aborts the first count meetings of a batch.
+     */
+    private RuntimeException abortAll(final long[] transactionIds, final List<Map<Integer, Set<String>>> participants, final int count) {
+        RuntimeException failure = null;
+        for (int i = 0; i < count; i++) {
+            failure = withSuppressed(failure, abort(transactionIds[i], participants.get(i).keySet()));
+        }
+        return failure;
+    }
+
+    private static RuntimeException withSuppressed(final RuntimeException failure, final RuntimeException other) {
+        if (failure == null) {
+            return other;
+        }
+        if (other != null && other != failure) {
+            failure.addSuppressed(other);
+        }
+        return failure;
+    }
+
+    /**
+     * Answers of query from every shard owning some of the given persons, each asked for its own persons; shards are asked in parallel
+     * on the fan-out executor unless there is only one of them.
+     */
+    private <T> List<T> fanOut(final Set<String> personEmails, final BiFunction<SchedulingService, Set<String>, T> query) {
+        validateInput(personEmails == null || personEmails.isEmpty(), INVALID_INPUT_ERROR);
+        final Map<Integer, Set<String>> participants = partition(personEmails);
+        if (participants.size() == 1) {
+            final Map.Entry<Integer, Set<String>> participant = participants.entrySet().iterator().next();
+            return List.of(query.apply(shards.get(participant.getKey()).getSchedulingService(), participant.getValue()));
+        }
+        final List<CompletableFuture<T>> answers = new ArrayList<>(participants.size());
+        for (Map.Entry<Integer, Set<String>> participant : participants.entrySet()) {
+            final SchedulingService schedulingService = shards.get(participant.getKey()).getSchedulingService();
+            answers.add(CompletableFuture.supplyAsync(() -> query.apply(schedulingService, participant.getValue()), fanOutExecutor));
+        }
+        final List<T> results = new ArrayList<>(answers.size());
+        for (CompletableFuture<T> answer : answers) {
+            try {
+                results.add(answer.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private static List<TimeRange> intersection(final List<TimeRange> ranges, final List<TimeRange> otherRanges) {
+        final List<TimeRange> common = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < ranges.size() && j < otherRanges.size()) {
+            final TimeRange range = ranges.get(i);
+            final TimeRange other = otherRanges.get(j);
+            final LocalDateTime start = range.start().isAfter(other.start()) ? range.start() : other.start();
+            final LocalDateTime end = range.end().isBefore(other.end()) ? range.end() : other.end();
+            if (start.isBefore(end)) {
+                common.add(new TimeRange(start, end));
+            }
+            if (range.end().isBefore(other.end())) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common;
+    }
+
+    private static boolean isValid(final Duration duration) {
+        return duration != null && !duration.isNegative() && !duration.isZero() && duration.toSeconds() % 60 == 0 && duration.getNano() == 0
+                && duration.compareTo(MAX_MEETING_DURATION) <= 0;
+    }
+}
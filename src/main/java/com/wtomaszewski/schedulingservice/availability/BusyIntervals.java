@@ -0,0 +1,56 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Minute-granular busy time of a single person as disjoint [start, end) intervals keyed by start minute.
+ * Touching or overlapping intervals are merged on insert, so an overlap test is one floor lookup, O(log n),
+ * and the busy ranges of a window are a sub map walk. A merge installs the merged interval before removing the ones it covers,
+ * so readers never see less busy time than before the insert. Writers have to be serialized by the caller.
+ */
+public class BusyIntervals {
+
+    private final NavigableMap<Long, Long> endsByStart;
+
+    public BusyIntervals() {
+        this.endsByStart = new ConcurrentSkipListMap<>();
+    }
+
+    public void add(final long startMinute, final long endMinute) {
+        long mergedStart = startMinute;
+        long mergedEnd = endMinute;
+        final Map.Entry<Long, Long> previous = endsByStart.floorEntry(startMinute);
+        if (previous != null && previous.getValue() >= startMinute) {
+            mergedStart = previous.getKey();
+            mergedEnd = Math.max(mergedEnd, previous.getValue());
+        }
+        final NavigableMap<Long, Long> covered = endsByStart.subMap(mergedStart, false, mergedEnd, true);
+        for (Long coveredEnd : covered.values()) {
+            mergedEnd = Math.max(mergedEnd, coveredEnd);
+        }
+        endsByStart.put(mergedStart, mergedEnd);
+        endsByStart.subMap(mergedStart, false, mergedEnd, true).clear();
+    }
+
+    public boolean overlaps(final long startMinute, final long endMinute) {
+        final Map.Entry<Long, Long> candidate = endsByStart.lowerEntry(endMinute);
+        return candidate != null && candidate.getValue() > startMinute;
+    }
+
+    public boolean isEmpty() {
+        return endsByStart.isEmpty();
+    }
+
+    /**
+     * Busy intervals overlapping [fromMinute, toMinute) ordered by start, not clipped to the window.
+     * While a merge is in progress an interval may be reported next to the merged one containing it.
+     */
+    public Iterator<Map.Entry<Long, Long>> overlapping(final long fromMinute, final long toMinute) {
+        final Map.Entry<Long, Long> previous = endsByStart.lowerEntry(fromMinute);
+        final long fromKey = previous != null && previous.getValue() > fromMinute ? previous.getKey() : fromMinute;
+        return endsByStart.subMap(fromKey, true, toMinute, false).entrySet().iterator();
+    }
+}
@@ -0,0 +1,60 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Free hours of a time range computed one week at a time, so iterating the first few slots of a long range
+ * only reads the reservation chunks it passes and keeps a single week of occupancy bits.
+ * Attendees of a week are skipped as soon as the week is fully occupied.
+ */
+public class FreeTimeSlotScanner implements PrimitiveIterator.OfLong {
+
+    private final ReservationBitmap[] reservations;
+    private final long toHour;
+    private long windowEnd;
+    private PrimitiveIterator.OfLong window;
+
+    public FreeTimeSlotScanner(final ReservationBitmap[] reservations, final long fromHour, final long toHour) {
+        this.reservations = reservations;
+        this.toHour = toHour;
+        this.windowEnd = fromHour;
+        this.window = new FreeTimeSlots(fromHour, fromHour, new long[0]).epochHours();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!window.hasNext() && windowEnd < toHour) {
+            final long windowStart = windowEnd;
+            windowEnd = Math.min(toHour, (Math.floorDiv(windowStart, ReservationBitmap.CHUNK_HOURS) + 1) * ReservationBitmap.CHUNK_HOURS);
+            final long[] occupied = FreeTimeSlots.newOccupancy(windowStart, windowEnd);
+            for (ReservationBitmap reservation : reservations) {
+                reservation.orInto(occupied, windowStart, windowEnd);
+                if (isFullyOccupied(occupied, (int) (windowEnd - windowStart))) {
+                    // the remaining attendees cannot free any hour of this week
+                    break;
+                }
+            }
+            window = new FreeTimeSlots(windowStart, windowEnd, occupied).epochHours();
+        }
+        return window.hasNext();
+    }
+
+    @Override
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return window.nextLong();
+    }
+
+    private static boolean isFullyOccupied(final long[] occupied, final int hourCount) {
+        for (int i = 0; i < occupied.length; i++) {
+            final int bits = Math.min(Long.SIZE, hourCount - i * Long.SIZE);
+            if (occupied[i] != (bits == Long.SIZE ? -1L : (1L << bits) - 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
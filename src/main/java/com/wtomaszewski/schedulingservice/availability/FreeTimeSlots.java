@@ -0,0 +1,120 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getLocalDateTime;
+
+/**
+ * Free hours of a time range, stored as one occupancy bit per hour.
+ * Slots are produced lazily, LocalDateTime objects are only created for the slots which are actually consumed.
+ */
+public class FreeTimeSlots implements Iterable<LocalDateTime> {
+
+    private final long fromHour;
+    private final int hourCount;
+    private final long[] occupied;
+
+    public FreeTimeSlots(final long fromHour, final long toHour, final long[] occupied) {
+        this.fromHour = fromHour;
+        this.hourCount = (int) Math.max(0, toHour - fromHour);
+        this.occupied = occupied;
+    }
+
+    public static long[] newOccupancy(final long fromHour, final long toHour) {
+        return new long[(int) ((Math.max(0, toHour - fromHour) + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    /**
+     * Hours free in both this and other, which have to cover the same time range.
+     */
+    public FreeTimeSlots intersection(final FreeTimeSlots other) {
+        if (other.fromHour != fromHour || other.hourCount != hourCount) {
+            throw new IllegalArgumentException("Free time slots of different time ranges");
+        }
+        final long[] union = new long[occupied.length];
+        for (int i = 0; i < union.length; i++) {
+            union[i] = occupied[i] | other.occupied[i];
+        }
+        return new FreeTimeSlots(fromHour, fromHour + hourCount, union);
+    }
+
+    public int size() {
+        int reserved = 0;
+        for (long word : occupied) {
+            reserved += Long.bitCount(word);
+        }
+        return hourCount - reserved;
+    }
+
+    public boolean isEmpty() {
+        return !epochHours().hasNext();
+    }
+
+    public PrimitiveIterator.OfLong epochHours() {
+        return new PrimitiveIterator.OfLong() {
+            private int nextIndex = nextFree(0);
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < hourCount;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int current = nextIndex;
+                nextIndex = nextFree(current + 1);
+                return fromHour + current;
+            }
+        };
+    }
+
+    public LongStream epochHourStream() {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(epochHours(), Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Iterator<LocalDateTime> iterator() {
+        final PrimitiveIterator.OfLong hours = epochHours();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return hours.hasNext();
+            }
+
+            @Override
+            public LocalDateTime next() {
+                return getLocalDateTime(hours.nextLong());
+            }
+        };
+    }
+
+    public Stream<LocalDateTime> stream() {
+        return epochHourStream().mapToObj(hour -> getLocalDateTime(hour));
+    }
+
+    private int nextFree(final int index) {
+        if (index >= hourCount) {
+            return hourCount;
+        }
+        int wordIndex = index >>> 6;
+        long free = ~occupied[wordIndex] & (-1L << index);
+        while (free == 0) {
+            if (++wordIndex == occupied.length) {
+                return hourCount;
+            }
+            free = ~occupied[wordIndex];
+        }
+        return Math.min(hourCount, (wordIndex << 6) + Long.numberOfTrailingZeros(free));
+    }
+}
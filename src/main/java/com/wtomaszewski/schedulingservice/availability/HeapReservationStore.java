@@ -0,0 +1,46 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap.WORDS_PER_CHUNK;
+
+/**
+ * Reservation chunks on the heap, allocated for the chunks with at least one reserved hour.
+ */
+public class HeapReservationStore implements ReservationStore {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Map<Long, long[]> chunks;
+
+    public HeapReservationStore() {
+        this.chunks = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void setBit(final long chunk, final int bit) {
+        final long[] words = chunks.computeIfAbsent(chunk, k -> new long[WORDS_PER_CHUNK]);
+        WORDS.setRelease(words, bit >>> 6, words[bit >>> 6] | (1L << bit));
+    }
+
+    @Override
+    public long getWord(final long chunk, final int word) {
+        final long[] words = chunks.get(chunk);
+        return words == null ? 0 : (long) WORDS.getAcquire(words, word);
+    }
+
+    @Override
+    public boolean readChunk(final long chunk, final long[] words) {
+        final long[] chunkWords = chunks.get(chunk);
+        if (chunkWords == null) {
+            return false;
+        }
+        for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+            words[i] = (long) WORDS.getAcquire(chunkWords, i);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import main.java.com.wtomaszewski.schedulingservice.exception.PersistenceException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap.CHUNK_HOURS;
+import static main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap.WORDS_PER_CHUNK;
+
+/**
+ * Reservation chunks of all persons off-heap, in a memory-mapped file with one fixed-size record per person and chunk:
+ * the record of chunk c of person p starts at (p * chunkCount + c - firstChunk) * RECORD_BYTES, so a lookup is arithmetic and a read
+ * is a plain load from the mapping. The file is sparse, records never written take no disk space, and the page cache holds the working set,
+ * so the heap does not grow with the number of reservations. Chunks outside the configured horizon go to a small heap store per person.
+ * The file is scratch space, not persistence: it is truncated when opened and refilled while the service replays its repositories,
+ * so startup still reads the whole history; only the memory holding the result moves off the heap.
+ */
+public class MappedReservationFile implements Closeable {
+
+    static final int RECORD_BYTES = WORDS_PER_CHUNK * Long.BYTES;
+    private static final long SEGMENT_BYTES = (1L << 30) / RECORD_BYTES * RECORD_BYTES;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long firstChunk;
+    private final int chunkCount;
+    private volatile ByteBuffer[] segments;
+
+    /**
+     * Maps file for reservations in the weeks (chunks) starting at firstDate's chunk, chunkCount of them per person;
+     * whatever file held before is discarded.
+     */
+    public MappedReservationFile(final Path file, final LocalDate firstDate, final int chunkCount) {
+        this.file = file;
+        this.firstChunk = Math.floorDiv(firstDate.toEpochDay() * 24, CHUNK_HOURS);
+        this.chunkCount = chunkCount;
+        this.segments = new ByteBuffer[0];
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SPARSE);
+        } catch (IOException e) {
+            throw new PersistenceException(file, e);
+        }
+    }
+
+    /**
+     * Store of the person with the given id, for PersonIndex.
+     */
+    public ReservationStore store(final int personId) {
+        return new PersonStore(personId);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new PersistenceException(file, e);
+        }
+    }
+
+    private ByteBuffer segment(final int index) {
+        final ByteBuffer[] current = segments;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        return mapSegment(index);
+    }
+
+    private synchronized ByteBuffer mapSegment(final int index) {
+        ByteBuffer[] current = segments;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        try {
+            final ByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, index * SEGMENT_BYTES, SEGMENT_BYTES);
+            if (index >= current.length) {
+                current = Arrays.copyOf(current, index + 1);
+            } else {
+                current = current.clone();
+            }
+            current[index] = segment;
+            segments = current;
+            return segment;
+        } catch (IOException e) {
+            throw new PersistenceException(file, e);
+        }
+    }
+
+    private class PersonStore implements ReservationStore {
+
+        private final long firstRecord;
+        // created by the writer on the first chunk outside the horizon; volatile, so lock-free readers see it fully constructed
+        private volatile HeapReservationStore overflow;
+
+        PersonStore(final int personId) {
+            this.firstRecord = (long) personId * chunkCount;
+        }
+
+        @Override
+        public void setBit(final long chunk, final int bit) {
+            if (!isMapped(chunk)) {
+                HeapReservationStore heapStore = overflow;
+                if (heapStore == null) {
+                    heapStore = new HeapReservationStore();
+                    overflow = heapStore;
+                }
+                heapStore.setBit(chunk, bit);
+                return;
+            }
+            final long offset = offset(chunk) + (long) (bit >>> 6) * Long.BYTES;
+            final ByteBuffer segment = segment((int) (offset / SEGMENT_BYTES));
+            final int position = (int) (offset % SEGMENT_BYTES);
+            LONGS.setRelease(segment, position, (long) LONGS.get(segment, position) | (1L << bit));
+        }
+
+        @Override
+        public long getWord(final long chunk, final int word) {
+            if (!isMapped(chunk)) {
+                final HeapReservationStore heapStore = overflow;
+                return heapStore == null ? 0 : heapStore.getWord(chunk, word);
+            }
+            final long offset = offset(chunk) + (long) word * Long.BYTES;
+            return (long) LONGS.getAcquire(segment((int) (offset / SEGMENT_BYTES)), (int) (offset % SEGMENT_BYTES));
+        }
+
+        @Override
+        public boolean readChunk(final long chunk, final long[] words) {
+            if (!isMapped(chunk)) {
+                final HeapReservationStore heapStore = overflow;
+                return heapStore != null && heapStore.readChunk(chunk, words);
+            }
+            final long offset = offset(chunk);
+            final ByteBuffer segment = segment((int) (offset / SEGMENT_BYTES));
+            final int position = (int) (offset % SEGMENT_BYTES);
+            long any = 0;
+            for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+                words[i] = (long) LONGS.getAcquire(segment, position + i * Long.BYTES);
+                any |= words[i];
+            }
+            return any != 0;
+        }
+
+        private boolean isMapped(final long chunk) {
+            return chunk >= firstChunk && chunk - firstChunk < chunkCount;
+        }
+
+        private long offset(final long chunk) {
+            return (firstRecord + chunk - firstChunk) * RECORD_BYTES;
+        }
+    }
+}
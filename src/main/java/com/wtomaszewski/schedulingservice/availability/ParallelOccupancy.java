@@ -0,0 +1,69 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds the occupancy of a time range (see {@link FreeTimeSlots#newOccupancy}) from many reservations on a ForkJoinPool.
+ * The range is split into chunks of whole occupancy words, every chunk ORs all reservations into its own words
+ * and copies them into place, so chunks never write the same word and the result is the same as the sequential one.
+ */
+public final class ParallelOccupancy {
+
+    private static final int MIN_CHUNK_WORDS = 3;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelOccupancy() {
+    }
+
+    public static void orInto(final ForkJoinPool pool, final List<ReservationBitmap> reservations, final long[] occupied,
+                              final long fromHour, final long toHour) {
+        if (toHour <= fromHour) {
+            return;
+        }
+        final int chunkWords = Math.max(MIN_CHUNK_WORDS, occupied.length / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+        pool.invoke(new OccupancyChunk(reservations, occupied, fromHour, toHour, 0, occupied.length, chunkWords));
+    }
+
+    private static class OccupancyChunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<ReservationBitmap> reservations;
+        private final long[] occupied;
+        private final long fromHour;
+        private final long toHour;
+        private final int fromWord;
+        private final int toWord;
+        private final int chunkWords;
+
+        OccupancyChunk(final List<ReservationBitmap> reservations, final long[] occupied, final long fromHour, final long toHour,
+                       final int fromWord, final int toWord, final int chunkWords) {
+            this.reservations = reservations;
+            this.occupied = occupied;
+            this.fromHour = fromHour;
+            this.toHour = toHour;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+            this.chunkWords = chunkWords;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWord - fromWord > chunkWords) {
+                final int middleWord = (fromWord + toWord) >>> 1;
+                invokeAll(new OccupancyChunk(reservations, occupied, fromHour, toHour, fromWord, middleWord, chunkWords),
+                        new OccupancyChunk(reservations, occupied, fromHour, toHour, middleWord, toWord, chunkWords));
+                return;
+            }
+            final long chunkFromHour = fromHour + (long) fromWord * Long.SIZE;
+            final long chunkToHour = Math.min(toHour, fromHour + (long) toWord * Long.SIZE);
+            final long[] chunk = new long[toWord - fromWord];
+            for (ReservationBitmap reservation : reservations) {
+                reservation.orInto(chunk, chunkFromHour, chunkToHour);
+            }
+            System.arraycopy(chunk, 0, occupied, fromWord, chunk.length);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence.Frequency;
+
+import java.time.LocalDate;
+
+/**
+ * Occurrences of a {@link Recurrence} as epoch hours, computed on demand instead of being stored.
+ * Daily and weekly rules are arithmetic progressions of hours; monthly occurrence i is the first date plus i * interval months.
+ */
+public final class RecurrenceRule {
+
+    private final long firstHour;
+    private final Frequency frequency;
+    private final int interval;
+    private final long stepHours;
+    private final LocalDate firstDate;
+    private final int hourOfDay;
+    private final long count;
+    private final long lastHour;
+
+    private RecurrenceRule(final long firstHour, final Frequency frequency, final int interval, final Recurrence recurrence) {
+        this.firstHour = firstHour;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.stepHours = frequency == Frequency.DAILY ? 24L * interval : frequency == Frequency.WEEKLY ? 24L * 7 * interval : 0;
+        this.firstDate = LocalDate.ofEpochDay(Math.floorDiv(firstHour, 24));
+        this.hourOfDay = Math.floorMod(firstHour, 24);
+        this.count = recurrence.count() > 0 ? recurrence.count() : countUntil(recurrence.until());
+        this.lastHour = count == 0 ? firstHour - 1 : occurrence(count - 1);
+    }
+
+    /**
+     * Rule of a valid recurrence whose first occurrence starts at firstHour; it has no occurrences when until is before the first one.
+     */
+    public static RecurrenceRule of(final long firstHour, final Recurrence recurrence) {
+        return new RecurrenceRule(firstHour, recurrence.frequency(), recurrence.interval(), recurrence);
+    }
+
+    public long getFirstHour() {
+        return firstHour;
+    }
+
+    /**
+     * Start hour of the last occurrence.
+     */
+    public long getLastHour() {
+        return lastHour;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Start hour of occurrence index, 0 <= index < count.
+     */
+    public long occurrence(final long index) {
+        if (stepHours > 0) {
+            return firstHour + index * stepHours;
+        }
+        return firstDate.plusMonths(index * interval).toEpochDay() * 24 + hourOfDay;
+    }
+
+    /**
+     * Index of the first occurrence starting at or after epochHour, count if there is none.
+     */
+    public long firstIndexAtOrAfter(final long epochHour) {
+        if (epochHour <= firstHour) {
+            return 0;
+        }
+        if (epochHour > lastHour) {
+            return count;
+        }
+        if (stepHours > 0) {
+            return -Math.floorDiv(firstHour - epochHour, stepHours);
+        }
+        long index = monthsBetween(firstDate, LocalDate.ofEpochDay(Math.floorDiv(epochHour, 24))) / interval;
+        while (occurrence(index) < epochHour) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Start hour of the first occurrence in [fromHour, toHour), Long.MAX_VALUE if there is none.
+     */
+    public long firstOccurrenceIn(final long fromHour, final long toHour) {
+        final long index = firstIndexAtOrAfter(fromHour);
+        if (index == count) {
+            return Long.MAX_VALUE;
+        }
+        final long epochHour = occurrence(index);
+        return epochHour < toHour ? epochHour : Long.MAX_VALUE;
+    }
+
+    public boolean occursAt(final long epochHour) {
+        if (epochHour < firstHour || epochHour > lastHour) {
+            return false;
+        }
+        if (stepHours > 0) {
+            return (epochHour - firstHour) % stepHours == 0;
+        }
+        if (Math.floorMod(epochHour, 24) != hourOfDay) {
+            return false;
+        }
+        final LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(epochHour, 24));
+        final long months = monthsBetween(firstDate, date);
+        return months % interval == 0 && firstDate.plusMonths(months).equals(date);
+    }
+
+    /**
+     * Whether both rules share an occurrence. Two daily or weekly rules are solved as a pair of congruences
+     * (hour = first (mod step) for both), so the cost does not depend on the number of occurrences; when one of them is monthly,
+     * its few occurrences inside the common span are tested against the other rule.
+     */
+    public boolean intersects(final RecurrenceRule other) {
+        final long fromHour = Math.max(firstHour, other.firstHour);
+        final long toHour = Math.min(lastHour, other.lastHour);
+        if (fromHour > toHour) {
+            return false;
+        }
+        if (stepHours > 0 && other.stepHours > 0) {
+            final long gcd = gcd(stepHours, other.stepHours);
+            final long difference = other.firstHour - firstHour;
+            if (difference % gcd != 0) {
+                return false;
+            }
+            final long otherStep = other.stepHours / gcd;
+            final long multiplier = Math.floorMod((difference / gcd) % otherStep * inverse(stepHours / gcd % otherStep, otherStep), otherStep);
+            final long period = stepHours / gcd * other.stepHours;
+            final long firstCommonHour = fromHour + Math.floorMod(firstHour + multiplier * stepHours - fromHour, period);
+            return firstCommonHour <= toHour;
+        }
+        final RecurrenceRule monthly = stepHours == 0 ? this : other;
+        final RecurrenceRule another = monthly == this ? other : this;
+        for (long index = monthly.firstIndexAtOrAfter(fromHour); index < monthly.count; index++) {
+            final long epochHour = monthly.occurrence(index);
+            if (epochHour > toHour) {
+                return false;
+            }
+            if (another.occursAt(epochHour)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long countUntil(final LocalDate until) {
+        final long lastAllowedHour = until.toEpochDay() * 24 + 23;
+        if (lastAllowedHour < firstHour) {
+            return 0;
+        }
+        if (stepHours > 0) {
+            return (lastAllowedHour - firstHour) / stepHours + 1;
+        }
+        long index = monthsBetween(firstDate, until) / interval;
+        if (firstDate.plusMonths(index * interval).isAfter(until)) {
+            index--;
+        }
+        return index + 1;
+    }
+
+    private static long monthsBetween(final LocalDate from, final LocalDate to) {
+        return (to.getYear() * 12L + to.getMonthValue()) - (from.getYear() * 12L + from.getMonthValue());
+    }
+
+    private static long gcd(final long a, final long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Inverse of value modulo modulus for coprime arguments, by the extended Euclidean algorithm.
+     */
+    private static long inverse(final long value, final long modulus) {
+        long previousRemainder = modulus;
+        long remainder = value;
+        long previousCoefficient = 0;
+        long coefficient = 1;
+        while (remainder != 0) {
+            final long quotient = previousRemainder / remainder;
+            final long nextRemainder = previousRemainder - quotient * remainder;
+            previousRemainder = remainder;
+            remainder = nextRemainder;
+            final long nextCoefficient = previousCoefficient - quotient * coefficient;
+            previousCoefficient = coefficient;
+            coefficient = nextCoefficient;
+        }
+        return Math.floorMod(previousCoefficient, modulus);
+    }
+}
@@ -0,0 +1,277 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Hour-granular reservations of a single person.
+ * Hours are counted from the epoch (see SchedulingUtils.getEpochHour) and grouped into one chunk of bits per week,
+ * so a range query touches one chunk per week instead of one object per reserved hour. Chunks live in a {@link ReservationStore},
+ * on the heap by default or off-heap in a {@link MappedReservationFile}.
+ * Recurring meetings are kept as {@link RecurrenceRule}s next to the chunks and evaluated on every read,
+ * so a series costs the same whatever the number of its occurrences. Meetings that do not fill exactly one whole hour
+ * are kept in minute-granular {@link BusyIntervals}, created with the first of them; hour queries treat an hour as reserved
+ * as soon as any of its minutes is.
+ * Writers of a single bitmap have to be serialized by the caller, readers do not need any lock.
+ */
+public class ReservationBitmap {
+
+    public static final int CHUNK_HOURS = 7 * 24;
+    private static final int HOUR_MINUTES = 60;
+    static final int WORDS_PER_CHUNK = (CHUNK_HOURS + Long.SIZE - 1) / Long.SIZE;
+
+    private static final RecurrenceRule[] NO_SERIES = new RecurrenceRule[0];
+
+    private final ReservationStore store;
+    private volatile RecurrenceRule[] series;
+    private volatile BusyIntervals intervals;
+
+    public ReservationBitmap() {
+        this(new HeapReservationStore());
+    }
+
+    public ReservationBitmap(final ReservationStore store) {
+        this.store = store;
+        this.series = NO_SERIES;
+    }
+
+    public void reserve(final long epochHour) {
+        store.setBit(Math.floorDiv(epochHour, CHUNK_HOURS), Math.floorMod(epochHour, CHUNK_HOURS));
+    }
+
+    public void reserve(final RecurrenceRule rule) {
+        final RecurrenceRule[] current = series;
+        final RecurrenceRule[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = rule;
+        series = updated;
+    }
+
+    /**
+     * Reserves the minutes [startMinute, endMinute) counted from the epoch.
+     */
+    public void reserve(final long startMinute, final long endMinute) {
+        if (intervals == null) {
+            intervals = new BusyIntervals();
+        }
+        intervals.add(startMinute, endMinute);
+    }
+
+    public boolean isReserved(final long epochHour) {
+        return isHourReserved(epochHour) || overlapsIntervals(epochHour * HOUR_MINUTES, (epochHour + 1) * HOUR_MINUTES);
+    }
+
+    /**
+     * Whether any minute of [startMinute, endMinute) is reserved: one lookup in the busy intervals and one per touched hour.
+     */
+    public boolean isReserved(final long startMinute, final long endMinute) {
+        if (overlapsIntervals(startMinute, endMinute)) {
+            return true;
+        }
+        final long toHour = ceilHour(endMinute);
+        for (long epochHour = Math.floorDiv(startMinute, HOUR_MINUTES); epochHour < toHour; epochHour++) {
+            if (isHourReserved(epochHour)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether any occurrence of rule is already reserved. Reserved series are compared arithmetically, single reservations
+     * by walking either the occurrences or the set bits of the spanned weeks, whichever is shorter.
+     */
+    public boolean isReservedAtAnyOccurrence(final RecurrenceRule rule) {
+        if (rule.getCount() == 0) {
+            return false;
+        }
+        for (RecurrenceRule reserved : series) {
+            if (reserved.intersects(rule)) {
+                return true;
+            }
+        }
+        final long firstChunk = Math.floorDiv(rule.getFirstHour(), CHUNK_HOURS);
+        final long lastChunk = Math.floorDiv(rule.getLastHour(), CHUNK_HOURS);
+        if (rule.getCount() <= lastChunk - firstChunk + 1) {
+            for (long index = 0; index < rule.getCount(); index++) {
+                if (isReservedOnce(rule.occurrence(index))) {
+                    return true;
+                }
+            }
+            return overlapsIntervals(rule);
+        }
+        final long[] words = new long[WORDS_PER_CHUNK];
+        for (long chunk = firstChunk; chunk <= lastChunk; chunk++) {
+            if (!store.readChunk(chunk, words)) {
+                continue;
+            }
+            for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    if (rule.occursAt(chunk * CHUNK_HOURS + (long) i * Long.SIZE + Long.numberOfTrailingZeros(word))) {
+                        return true;
+                    }
+                    word &= word - 1;
+                }
+            }
+        }
+        return overlapsIntervals(rule);
+    }
+
+    /**
+     * Sets bit (h - fromHour) of occupied for every reserved hour h in [fromHour, toHour).
+     */
+    public void orInto(final long[] occupied, final long fromHour, final long toHour) {
+        orHoursInto(occupied, fromHour, toHour);
+        final BusyIntervals busyIntervals = intervals;
+        if (busyIntervals == null || toHour <= fromHour) {
+            return;
+        }
+        final Iterator<Map.Entry<Long, Long>> overlapping = busyIntervals.overlapping(fromHour * HOUR_MINUTES, toHour * HOUR_MINUTES);
+        while (overlapping.hasNext()) {
+            final Map.Entry<Long, Long> interval = overlapping.next();
+            final long lastHour = Math.min(toHour, ceilHour(interval.getValue()));
+            for (long epochHour = Math.max(fromHour, Math.floorDiv(interval.getKey(), HOUR_MINUTES)); epochHour < lastHour; epochHour++) {
+                final long bit = epochHour - fromHour;
+                occupied[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * Reports reserved time overlapping [fromMinute, toMinute) clipped to it, as ranges that may overlap and come in no particular order.
+     * Costs one pass over the hour chunks of the window plus a lookup in the busy intervals, independent of the slot length asked for.
+     */
+    public void forEachReservedRange(final long fromMinute, final long toMinute, final RangeConsumer consumer) {
+        if (toMinute <= fromMinute) {
+            return;
+        }
+        final long fromHour = Math.floorDiv(fromMinute, HOUR_MINUTES);
+        final long toHour = ceilHour(toMinute);
+        final long[] occupied = new long[(int) ((toHour - fromHour + Long.SIZE - 1) / Long.SIZE)];
+        orHoursInto(occupied, fromHour, toHour);
+        long runStart = -1;
+        for (long hour = 0; hour <= toHour - fromHour; hour++) {
+            final boolean reserved = hour < toHour - fromHour && (occupied[(int) (hour >>> 6)] & (1L << hour)) != 0;
+            if (reserved && runStart < 0) {
+                runStart = hour;
+            } else if (!reserved && runStart >= 0) {
+                consumer.accept(Math.max(fromMinute, (fromHour + runStart) * HOUR_MINUTES), Math.min(toMinute, (fromHour + hour) * HOUR_MINUTES));
+                runStart = -1;
+            }
+        }
+        final BusyIntervals busyIntervals = intervals;
+        if (busyIntervals != null) {
+            final Iterator<Map.Entry<Long, Long>> overlapping = busyIntervals.overlapping(fromMinute, toMinute);
+            while (overlapping.hasNext()) {
+                final Map.Entry<Long, Long> interval = overlapping.next();
+                consumer.accept(Math.max(fromMinute, interval.getKey()), Math.min(toMinute, interval.getValue()));
+            }
+        }
+    }
+
+    private void orHoursInto(final long[] occupied, final long fromHour, final long toHour) {
+        if (toHour <= fromHour) {
+            return;
+        }
+        final long lastChunk = Math.floorDiv(toHour - 1, CHUNK_HOURS);
+        final long[] words = new long[WORDS_PER_CHUNK];
+        for (long chunk = Math.floorDiv(fromHour, CHUNK_HOURS); chunk <= lastChunk; chunk++) {
+            if (!store.readChunk(chunk, words)) {
+                continue;
+            }
+            for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+                final long word = words[i];
+                if (word == 0) {
+                    continue;
+                }
+                final long wordStartHour = chunk * CHUNK_HOURS + (long) i * Long.SIZE;
+                final long lo = Math.max(0, fromHour - wordStartHour);
+                final long hi = Math.min(Long.SIZE, toHour - wordStartHour);
+                if (lo >= hi) {
+                    continue;
+                }
+                orWord(occupied, wordStartHour - fromHour, word & rangeMask((int) lo, (int) hi));
+            }
+        }
+        for (RecurrenceRule rule : series) {
+            for (long index = rule.firstIndexAtOrAfter(fromHour); index < rule.getCount(); index++) {
+                final long epochHour = rule.occurrence(index);
+                if (epochHour >= toHour) {
+                    break;
+                }
+                final long bit = epochHour - fromHour;
+                occupied[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+    }
+
+    private boolean isHourReserved(final long epochHour) {
+        if (isReservedOnce(epochHour)) {
+            return true;
+        }
+        for (RecurrenceRule rule : series) {
+            if (rule.occursAt(epochHour)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean overlapsIntervals(final long startMinute, final long endMinute) {
+        final BusyIntervals busyIntervals = intervals;
+        return busyIntervals != null && busyIntervals.overlaps(startMinute, endMinute);
+    }
+
+    private boolean overlapsIntervals(final RecurrenceRule rule) {
+        final BusyIntervals busyIntervals = intervals;
+        if (busyIntervals == null) {
+            return false;
+        }
+        final Iterator<Map.Entry<Long, Long>> overlapping = busyIntervals.overlapping(rule.getFirstHour() * HOUR_MINUTES, (rule.getLastHour() + 1) * HOUR_MINUTES);
+        while (overlapping.hasNext()) {
+            final Map.Entry<Long, Long> interval = overlapping.next();
+            final long lastHour = ceilHour(interval.getValue());
+            for (long epochHour = Math.floorDiv(interval.getKey(), HOUR_MINUTES); epochHour < lastHour; epochHour++) {
+                if (rule.occursAt(epochHour)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long ceilHour(final long epochMinute) {
+        return -Math.floorDiv(-epochMinute, HOUR_MINUTES);
+    }
+
+    private boolean isReservedOnce(final long epochHour) {
+        final int bit = Math.floorMod(epochHour, CHUNK_HOURS);
+        return (store.getWord(Math.floorDiv(epochHour, CHUNK_HOURS), bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    static long rangeMask(final int lo, final int hi) {
+        final long upper = hi == Long.SIZE ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+
+    private static void orWord(final long[] target, final long bitOffset, final long word) {
+        if (word == 0) {
+            return;
+        }
+        if (bitOffset < 0) {
+            target[0] |= word >>> -bitOffset;
+            return;
+        }
+        final int index = (int) (bitOffset >>> 6);
+        final int shift = (int) (bitOffset & 63);
+        target[index] |= word << shift;
+        if (shift != 0 && index + 1 < target.length) {
+            target[index + 1] |= word >>> (Long.SIZE - shift);
+        }
+    }
+
+    public interface RangeConsumer {
+        void accept(long startMinute, long endMinute);
+    }
+}
@@ -0,0 +1,18 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+/**
+ * Storage of the hour bits of one person, one record of {@link ReservationBitmap#WORDS_PER_CHUNK} words per chunk of
+ * {@link ReservationBitmap#CHUNK_HOURS} hours. Writes have to be serialized by the caller, reads need no lock and see a set bit
+ * once setBit has returned.
+ */
+public interface ReservationStore {
+
+    void setBit(long chunk, int bit);
+
+    long getWord(long chunk, int word);
+
+    /**
+     * Copies the words of chunk into words; returns false without touching words when no hour of the chunk is reserved.
+     */
+    boolean readChunk(long chunk, long[] words);
+}
@@ -0,0 +1,95 @@
+package main.java.com.wtomaszewski.schedulingservice.availability;
+
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+/**
+ * UTC offsets of a zone between FIRST_YEAR and END_YEAR as a sorted table of transitions, computed once from ZoneRules,
+ * so converting a range of epoch hours to local time is a binary search followed by plain additions.
+ * An hour slot takes the offset in force at its start; outside the table the zone rules are asked directly.
+ */
+public final class ZoneOffsetTable {
+
+    public static final int FIRST_YEAR = 1900;
+    public static final int END_YEAR = 2200;
+    private static final long FIRST_MINUTE = Instant.parse(FIRST_YEAR + "-01-01T00:00:00Z").getEpochSecond() / 60;
+    private static final long END_MINUTE = Instant.parse(END_YEAR + "-01-01T00:00:00Z").getEpochSecond() / 60;
+
+    private final ZoneRules rules;
+    private final long[] transitionMinutes;
+    private final int[] offsetMinutes;
+
+    private ZoneOffsetTable(final ZoneRules rules, final long[] transitionMinutes, final int[] offsetMinutes) {
+        this.rules = rules;
+        this.transitionMinutes = transitionMinutes;
+        this.offsetMinutes = offsetMinutes;
+    }
+
+    /**
+     * offsetMinutes[i] is in force from transitionMinutes[i - 1] (inclusive) to transitionMinutes[i], offsetMinutes[0] before the first transition.
+     */
+    public static ZoneOffsetTable of(final ZoneId zone) {
+        final ZoneRules rules = zone.getRules();
+        long[] transitions = new long[16];
+        int[] offsets = new int[17];
+        int count = 0;
+        offsets[0] = toMinutes(rules.getOffset(Instant.ofEpochSecond(FIRST_MINUTE * 60)));
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(FIRST_MINUTE * 60));
+        while (transition != null && transition.toEpochSecond() < END_MINUTE * 60) {
+            if (count == transitions.length) {
+                transitions = Arrays.copyOf(transitions, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2 + 1);
+            }
+            transitions[count] = Math.floorDiv(transition.toEpochSecond(), 60);
+            offsets[++count] = toMinutes(transition.getOffsetAfter());
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        return new ZoneOffsetTable(rules, Arrays.copyOf(transitions, count), Arrays.copyOf(offsets, count + 1));
+    }
+
+    public int offsetMinutesAt(final long epochMinute) {
+        if (epochMinute < FIRST_MINUTE || epochMinute >= END_MINUTE) {
+            return toMinutes(rules.getOffset(Instant.ofEpochSecond(epochMinute * 60)));
+        }
+        final int index = Arrays.binarySearch(transitionMinutes, epochMinute);
+        return offsetMinutes[index >= 0 ? index + 1 : -index - 1];
+    }
+
+    /**
+     * Sets bit (h - fromHour) of occupied for every hour h in [fromHour, toHour) which constraints do not allow in local time of the zone.
+     */
+    public void orDisallowedInto(final long[] occupied, final long fromHour, final long toHour, final SlotConstraints constraints) {
+        long epochHour = fromHour;
+        while (epochHour < toHour) {
+            final long epochMinute = epochHour * 60;
+            final long segmentEnd;
+            final int offset;
+            if (epochMinute < FIRST_MINUTE || epochMinute >= END_MINUTE) {
+                offset = offsetMinutesAt(epochMinute);
+                segmentEnd = epochHour + 1;
+            } else {
+                final int index = Arrays.binarySearch(transitionMinutes, epochMinute);
+                final int segment = index >= 0 ? index + 1 : -index - 1;
+                offset = offsetMinutes[segment];
+                // hours starting before the next transition, which may fall inside an hour for zones changing by half an hour
+                segmentEnd = segment < transitionMinutes.length ? Math.min(toHour, Math.floorDiv(transitionMinutes[segment] - 1, 60) + 1) : toHour;
+            }
+            for (; epochHour < Math.min(toHour, segmentEnd); epochHour++) {
+                if (!constraints.allowsHourStartingAt(epochHour * 60 + offset)) {
+                    final long bit = epochHour - fromHour;
+                    occupied[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+    }
+
+    private static int toMinutes(final ZoneOffset offset) {
+        return offset.getTotalSeconds() / 60;
+    }
+}
@@ -0,0 +1,9 @@
+package main.java.com.wtomaszewski.schedulingservice.cache;
+
+public record CacheStats(long hits, long misses, long evictions, long invalidations, int entries, long estimatedBytes) {
+
+    public double hitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
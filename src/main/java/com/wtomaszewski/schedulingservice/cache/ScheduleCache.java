@@ -0,0 +1,141 @@
+package main.java.com.wtomaszewski.schedulingservice.cache;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Least recently used cache of schedules keyed by email and [fromHour, toHour) window, bounded by an estimate of the bytes held.
+ * Every cached window is also indexed by email, so a new meeting evicts only the windows of its attendees that contain its start hour.
+ * A schedule computed while an attendee's meeting was being written is returned but not cached, so a stale result never outlives the write.
+ */
+public class ScheduleCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int MEETING_OVERHEAD_BYTES = 112;
+    private static final int ATTENDEE_BYTES = 48;
+    private static final int VERSION_STRIPES = 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<String, Set<Key>> keysByEmail;
+    private final long[] versions;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public ScheduleCache(final long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.keysByEmail = new HashMap<>();
+        this.versions = new long[VERSION_STRIPES];
+    }
+
+    public Set<Meeting> get(final String email, final long fromHour, final long toHour, final Supplier<Set<Meeting>> loader) {
+        final Key key = new Key(email, fromHour, toHour);
+        final long version;
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.schedule();
+            }
+            misses++;
+            version = versions[stripeOf(email)];
+        }
+        final Set<Meeting> schedule = Collections.unmodifiableSet(loader.get());
+        final long size = estimateBytes(key, schedule);
+        synchronized (this) {
+            if (versions[stripeOf(email)] == version && size <= maxBytes && !entries.containsKey(key)) {
+                entries.put(key, new Entry(schedule, size));
+                keysByEmail.computeIfAbsent(email, k -> new HashSet<>()).add(key);
+                bytes += size;
+                evictOverflow();
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Evicts the cached windows of the given person that contain epochHour; call it after the meeting has been applied.
+     */
+    public void invalidate(final String email, final long epochHour) {
+        invalidate(email, key -> key.fromHour() <= epochHour && epochHour < key.toHour());
+    }
+
+    /**
+     * Evicts the cached windows of the given person that contain an occurrence of rule; call it after the series has been applied.
+     */
+    public void invalidate(final String email, final RecurrenceRule rule) {
+        invalidate(email, key -> rule.firstOccurrenceIn(key.fromHour(), key.toHour()) != Long.MAX_VALUE);
+    }
+
+    private synchronized void invalidate(final String email, final Predicate<Key> affected) {
+        versions[stripeOf(email)]++;
+        final Set<Key> keys = keysByEmail.get(email);
+        if (keys == null) {
+            return;
+        }
+        final Iterator<Key> iterator = keys.iterator();
+        while (iterator.hasNext()) {
+            final Key key = iterator.next();
+            if (affected.test(key)) {
+                iterator.remove();
+                bytes -= entries.remove(key).bytes();
+                invalidations++;
+            }
+        }
+        if (keys.isEmpty()) {
+            keysByEmail.remove(email);
+        }
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+    private void evictOverflow() {
+        final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            final Map.Entry<Key, Entry> eldest = iterator.next();
+            iterator.remove();
+            bytes -= eldest.getValue().bytes();
+            final Set<Key> keys = keysByEmail.get(eldest.getKey().email());
+            keys.remove(eldest.getKey());
+            if (keys.isEmpty()) {
+                keysByEmail.remove(eldest.getKey().email());
+            }
+            evictions++;
+        }
+    }
+
+    private static int stripeOf(final String email) {
+        final int hash = email.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private static long estimateBytes(final Key key, final Set<Meeting> schedule) {
+        long size = ENTRY_OVERHEAD_BYTES + 2L * key.email().length();
+        for (Meeting meeting : schedule) {
+            size += MEETING_OVERHEAD_BYTES + (long) ATTENDEE_BYTES * meeting.persons().size();
+        }
+        return size;
+    }
+
+    private record Key(String email, long fromHour, long toHour) {
+    }
+
+    private record Entry(Set<Meeting> schedule, long bytes) {
+    }
+}
@@ -0,0 +1,10 @@
+package main.java.com.wtomaszewski.schedulingservice.exception;
+
+public class PersistenceException extends RuntimeException {
+
+    public static final String EXCEPTION_MSG_FORMAT = "Could not access data file %s";
+
+    public PersistenceException(final Object file, final Exception e) {
+        super(String.format(EXCEPTION_MSG_FORMAT, file), e);
+    }
+}
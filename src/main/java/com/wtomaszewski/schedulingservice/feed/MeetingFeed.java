@@ -0,0 +1,90 @@
+package main.java.com.wtomaszewski.schedulingservice.feed;
+
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes created meetings to the subscriptions of their attendees, so clients do not have to poll getSchedule.
+ * Subscriptions are indexed by email, so publishing a meeting nobody subscribed to costs one map lookup per attendee;
+ * a meeting is delivered once to a subscription even if it covers several of its attendees. See {@link MeetingSubscription} for delivery.
+ */
+public class MeetingFeed {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final Map<String, List<MeetingSubscription>> subscriptionsByEmail;
+
+    public MeetingFeed() {
+        this.subscriptionsByEmail = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Subscribes to the meetings of any of the given persons overlapping window, or all of them when window is null.
+     */
+    public MeetingSubscription subscribe(final Set<String> personEmails, final TimeRange window, final int queueCapacity) {
+        final MeetingSubscription subscription = new MeetingSubscription(Set.copyOf(personEmails), window, queueCapacity, this::unsubscribe);
+        for (String email : subscription.getPersonEmails()) {
+            subscriptionsByEmail.compute(email, (key, subscriptions) -> {
+                final List<MeetingSubscription> updated = subscriptions == null ? new CopyOnWriteArrayList<>() : subscriptions;
+                updated.add(subscription);
+                return updated;
+            });
+        }
+        return subscription;
+    }
+
+    /**
+     * Delivers a meeting which is already stored and visible to reads; never blocks.
+     */
+    public void publish(final Meeting meeting) {
+        if (subscriptionsByEmail.isEmpty()) {
+            return;
+        }
+        int attendee = 0;
+        for (String email : meeting.persons()) {
+            final List<MeetingSubscription> subscriptions = subscriptionsByEmail.get(email);
+            if (subscriptions != null) {
+                for (MeetingSubscription subscription : subscriptions) {
+                    if (!subscribedToEarlierAttendee(subscription, meeting, attendee) && subscription.covers(meeting)) {
+                        subscription.offer(meeting);
+                    }
+                }
+            }
+            attendee++;
+        }
+    }
+
+    public void publishAll(final Collection<Meeting> meetings) {
+        if (subscriptionsByEmail.isEmpty()) {
+            return;
+        }
+        meetings.forEach(this::publish);
+    }
+
+    private void unsubscribe(final MeetingSubscription subscription) {
+        for (String email : subscription.getPersonEmails()) {
+            subscriptionsByEmail.computeIfPresent(email, (key, subscriptions) -> {
+                subscriptions.remove(subscription);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            });
+        }
+    }
+
+    private static boolean subscribedToEarlierAttendee(final MeetingSubscription subscription, final Meeting meeting, final int attendee) {
+        final Iterator<String> emails = meeting.persons().iterator();
+        for (int i = 0; i < attendee; i++) {
+            if (subscription.getPersonEmails().contains(emails.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+package main.java.com.wtomaszewski.schedulingservice.feed;
+
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Meetings published by a {@link MeetingFeed} for some persons, optionally only those overlapping a window, queued until the subscriber takes them.
+ * The queue is bounded and publishers never wait for it: meetings arriving while it is full are coalesced into a single missed time range,
+ * which the subscriber re-reads with getSchedule after takeMissed returns it. Meetings of concurrent writers may arrive in any order.
+ */
+public class MeetingSubscription implements AutoCloseable {
+
+    private final Set<String> personEmails;
+    private final TimeRange window;
+    private final BlockingQueue<Meeting> meetings;
+    private final Consumer<MeetingSubscription> onClose;
+    private LocalDateTime missedStart;
+    private LocalDateTime missedEnd;
+    private volatile boolean closed;
+
+    MeetingSubscription(final Set<String> personEmails, final TimeRange window, final int queueCapacity, final Consumer<MeetingSubscription> onClose) {
+        this.personEmails = personEmails;
+        this.window = window;
+        this.meetings = new ArrayBlockingQueue<>(queueCapacity);
+        this.onClose = onClose;
+    }
+
+    public Set<String> getPersonEmails() {
+        return personEmails;
+    }
+
+    public TimeRange getWindow() {
+        return window;
+    }
+
+    public Meeting poll() {
+        return meetings.poll();
+    }
+
+    public Meeting poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return meetings.poll(timeout, unit);
+    }
+
+    public int drainTo(final Collection<? super Meeting> target) {
+        return meetings.drainTo(target);
+    }
+
+    /**
+     * Returns the range [earliest start, latest end) of all meetings dropped since the previous call because the queue was full, and forgets it;
+     * null when nothing was dropped.
+     */
+    public synchronized TimeRange takeMissed() {
+        if (missedStart == null) {
+            return null;
+        }
+        final TimeRange missed = new TimeRange(missedStart, missedEnd);
+        missedStart = null;
+        missedEnd = null;
+        return missed;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops the delivery of new meetings; queued ones can still be taken.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            onClose.accept(this);
+        }
+    }
+
+    boolean covers(final Meeting meeting) {
+        return window == null || meeting.startTime().isBefore(window.end()) && window.start().isBefore(meeting.endTime());
+    }
+
+    void offer(final Meeting meeting) {
+        if (!closed && !meetings.offer(meeting)) {
+            coalesce(meeting);
+        }
+    }
+
+    private synchronized void coalesce(final Meeting meeting) {
+        if (missedStart == null || meeting.startTime().isBefore(missedStart)) {
+            missedStart = meeting.startTime();
+        }
+        if (missedEnd == null || meeting.endTime().isAfter(missedEnd)) {
+            missedEnd = meeting.endTime();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package main.java.com.wtomaszewski.schedulingservice.http;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer for the HTTP front end, so the service does not need a JSON library.
+ * Objects are read as Map, arrays as List, numbers as Long or Double; anything that is not a Map, Collection,
+ * Number, Boolean or null is written as a string of its toString().
+ */
+public final class Json {
+
+    public static final String MALFORMED_JSON_ERROR = "Malformed JSON at position %d";
+
+    private final String text;
+    private int position;
+
+    private Json(final String text) {
+        this.text = text;
+    }
+
+    public static Object parse(final String text) {
+        final Json json = new Json(text);
+        final Object value = json.readValue();
+        json.skipWhitespace();
+        if (json.position != text.length()) {
+            throw json.malformed();
+        }
+        return value;
+    }
+
+    public static String write(final Object value) {
+        final StringBuilder builder = new StringBuilder();
+        write(builder, value);
+        return builder.toString();
+    }
+
+    private static void write(final StringBuilder builder, final Object value) {
+        if (value == null || value instanceof Boolean || value instanceof Number) {
+            builder.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                writeString(builder, String.valueOf(entry.getKey()));
+                builder.append(':');
+                write(builder, entry.getValue());
+            }
+            builder.append('}');
+        } else if (value instanceof Collection<?> collection) {
+            builder.append('[');
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                write(builder, element);
+            }
+            builder.append(']');
+        } else {
+            writeString(builder, value.toString());
+        }
+    }
+
+    private static void writeString(final StringBuilder builder, final String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw malformed();
+        }
+        final char c = text.charAt(position);
+        if (c == '{') {
+            return readObject();
+        }
+        if (c == '[') {
+            return readArray();
+        }
+        if (c == '"') {
+            return readString();
+        }
+        if (text.startsWith("true", position)) {
+            position += 4;
+            return Boolean.TRUE;
+        }
+        if (text.startsWith("false", position)) {
+            position += 5;
+            return Boolean.FALSE;
+        }
+        if (text.startsWith("null", position)) {
+            position += 4;
+            return null;
+        }
+        return readNumber();
+    }
+
+    private Map<String, Object> readObject() {
+        final Map<String, Object> object = new LinkedHashMap<>();
+        position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw malformed();
+            }
+            final String key = readString();
+            skipWhitespace();
+            expect(':');
+            object.put(key, readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        final List<Object> array = new ArrayList<>();
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String readString() {
+        position++;
+        final StringBuilder builder = new StringBuilder();
+        while (true) {
+            if (position >= text.length()) {
+                throw malformed();
+            }
+            final char c = text.charAt(position++);
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (position >= text.length()) {
+                throw malformed();
+            }
+            final char escaped = text.charAt(position++);
+            switch (escaped) {
+                case '"', '\\', '/' -> builder.append(escaped);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (position + 4 > text.length()) {
+                        throw malformed();
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw malformed();
+                    }
+                    position += 4;
+                }
+                default -> throw malformed();
+            }
+        }
+    }
+
+    private Number readNumber() {
+        final int start = position;
+        while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+        final String number = text.substring(start, position);
+        try {
+            if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+                return Double.parseDouble(number);
+            }
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            position = start;
+            throw malformed();
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        if (position >= text.length()) {
+            throw malformed();
+        }
+        return text.charAt(position);
+    }
+
+    private void expect(final char c) {
+        if (peek() != c) {
+            throw malformed();
+        }
+        position++;
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException(String.format(MALFORMED_JSON_ERROR, position));
+    }
+}
@@ -0,0 +1,284 @@
+package main.java.com.wtomaszewski.schedulingservice.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import main.java.com.wtomaszewski.schedulingservice.api.SchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
+import main.java.com.wtomaszewski.schedulingservice.exception.NotUniquePersonException;
+import main.java.com.wtomaszewski.schedulingservice.exception.PersonNotExistException;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JSON over HTTP front end for a {@link SchedulingAPI}, built on the JDK HTTP server.
+ * Endpoints:
+ * - POST /persons {"name": ..., "email": ..., "zone": "Europe/Warsaw"}, zone is optional and defaults to UTC
+ * - POST /meetings {"personEmails": [...], "date": "2024-01-01", "hour": 9, "checkConflicts": true}, or with
+ *   "startTime": "2024-01-01T09:15", "endTime": "2024-01-01T09:45" instead of date and hour for a meeting of any length in minutes
+ * - POST /meetings/first-available {"personEmails": [...], "startDate": ..., "startHour": ..., "endDate": ..., "endHour": ...},
+ *   books the earliest hour free for everyone, 409 when there is none
+ * - GET /schedule?email=...&date=...&hour=...[&endDate=...&endHour=...]
+ * - GET /time-slots?emails=a,b&startDate=...&startHour=...&endDate=...&endHour=...
+ * Connections are HTTP/1.1 keep-alive and pipelined requests are answered in order. Every request runs on its own virtual thread
+ * when the runtime supports them (Java 21+), otherwise on a cached pool of platform threads.
+ */
+public class SchedulingHttpServer implements Closeable {
+
+    public static final int DEFAULT_BACKLOG = 1024;
+    public static final String INVALID_REQUEST_ERROR = "Invalid request";
+    public static final String NO_FREE_TIME_SLOT_ERROR = "No hour of the range is free for all persons";
+
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final SchedulingAPI schedulingAPI;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public SchedulingHttpServer(final SchedulingAPI schedulingAPI, final InetSocketAddress address) throws IOException {
+        this.schedulingAPI = schedulingAPI;
+        this.server = HttpServer.create(address, DEFAULT_BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/persons", handler("POST", this::createPerson));
+        server.createContext("/meetings", handler("POST", this::createMeeting));
+        server.createContext("/meetings/first-available", handler("POST", this::bookFirstAvailable));
+        server.createContext("/schedule", handler("GET", this::getSchedule));
+        server.createContext("/time-slots", handler("GET", this::suggestTimeSlots));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Virtual thread per request where available; looked up reflectively so the server still compiles and runs on Java 17.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "scheduling-http-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private Response createPerson(final HttpExchange exchange) {
+        final Map<String, Object> body = readObject(exchange);
+        final String name = field(body, "name", String.class);
+        final String email = field(body, "email", String.class);
+        final ZoneId zone = body.containsKey("zone") ? ZoneId.of(field(body, "zone", String.class)) : ZoneOffset.UTC;
+        schedulingAPI.createPerson(name, email, zone);
+        final Map<String, Object> person = new LinkedHashMap<>();
+        person.put("name", name);
+        person.put("email", email);
+        person.put("zone", zone.getId());
+        return new Response(201, person);
+    }
+
+    private Response createMeeting(final HttpExchange exchange) {
+        final Map<String, Object> body = readObject(exchange);
+        final Set<String> personEmails = personEmails(body);
+        final boolean checkConflicts = Boolean.TRUE.equals(body.get("checkConflicts"));
+        if (body.containsKey("startTime")) {
+            final LocalDateTime startTime = LocalDateTime.parse(field(body, "startTime", String.class));
+            final LocalDateTime endTime = LocalDateTime.parse(field(body, "endTime", String.class));
+            schedulingAPI.createMeeting(personEmails, startTime, Duration.between(startTime, endTime), checkConflicts);
+            return new Response(201, toJson(new Meeting(personEmails, startTime, endTime)));
+        }
+        final LocalDate date = LocalDate.parse(field(body, "date", String.class));
+        final int hour = Math.toIntExact(field(body, "hour", Long.class));
+        schedulingAPI.createMeeting(personEmails, date, hour, checkConflicts);
+        return new Response(201, toJson(new Meeting(personEmails, date.atTime(hour, 0))));
+    }
+
+    private Response bookFirstAvailable(final HttpExchange exchange) {
+        final Map<String, Object> body = readObject(exchange);
+        final Optional<Meeting> meeting = schedulingAPI.bookFirstAvailable(personEmails(body),
+                LocalDate.parse(field(body, "startDate", String.class)), Math.toIntExact(field(body, "startHour", Long.class)),
+                LocalDate.parse(field(body, "endDate", String.class)), Math.toIntExact(field(body, "endHour", Long.class)));
+        return meeting.isPresent() ? new Response(201, toJson(meeting.get())) : error(409, NO_FREE_TIME_SLOT_ERROR);
+    }
+
+    private Response getSchedule(final HttpExchange exchange) {
+        final Map<String, String> query = readQuery(exchange);
+        final String email = parameter(query, "email");
+        final LocalDate date = LocalDate.parse(parameter(query, "date"));
+        final int hour = Integer.parseInt(parameter(query, "hour"));
+        final Set<Meeting> schedule = query.containsKey("endDate")
+                ? schedulingAPI.getSchedule(email, date, hour, LocalDate.parse(query.get("endDate")), Integer.parseInt(parameter(query, "endHour")))
+                : schedulingAPI.getSchedule(email, date, hour);
+        final List<Object> meetings = new ArrayList<>(schedule.size());
+        for (Meeting meeting : schedule) {
+            meetings.add(toJson(meeting));
+        }
+        return new Response(200, meetings);
+    }
+
+    private Response suggestTimeSlots(final HttpExchange exchange) {
+        final Map<String, String> query = readQuery(exchange);
+        final Set<String> emails = new LinkedHashSet<>(List.of(parameter(query, "emails").split(",")));
+        final Set<LocalDateTime> timeSlots = schedulingAPI.suggestTimeSlots(emails,
+                LocalDate.parse(parameter(query, "startDate")), Integer.parseInt(parameter(query, "startHour")),
+                LocalDate.parse(parameter(query, "endDate")), Integer.parseInt(parameter(query, "endHour")));
+        return new Response(200, timeSlots);
+    }
+
+    private static HttpHandler handler(final String method, final Endpoint endpoint) {
+        return exchange -> {
+            Response response;
+            try {
+                if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+                    response = error(404, "Not found");
+                } else if (!exchange.getRequestMethod().equals(method)) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    response = error(405, "Method not allowed");
+                } else {
+                    response = endpoint.handle(exchange);
+                }
+            } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+                response = error(400, e.getMessage());
+            } catch (PersonNotExistException e) {
+                response = error(404, e.getMessage());
+            } catch (NotUniquePersonException | MeetingTimeslotConflictException e) {
+                response = error(409, e.getMessage());
+            } catch (RuntimeException e) {
+                response = error(500, e.getClass().getSimpleName());
+            }
+            send(exchange, response);
+        };
+    }
+
+    private static void send(final HttpExchange exchange, final Response response) throws IOException {
+        try (InputStream requestBody = exchange.getRequestBody(); OutputStream responseBody = exchange.getResponseBody()) {
+            // the request has to be consumed completely before the connection can serve the next one
+            requestBody.readAllBytes();
+            final byte[] bytes = Json.write(response.body()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            responseBody.write(bytes);
+        }
+    }
+
+    private static Response error(final int status, final String message) {
+        return new Response(status, Map.of("error", message == null ? INVALID_REQUEST_ERROR : message));
+    }
+
+    private static Set<String> personEmails(final Map<String, Object> body) {
+        final Set<String> personEmails = new LinkedHashSet<>();
+        for (Object email : field(body, "personEmails", List.class)) {
+            if (!(email instanceof String)) {
+                throw new IllegalArgumentException(INVALID_REQUEST_ERROR);
+            }
+            personEmails.add((String) email);
+        }
+        return personEmails;
+    }
+
+    private static Map<String, Object> toJson(final Meeting meeting) {
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("persons", new TreeSet<>(meeting.persons()));
+        json.put("startTime", meeting.startTime());
+        json.put("endTime", meeting.endTime());
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readObject(final HttpExchange exchange) {
+        final Object body;
+        try {
+            body = Json.parse(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!(body instanceof Map)) {
+            throw new IllegalArgumentException(INVALID_REQUEST_ERROR);
+        }
+        return (Map<String, Object>) body;
+    }
+
+    private static <T> T field(final Map<String, Object> body, final String name, final Class<T> type) {
+        final Object value = body.get(name);
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException("Missing or invalid field " + name);
+        }
+        return type.cast(value);
+    }
+
+    private static Map<String, String> readQuery(final HttpExchange exchange) {
+        final Map<String, String> query = new HashMap<>();
+        final String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            final int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static String parameter(final Map<String, String> query, final String name) {
+        final String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing query parameter " + name);
+        }
+        return value;
+    }
+
+    private interface Endpoint {
+        Response handle(HttpExchange exchange);
+    }
+
+    private record Response(int status, Object body) {
+    }
+}
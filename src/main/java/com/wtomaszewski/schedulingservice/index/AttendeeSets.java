@@ -0,0 +1,132 @@
+package main.java.com.wtomaszewski.schedulingservice.index;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns sorted attendee id arrays, so recurring meetings of the same group share a single array.
+ * Interned arrays are held weakly: once no meeting record or archived week references a set any more, its entry is dropped on a later intern.
+ */
+public class AttendeeSets {
+
+    private final Map<AttendeeSet, InternedSet> attendeeSets;
+    private final ReferenceQueue<int[]> releasedSets;
+
+    public AttendeeSets() {
+        this.attendeeSets = new ConcurrentHashMap<>();
+        this.releasedSets = new ReferenceQueue<>();
+    }
+
+    public int[] intern(final PersonEntry[] attendees) {
+        final int[] ids = new int[attendees.length];
+        for (int i = 0; i < attendees.length; i++) {
+            ids[i] = attendees[i].id();
+        }
+        Arrays.sort(ids);
+        expungeReleasedSets();
+        final int hash = hash(ids);
+        while (true) {
+            final InternedSet existing = attendeeSets.get(new ProbedSet(ids, hash));
+            final int[] interned = existing == null ? null : existing.get();
+            if (interned != null) {
+                return interned;
+            }
+            final InternedSet candidate = new InternedSet(ids, hash, releasedSets);
+            if (attendeeSets.putIfAbsent(candidate, candidate) == null) {
+                return ids;
+            }
+            // lost a race with another writer of the same set, or its array was just released; look it up again
+        }
+    }
+
+    public int size() {
+        expungeReleasedSets();
+        return attendeeSets.size();
+    }
+
+    private void expungeReleasedSets() {
+        Reference<? extends int[]> released;
+        while ((released = releasedSets.poll()) != null) {
+            // a released set equals only itself, so this removes exactly its own entry
+            attendeeSets.remove(released, released);
+        }
+    }
+
+    private static int hash(final int[] ids) {
+        // Arrays.hashCode collides heavily for small dense ids, so every id is spread with a 64-bit multiplier
+        long hash = ids.length;
+        for (int id : ids) {
+            hash = (hash + id) * 0x9E3779B97F4A7C15L;
+        }
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Equal by the ids of the set, or only to itself once its array has been released; the hash is kept, so a released entry can still be found.
+     */
+    private interface AttendeeSet {
+
+        int[] ids();
+
+        int hash();
+
+        static boolean equal(final AttendeeSet set, final Object other) {
+            if (set == other) {
+                return true;
+            }
+            if (!(other instanceof AttendeeSet otherSet) || set.hash() != otherSet.hash()) {
+                return false;
+            }
+            final int[] ids = set.ids();
+            final int[] otherIds = otherSet.ids();
+            return ids != null && otherIds != null && Arrays.equals(ids, otherIds);
+        }
+    }
+
+    private record ProbedSet(int[] ids, int hash) implements AttendeeSet {
+
+        @Override
+        public boolean equals(final Object other) {
+            return AttendeeSet.equal(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class InternedSet extends WeakReference<int[]> implements AttendeeSet {
+
+        private final int hash;
+
+        InternedSet(final int[] ids, final int hash, final ReferenceQueue<int[]> releasedSets) {
+            super(ids, releasedSets);
+            this.hash = hash;
+        }
+
+        @Override
+        public int[] ids() {
+            return get();
+        }
+
+        @Override
+        public int hash() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return AttendeeSet.equal(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package main.java.com.wtomaszewski.schedulingservice.index;
+
+/**
+ * Internal representation of a meeting: start hour counted from the epoch, minute within that hour, length in minutes
+ * and sorted, interned attendee ids. Meeting objects are only built from it when a result leaves the service.
+ */
+public record MeetingRecord(long epochHour, int minute, int durationMinutes, int[] attendeeIds) {
+
+    public static final int HOUR_MINUTES = 60;
+
+    /**
+     * Meeting of exactly one whole hour.
+     */
+    public MeetingRecord(final long epochHour, final int[] attendeeIds) {
+        this(epochHour, 0, HOUR_MINUTES, attendeeIds);
+    }
+
+    public long startMinute() {
+        return epochHour * HOUR_MINUTES + minute;
+    }
+
+    public long endMinute() {
+        return startMinute() + durationMinutes;
+    }
+
+    public boolean isWholeHour() {
+        return minute == 0 && durationMinutes == HOUR_MINUTES;
+    }
+}
@@ -0,0 +1,14 @@
+package main.java.com.wtomaszewski.schedulingservice.index;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+
+/**
+ * Internal representation of a recurring meeting: its rule and sorted, interned attendee ids.
+ * Occurrences are only turned into {@link MeetingRecord}s while a calendar range is read.
+ */
+public record MeetingSeries(RecurrenceRule rule, int[] attendeeIds) {
+
+    public MeetingRecord occurrence(final long index) {
+        return new MeetingRecord(rule.occurrence(index), attendeeIds);
+    }
+}
@@ -0,0 +1,156 @@
+package main.java.com.wtomaszewski.schedulingservice.index;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static main.java.com.wtomaszewski.schedulingservice.index.WeekMeetings.weekOf;
+
+/**
+ * All meetings grouped by start hour, partitioned by week.
+ * A hot partition keeps one copy-on-write MeetingRecord array per hour of the week, so lookups and inserts never walk a tree
+ * larger than the number of weeks. Partitions before the archive horizon are turned into read-only {@link WeekMeetings};
+ * a later insert into an archived week turns it hot again until the next archival.
+ * Inserts and lookups are lock-free, archival seals every hour slot of a partition before replacing it, so no insert gets lost.
+ */
+public class MeetingTimeline {
+
+    private static final MeetingRecord[] SEALED = new MeetingRecord[0];
+
+    private final ConcurrentNavigableMap<Long, Partition> partitions;
+
+    public MeetingTimeline() {
+        this.partitions = new ConcurrentSkipListMap<>();
+    }
+
+    public void add(final long epochHour, final MeetingRecord... meetings) {
+        final long week = weekOf(epochHour);
+        final int hour = (int) (epochHour - week * ReservationBitmap.CHUNK_HOURS);
+        while (true) {
+            final HotPartition partition = hotPartition(week);
+            final MeetingRecord[] current = partition.hours().get(hour);
+            if (current == SEALED) {
+                Thread.onSpinWait();
+            } else if (partition.hours().compareAndSet(hour, current, current == null ? meetings : concat(current, meetings))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Meetings starting at the given hour, or null if there are none.
+     */
+    public MeetingRecord[] get(final long epochHour) {
+        final long week = weekOf(epochHour);
+        while (true) {
+            final Partition partition = partitions.get(week);
+            if (partition == null) {
+                return null;
+            }
+            if (partition instanceof ArchivedPartition archived) {
+                final WeekMeetings meetings = archived.meetings();
+                final int from = meetings.firstAtOrAfter(epochHour);
+                final int to = meetings.firstAtOrAfter(epochHour + 1);
+                if (from == to) {
+                    return null;
+                }
+                final MeetingRecord[] result = new MeetingRecord[to - from];
+                for (int i = from; i < to; i++) {
+                    result[i - from] = meetings.get(i);
+                }
+                return result;
+            }
+            final MeetingRecord[] meetings = ((HotPartition) partition).hours().get((int) (epochHour - week * ReservationBitmap.CHUNK_HOURS));
+            if (meetings != SEALED) {
+                return meetings;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Turns every hot partition of a week before the given one into its compact read-only form.
+     */
+    public synchronized void archiveBefore(final long week) {
+        for (Map.Entry<Long, Partition> entry : partitions.headMap(week).entrySet()) {
+            if (entry.getValue() instanceof HotPartition partition) {
+                final List<MeetingRecord> meetings = new ArrayList<>();
+                for (int hour = 0; hour < ReservationBitmap.CHUNK_HOURS; hour++) {
+                    final MeetingRecord[] hourMeetings = partition.hours().getAndSet(hour, SEALED);
+                    if (hourMeetings != null) {
+                        meetings.addAll(Arrays.asList(hourMeetings));
+                    }
+                }
+                // meetings of one hour are kept in insertion order, but archived weeks are ordered by start minute
+                meetings.sort(Comparator.comparingLong(MeetingRecord::startMinute));
+                partitions.put(entry.getKey(), new ArchivedPartition(WeekMeetings.of(entry.getKey(), meetings)));
+            }
+        }
+    }
+
+    public int hotPartitions() {
+        return (int) partitions.values().stream().filter(HotPartition.class::isInstance).count();
+    }
+
+    public int archivedPartitions() {
+        return (int) partitions.values().stream().filter(ArchivedPartition.class::isInstance).count();
+    }
+
+    private HotPartition hotPartition(final long week) {
+        while (true) {
+            final Partition partition = partitions.get(week);
+            if (partition instanceof HotPartition hot) {
+                return hot;
+            }
+            final HotPartition hot = partition == null ? new HotPartition() : ((ArchivedPartition) partition).thaw();
+            if (partition == null ? partitions.putIfAbsent(week, hot) == null : partitions.replace(week, partition, hot)) {
+                return hot;
+            }
+        }
+    }
+
+    private static MeetingRecord[] concat(final MeetingRecord[] first, final MeetingRecord[] second) {
+        final MeetingRecord[] meetings = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, meetings, first.length, second.length);
+        return meetings;
+    }
+
+    private sealed interface Partition permits HotPartition, ArchivedPartition {
+    }
+
+    private record HotPartition(AtomicReferenceArray<MeetingRecord[]> hours) implements Partition {
+
+        HotPartition() {
+            this(new AtomicReferenceArray<>(ReservationBitmap.CHUNK_HOURS));
+        }
+    }
+
+    private record ArchivedPartition(WeekMeetings meetings) implements Partition {
+
+        HotPartition thaw() {
+            final HotPartition hot = new HotPartition();
+            int from = 0;
+            while (from < meetings.size()) {
+                final long epochHour = meetings.epochHour(from);
+                int to = from + 1;
+                while (to < meetings.size() && meetings.epochHour(to) == epochHour) {
+                    to++;
+                }
+                final MeetingRecord[] hourMeetings = new MeetingRecord[to - from];
+                for (int i = from; i < to; i++) {
+                    hourMeetings[i - from] = meetings.get(i);
+                }
+                hot.hours().set(Math.floorMod(epochHour, ReservationBitmap.CHUNK_HOURS), hourMeetings);
+                from = to;
+            }
+            return hot;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package main.java.com.wtomaszewski.schedulingservice.index;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+import static main.java.com.wtomaszewski.schedulingservice.index.WeekMeetings.weekOf;
+
+/**
+ * Meetings of a single person ordered by start minute.
+ * Meetings are grouped into one immutable {@link WeekMeetings} per week which is replaced on every change, so the index costs
+ * about five bytes per meeting and readers always see a consistent week without locking. Recurring meetings are kept as
+ * {@link MeetingSeries} and their occurrences are merged into range reads. Writers have to be serialized by the caller.
+ */
+public class PersonCalendar {
+
+    private static final MeetingSeries[] NO_SERIES = new MeetingSeries[0];
+
+    private final NavigableMap<Long, WeekMeetings> meetingsByWeek;
+    private volatile MeetingSeries[] series;
+
+    public PersonCalendar() {
+        this.meetingsByWeek = new ConcurrentSkipListMap<>();
+        this.series = NO_SERIES;
+    }
+
+    public void add(final MeetingRecord meeting) {
+        addAll(List.of(meeting));
+    }
+
+    /**
+     * Adds meetings sorted by start minute, copying every touched week only once.
+     */
+    public void addAll(final List<MeetingRecord> sortedMeetings) {
+        int from = 0;
+        while (from < sortedMeetings.size()) {
+            final long week = weekOf(sortedMeetings.get(from).epochHour());
+            int to = from + 1;
+            while (to < sortedMeetings.size() && weekOf(sortedMeetings.get(to).epochHour()) == week) {
+                to++;
+            }
+            final WeekMeetings existing = meetingsByWeek.get(week);
+            final List<MeetingRecord> weekMeetings = sortedMeetings.subList(from, to);
+            meetingsByWeek.put(week, existing == null ? WeekMeetings.of(week, weekMeetings) : existing.merge(weekMeetings));
+            from = to;
+        }
+    }
+
+    public void addSeries(final MeetingSeries meetingSeries) {
+        final MeetingSeries[] current = series;
+        final MeetingSeries[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = meetingSeries;
+        series = updated;
+    }
+
+    /**
+     * Visits meetings starting in [fromHour, toHour) in start order.
+     */
+    public void forEach(final long fromHour, final long toHour, final Consumer<MeetingRecord> action) {
+        iterator(fromHour, toHour).forEachRemaining(action);
+    }
+
+    /**
+     * Lazily iterates meetings starting in [fromHour, toHour) in start order, reading one week at a time.
+     * Occurrences of recurring meetings are created on the fly and come after single meetings of the same hour.
+     */
+    public Iterator<MeetingRecord> iterator(final long fromHour, final long toHour) {
+        final Iterator<MeetingRecord> meetings = meetingIterator(fromHour, toHour);
+        final MeetingSeries[] calendarSeries = series;
+        if (calendarSeries.length == 0 || toHour <= fromHour) {
+            return meetings;
+        }
+        final long[] nextIndexes = new long[calendarSeries.length];
+        for (int i = 0; i < calendarSeries.length; i++) {
+            nextIndexes[i] = calendarSeries[i].rule().firstIndexAtOrAfter(fromHour);
+        }
+        return new Iterator<>() {
+            private MeetingRecord nextMeeting;
+
+            @Override
+            public boolean hasNext() {
+                if (nextMeeting == null && meetings.hasNext()) {
+                    nextMeeting = meetings.next();
+                }
+                return nextMeeting != null || nextSeries() >= 0;
+            }
+
+            @Override
+            public MeetingRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int nextSeries = nextSeries();
+                if (nextMeeting != null && (nextSeries < 0
+                        || nextMeeting.startMinute() <= calendarSeries[nextSeries].rule().occurrence(nextIndexes[nextSeries]) * MeetingRecord.HOUR_MINUTES)) {
+                    final MeetingRecord meeting = nextMeeting;
+                    nextMeeting = null;
+                    return meeting;
+                }
+                return calendarSeries[nextSeries].occurrence(nextIndexes[nextSeries]++);
+            }
+
+            /**
+             * Series with the earliest pending occurrence before toHour, -1 if none is left.
+             */
+            private int nextSeries() {
+                int earliest = -1;
+                long earliestHour = toHour;
+                for (int i = 0; i < calendarSeries.length; i++) {
+                    final RecurrenceRule rule = calendarSeries[i].rule();
+                    if (nextIndexes[i] < rule.getCount()) {
+                        final long epochHour = rule.occurrence(nextIndexes[i]);
+                        if (epochHour < earliestHour) {
+                            earliest = i;
+                            earliestHour = epochHour;
+                        }
+                    }
+                }
+                return earliest;
+            }
+        };
+    }
+
+    private Iterator<MeetingRecord> meetingIterator(final long fromHour, final long toHour) {
+        if (toHour <= fromHour) {
+            return Collections.emptyIterator();
+        }
+        final long fromWeek = weekOf(fromHour);
+        final Iterator<Map.Entry<Long, WeekMeetings>> weeks = meetingsByWeek.subMap(fromWeek, true, weekOf(toHour - 1), true).entrySet().iterator();
+        return new Iterator<>() {
+            private WeekMeetings week;
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                while ((week == null || position >= week.size()) && weeks.hasNext()) {
+                    final Map.Entry<Long, WeekMeetings> entry = weeks.next();
+                    week = entry.getValue();
+                    position = entry.getKey() == fromWeek ? week.firstAtOrAfter(fromHour) : 0;
+                }
+                return week != null && position < week.size() && week.epochHour(position) < toHour;
+            }
+
+            @Override
+            public MeetingRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return week.get(position++);
+            }
+        };
+    }
+
+    /**
+     * Number of single meetings, occurrences of recurring meetings are not counted.
+     */
+    public int size() {
+        int size = 0;
+        for (WeekMeetings meetings : meetingsByWeek.values()) {
+            size += meetings.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,14 @@
+package main.java.com.wtomaszewski.schedulingservice.index;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+
+/**
+ * A registered person, or a guest (see PersonIndex.registerGuest) known only by email, without person, reservations and calendar.
+ */
+public record PersonEntry(int id, String email, Person person, ReservationBitmap reservations, PersonCalendar calendar) {
+
+    public boolean isGuest() {
+        return person == null;
+    }
+}
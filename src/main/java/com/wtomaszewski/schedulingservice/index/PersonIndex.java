@@ -0,0 +1,108 @@
+package main.java.com.wtomaszewski.schedulingservice.index;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.HeapReservationStore;
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap;
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationStore;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Registry assigning dense int ids to persons, so meetings can reference attendees by id.
+ * Guests, attendees owned by another service, take negative ids of their own, so they never leave gaps in the ids of persons.
+ * Registration is serialized, lookups by email or id do not take any lock.
+ */
+public class PersonIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Person> persons;
+    private final Map<String, PersonEntry> entriesByEmail;
+    private final IntFunction<ReservationStore> reservationStores;
+    private final Map<String, PersonEntry> guestsByEmail;
+    private volatile PersonEntry[] entriesById;
+    private volatile PersonEntry[] guestsById;
+    private int size;
+    private int guestCount;
+
+    public PersonIndex() {
+        this(id -> new HeapReservationStore());
+    }
+
+    /**
+     * Keeps the reservations of every registered person in the store created for its id.
+     */
+    public PersonIndex(final IntFunction<ReservationStore> reservationStores) {
+        this.reservationStores = reservationStores;
+        this.persons = new ConcurrentHashMap<>();
+        this.entriesByEmail = new ConcurrentHashMap<>();
+        this.guestsByEmail = new ConcurrentHashMap<>();
+        this.entriesById = new PersonEntry[INITIAL_CAPACITY];
+        this.guestsById = new PersonEntry[0];
+    }
+
+    /**
+     * Registers a new person; beforePublish runs after the uniqueness check and before the person becomes visible to other threads.
+     */
+    public synchronized boolean register(final Person person, final Consumer<Person> beforePublish) {
+        if (entriesByEmail.containsKey(person.email()) || guestsByEmail.containsKey(person.email())) {
+            return false;
+        }
+        beforePublish.accept(person);
+        PersonEntry[] entries = entriesById;
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        final PersonEntry entry = new PersonEntry(size, person.email(), person, new ReservationBitmap(reservationStores.apply(size)), new PersonCalendar());
+        entries[size++] = entry;
+        entriesById = entries;
+        persons.put(person.email(), person);
+        entriesByEmail.put(person.email(), entry);
+        return true;
+    }
+
+    /**
+     * Registers an attendee owned by another service by email only, or returns the entry it already has; a guest has no reservations
+     * or calendar, is not listed by getPersons and is not found by get(email), so it is never checked or scheduled here.
+     */
+    public synchronized PersonEntry registerGuest(final String email) {
+        final PersonEntry person = entriesByEmail.get(email);
+        if (person != null) {
+            return person;
+        }
+        final PersonEntry guest = guestsByEmail.get(email);
+        if (guest != null) {
+            return guest;
+        }
+        PersonEntry[] guests = guestsById;
+        if (guestCount == guests.length) {
+            guests = Arrays.copyOf(guests, Math.max(INITIAL_CAPACITY, guests.length * 2));
+        }
+        final PersonEntry entry = new PersonEntry(-1 - guestCount, email, null, null, null);
+        guests[guestCount++] = entry;
+        guestsById = guests;
+        guestsByEmail.put(email, entry);
+        return entry;
+    }
+
+    public PersonEntry get(final String email) {
+        return entriesByEmail.get(email);
+    }
+
+    public PersonEntry getGuest(final String email) {
+        return guestsByEmail.get(email);
+    }
+
+    public PersonEntry get(final int id) {
+        return id >= 0 ? entriesById[id] : guestsById[-1 - id];
+    }
+
+    public Map<String, Person> getPersons() {
+        return Collections.unmodifiableMap(persons);
+    }
+}
@@ -0,0 +1,109 @@
+package main.java.com.wtomaszewski.schedulingservice.index;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap;
+
+import java.util.List;
+
+/**
+ * Immutable compact form of the meetings starting in one week, ordered by start minute.
+ * A meeting costs one byte for the hour within the week and a reference to its interned attendee ids,
+ * MeetingRecord objects are only built while the week is read. Weeks holding a meeting that is not exactly one whole hour
+ * keep the minute and length of every meeting in one more int column.
+ */
+public final class WeekMeetings {
+
+    private static final byte[] NO_HOURS = new byte[0];
+    private static final int[][] NO_ATTENDEES = new int[0][];
+
+    private static final int WHOLE_HOUR_TIMING = timing(0, MeetingRecord.HOUR_MINUTES);
+
+    private final long firstHour;
+    private final byte[] hourOffsets;
+    private final int[] timings;
+    private final int[][] attendeeIds;
+
+    private WeekMeetings(final long week, final byte[] hourOffsets, final int[] timings, final int[][] attendeeIds) {
+        this.firstHour = week * ReservationBitmap.CHUNK_HOURS;
+        this.hourOffsets = hourOffsets;
+        this.timings = timings;
+        this.attendeeIds = attendeeIds;
+    }
+
+    public static long weekOf(final long epochHour) {
+        return Math.floorDiv(epochHour, ReservationBitmap.CHUNK_HOURS);
+    }
+
+    public static WeekMeetings of(final long week, final List<MeetingRecord> sortedMeetings) {
+        return new WeekMeetings(week, NO_HOURS, null, NO_ATTENDEES).merge(sortedMeetings);
+    }
+
+    /**
+     * Returns a copy including the given meetings of this week sorted by start minute; existing meetings go first on equal minutes.
+     */
+    public WeekMeetings merge(final List<MeetingRecord> sortedMeetings) {
+        final int size = hourOffsets.length + sortedMeetings.size();
+        final byte[] mergedHours = new byte[size];
+        final int[][] mergedAttendees = new int[size][];
+        boolean wholeHours = timings == null;
+        for (int j = 0; j < sortedMeetings.size() && wholeHours; j++) {
+            wholeHours = sortedMeetings.get(j).isWholeHour();
+        }
+        final int[] mergedTimings = wholeHours ? null : new int[size];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < size; k++) {
+            if (j == sortedMeetings.size() || (i < hourOffsets.length && startMinute(i) <= sortedMeetings.get(j).startMinute())) {
+                mergedHours[k] = hourOffsets[i];
+                if (mergedTimings != null) {
+                    mergedTimings[k] = timings == null ? WHOLE_HOUR_TIMING : timings[i];
+                }
+                mergedAttendees[k] = attendeeIds[i++];
+            } else {
+                final MeetingRecord meeting = sortedMeetings.get(j++);
+                mergedHours[k] = (byte) (meeting.epochHour() - firstHour);
+                if (mergedTimings != null) {
+                    mergedTimings[k] = timing(meeting.minute(), meeting.durationMinutes());
+                }
+                mergedAttendees[k] = meeting.attendeeIds();
+            }
+        }
+        return new WeekMeetings(weekOf(firstHour), mergedHours, mergedTimings, mergedAttendees);
+    }
+
+    public int size() {
+        return hourOffsets.length;
+    }
+
+    public long epochHour(final int index) {
+        return firstHour + Byte.toUnsignedInt(hourOffsets[index]);
+    }
+
+    public long startMinute(final int index) {
+        return epochHour(index) * MeetingRecord.HOUR_MINUTES + (timings == null ? 0 : timings[index] >>> 16);
+    }
+
+    public MeetingRecord get(final int index) {
+        if (timings == null) {
+            return new MeetingRecord(epochHour(index), attendeeIds[index]);
+        }
+        return new MeetingRecord(epochHour(index), timings[index] >>> 16, timings[index] & 0xFFFF, attendeeIds[index]);
+    }
+
+    public int firstAtOrAfter(final long epochHour) {
+        int low = 0;
+        int high = hourOffsets.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (epochHour(middle) < epochHour) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int timing(final int minute, final int durationMinutes) {
+        return minute << 16 | durationMinutes;
+    }
+}
@@ -0,0 +1,31 @@
+package main.java.com.wtomaszewski.schedulingservice.metrics;
+
+public enum Operation {
+
+    CREATE_PERSON("createPerson"),
+    CREATE_MEETING("createMeeting"),
+    TRY_CREATE_MEETING("tryCreateMeeting"),
+    BOOK_FIRST_AVAILABLE("bookFirstAvailable"),
+    CREATE_MEETINGS("createMeetings"),
+    CREATE_RECURRING_MEETING("createRecurringMeeting"),
+    GET_SCHEDULE("getSchedule"),
+    SUGGEST_TIME_SLOTS("suggestTimeSlots"),
+    SUGGEST_TIME_RANGES("suggestTimeRanges"),
+    FIND_FREE_TIME_SLOTS("findFreeTimeSlots"),
+    STREAM_SCHEDULE("streamSchedule"),
+    GET_SCHEDULE_PAGE("getSchedulePage"),
+    STREAM_FREE_TIME_SLOTS("streamFreeTimeSlots"),
+    GET_FREE_TIME_SLOT_PAGE("getFreeTimeSlotPage"),
+    FIND_FIRST_COMMON_SLOTS("findFirstCommonSlots"),
+    SUBSCRIBE("subscribe");
+
+    private final String methodName;
+
+    Operation(final String methodName) {
+        this.methodName = methodName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+}
@@ -0,0 +1,154 @@
+package main.java.com.wtomaszewski.schedulingservice.metrics;
+
+import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
+import main.java.com.wtomaszewski.schedulingservice.exception.PersonNotExistException;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms of one SchedulingAPI operation: latency of every call, size of successful results
+ * and, where the service reports it, the number of meetings scanned to build the result.
+ */
+public class OperationMetrics implements OperationMetricsMBean {
+
+    private final Operation operation;
+    private final LongAdder calls;
+    private final LongAdder failures;
+    private final LongAdder conflicts;
+    private final LongAdder unknownPersons;
+    private final Histogram latencies;
+    private final Histogram resultSizes;
+    private final Histogram scanned;
+
+    OperationMetrics(final Operation operation) {
+        this.operation = operation;
+        this.calls = new LongAdder();
+        this.failures = new LongAdder();
+        this.conflicts = new LongAdder();
+        this.unknownPersons = new LongAdder();
+        this.latencies = new Histogram();
+        this.resultSizes = new Histogram();
+        this.scanned = new Histogram();
+    }
+
+    public void recordSuccess(final long latencyNanos, final long resultSize) {
+        calls.increment();
+        latencies.record(latencyNanos);
+        resultSizes.record(resultSize);
+    }
+
+    /**
+     * Records a call whose result is produced lazily (streams), so only the time to set it up is known.
+     */
+    public void recordSuccess(final long latencyNanos) {
+        calls.increment();
+        latencies.record(latencyNanos);
+    }
+
+    public void recordFailure(final long latencyNanos, final RuntimeException failure) {
+        calls.increment();
+        failures.increment();
+        latencies.record(latencyNanos);
+        if (failure instanceof MeetingTimeslotConflictException) {
+            conflicts.increment();
+        } else if (failure instanceof PersonNotExistException) {
+            unknownPersons.increment();
+        }
+    }
+
+    public void recordScanned(final long scannedCount) {
+        scanned.record(scannedCount);
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public Histogram getResultSizes() {
+        return resultSizes;
+    }
+
+    public Histogram getScanned() {
+        return scanned;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    @Override
+    public long getUnknownPersons() {
+        return unknownPersons.sum();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return latencies.getPercentile(0.50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return latencies.getPercentile(0.99);
+    }
+
+    @Override
+    public long getLatencyP999Nanos() {
+        return latencies.getPercentile(0.999);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return latencies.getMax();
+    }
+
+    @Override
+    public double getMeanResultSize() {
+        return resultSizes.getMean();
+    }
+
+    @Override
+    public double getMeanScanned() {
+        return scanned.getMean();
+    }
+
+    void reset() {
+        calls.reset();
+        failures.reset();
+        conflicts.reset();
+        unknownPersons.reset();
+        latencies.reset();
+        resultSizes.reset();
+        scanned.reset();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder line = new StringBuilder(String.format(Locale.ROOT,
+                "%-20s calls=%d failures=%d conflicts=%d unknownPersons=%d latency p50=%dns p99=%dns p99.9=%dns max=%dns",
+                operation.getMethodName(), getCalls(), getFailures(), getConflicts(), getUnknownPersons(),
+                getLatencyP50Nanos(), getLatencyP99Nanos(), getLatencyP999Nanos(), getLatencyMaxNanos()));
+        if (resultSizes.getCount() > 0) {
+            line.append(String.format(Locale.ROOT, " result mean=%.1f max=%d", resultSizes.getMean(), resultSizes.getMax()));
+        }
+        if (scanned.getCount() > 0) {
+            line.append(String.format(Locale.ROOT, " scanned mean=%.1f max=%d", scanned.getMean(), scanned.getMax()));
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package main.java.com.wtomaszewski.schedulingservice.metrics;
+
+public interface OperationMetricsMBean {
+
+    long getCalls();
+
+    long getFailures();
+
+    long getConflicts();
+
+    long getUnknownPersons();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyP999Nanos();
+
+    long getLatencyMaxNanos();
+
+    double getMeanResultSize();
+
+    double getMeanScanned();
+}
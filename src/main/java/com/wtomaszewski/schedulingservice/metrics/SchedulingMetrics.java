@@ -0,0 +1,90 @@
+package main.java.com.wtomaszewski.schedulingservice.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registry of the metrics of every {@link Operation}. Recording is skipped entirely while disabled,
+ * which costs callers a single volatile read; it can be switched at runtime directly or through JMX.
+ */
+public class SchedulingMetrics implements SchedulingMetricsMBean {
+
+    public static final String JMX_DOMAIN = "com.wtomaszewski.schedulingservice";
+
+    private final Map<Operation, OperationMetrics> operations;
+    private volatile boolean enabled;
+
+    public SchedulingMetrics(final boolean enabled) {
+        this.enabled = enabled;
+        this.operations = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationMetrics(operation));
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public OperationMetrics get(final Operation operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * One line per operation that has been called since the last reset.
+     */
+    @Override
+    public String dump() {
+        final StringBuilder dump = new StringBuilder();
+        for (OperationMetrics metrics : operations.values()) {
+            if (metrics.getCalls() > 0) {
+                dump.append(metrics).append(System.lineSeparator());
+            }
+        }
+        return dump.toString();
+    }
+
+    @Override
+    public void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+    }
+
+    /**
+     * Registers the registry and one MBean per operation under JMX_DOMAIN:type=SchedulingMetrics,name=instanceName.
+     */
+    public void registerMBeans(final MBeanServer server, final String instanceName) {
+        try {
+            server.registerMBean(this, objectName(instanceName, null));
+            for (OperationMetrics metrics : operations.values()) {
+                server.registerMBean(metrics, objectName(instanceName, metrics.getOperation()));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void unregisterMBeans(final MBeanServer server, final String instanceName) {
+        try {
+            server.unregisterMBean(objectName(instanceName, null));
+            for (Operation operation : operations.keySet()) {
+                server.unregisterMBean(objectName(instanceName, operation));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static ObjectName objectName(final String instanceName, final Operation operation) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=SchedulingMetrics,name=" + ObjectName.quote(instanceName)
+                + (operation == null ? "" : ",operation=" + operation.getMethodName()));
+    }
+}
@@ -0,0 +1,12 @@
+package main.java.com.wtomaszewski.schedulingservice.metrics;
+
+public interface SchedulingMetricsMBean {
+
+    boolean isEnabled();
+
+    void setEnabled(final boolean enabled);
+
+    String dump();
+
+    void reset();
+}
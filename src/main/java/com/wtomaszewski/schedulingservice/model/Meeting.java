@@ -3,7 +3,14 @@ package main.java.com.wtomaszewski.schedulingservice.model;
 import java.time.LocalDateTime;
 import java.util.Set;
 
-public record Meeting(Set<String> persons, LocalDateTime startTime) implements Comparable<Meeting> {
+/**
+ * Meeting in [startTime, endTime); meetings created by hour last exactly one hour.
+ */
+public record Meeting(Set<String> persons, LocalDateTime startTime, LocalDateTime endTime) implements Comparable<Meeting> {
+
+    public Meeting(final Set<String> persons, final LocalDateTime startTime) {
+        this(persons, startTime, startTime.plusHours(1));
+    }
 
     @Override
     public int compareTo(Meeting other) {
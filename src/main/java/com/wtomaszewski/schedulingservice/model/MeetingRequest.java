@@ -0,0 +1,8 @@
+package main.java.com.wtomaszewski.schedulingservice.model;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public record MeetingRequest(Set<String> personEmails, LocalDate date, int hour, boolean checkConflicts) {
+
+}
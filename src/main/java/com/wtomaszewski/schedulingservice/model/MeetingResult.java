@@ -0,0 +1,16 @@
+package main.java.com.wtomaszewski.schedulingservice.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a meeting creation which does not throw on expected rejections: SUCCESS, shared by every created meeting,
+ * or every attendee who is busy at the time of the meeting and every email without a person.
+ */
+public record MeetingResult(List<String> conflictingEmails, List<String> unknownEmails) {
+
+    public static final MeetingResult SUCCESS = new MeetingResult(List.of(), List.of());
+
+    public boolean isSuccess() {
+        return conflictingEmails.isEmpty() && unknownEmails.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package main.java.com.wtomaszewski.schedulingservice.model;
+
+import java.util.List;
+
+/**
+ * One page of a range query; next is null when the range is exhausted.
+ */
+public record Page<T>(List<T> items, PageCursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
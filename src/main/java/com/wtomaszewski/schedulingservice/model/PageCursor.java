@@ -0,0 +1,15 @@
+package main.java.com.wtomaszewski.schedulingservice.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Position of a paged range query: results starting before startTime and the first skip results starting at startTime were already returned.
+ */
+public record PageCursor(LocalDateTime startTime, int skip) {
+
+    public static PageCursor at(final LocalDate date, final int hour) {
+        return new PageCursor(LocalDateTime.of(date, LocalTime.of(hour, 0)), 0);
+    }
+}
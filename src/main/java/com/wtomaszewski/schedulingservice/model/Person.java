@@ -1,5 +1,14 @@
 package main.java.com.wtomaszewski.schedulingservice.model;
 
-public record Person(String name, String email) {
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 
+/**
+ * A person and the time zone of their working hours; persons created without a zone work in UTC.
+ */
+public record Person(String name, String email, ZoneId zone) {
+
+    public Person(final String name, final String email) {
+        this(name, email, ZoneOffset.UTC);
+    }
 }
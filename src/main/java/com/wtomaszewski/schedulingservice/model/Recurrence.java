@@ -0,0 +1,26 @@
+package main.java.com.wtomaszewski.schedulingservice.model;
+
+import java.time.LocalDate;
+
+/**
+ * Repetition of a meeting every interval days, weeks or months, ending either on the until date (inclusive) or after count occurrences.
+ * Monthly meetings keep the day of month of the first occurrence, clamped to the last day of shorter months.
+ */
+public record Recurrence(Frequency frequency, int interval, LocalDate until, int count) {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    public static Recurrence until(final Frequency frequency, final int interval, final LocalDate until) {
+        return new Recurrence(frequency, interval, until, 0);
+    }
+
+    public static Recurrence times(final Frequency frequency, final int interval, final int count) {
+        return new Recurrence(frequency, interval, null, count);
+    }
+
+    public boolean isValid() {
+        return frequency != null && interval > 0 && (until == null) == (count > 0) && count >= 0;
+    }
+}
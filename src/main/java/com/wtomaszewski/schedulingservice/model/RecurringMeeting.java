@@ -0,0 +1,11 @@
+package main.java.com.wtomaszewski.schedulingservice.model;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Meeting series starting at startTime and repeating according to recurrence.
+ */
+public record RecurringMeeting(Set<String> persons, LocalDateTime startTime, Recurrence recurrence) {
+
+}
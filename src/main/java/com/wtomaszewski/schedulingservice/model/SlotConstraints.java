@@ -0,0 +1,43 @@
+package main.java.com.wtomaszewski.schedulingservice.model;
+
+/**
+ * Restrictions for common slot search: hours of the day in [firstHour, endHour), optionally only Monday to Friday,
+ * and a slot has to start a run of at least consecutiveHours free allowed hours.
+ */
+public record SlotConstraints(int firstHour, int endHour, boolean skipWeekends, int consecutiveHours) {
+
+    public static final SlotConstraints NONE = new SlotConstraints(0, 24, false, 1);
+
+    public static SlotConstraints workingHours(final int firstHour, final int endHour) {
+        return new SlotConstraints(firstHour, endHour, true, 1);
+    }
+
+    public SlotConstraints withConsecutiveHours(final int hours) {
+        return new SlotConstraints(firstHour, endHour, skipWeekends, hours);
+    }
+
+    public boolean isValid() {
+        return firstHour >= 0 && firstHour < endHour && endHour <= 24 && consecutiveHours > 0;
+    }
+
+    public boolean allows(final long epochHour) {
+        final int hour = Math.floorMod(epochHour, 24);
+        if (hour < firstHour || hour >= endHour) {
+            return false;
+        }
+        // epoch day 0 was a Thursday, day of week counted from Monday = 0
+        return !skipWeekends || Math.floorMod(Math.floorDiv(epochHour, 24) + 3, 7) < 5;
+    }
+
+    /**
+     * Like allows for the hour starting at localEpochMinute, a minute of local time; the whole hour has to fit into the allowed hours,
+     * which only makes a difference for zones offset by a fraction of an hour.
+     */
+    public boolean allowsHourStartingAt(final long localEpochMinute) {
+        final long minuteOfDay = Math.floorMod(localEpochMinute, 24 * 60);
+        if (minuteOfDay < firstHour * 60L || minuteOfDay + 60 > endHour * 60L) {
+            return false;
+        }
+        return !skipWeekends || Math.floorMod(Math.floorDiv(localEpochMinute, 24 * 60) + 3, 7) < 5;
+    }
+}
@@ -0,0 +1,18 @@
+package main.java.com.wtomaszewski.schedulingservice.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Time range [start, end).
+ */
+public record TimeRange(LocalDateTime start, LocalDateTime end) {
+
+    public boolean isValid() {
+        return start != null && end != null && start.isBefore(end);
+    }
+
+    public Duration duration() {
+        return Duration.between(start, end);
+    }
+}
@@ -1,10 +1,58 @@
 package main.java.com.wtomaszewski.schedulingservice.repository;
 
 import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.RecurringMeeting;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.Spliterator;
 
 public interface MeetingRepository {
 
     Set<Meeting> getMeetings();
+
+    /**
+     * Reads the meetings one at a time, in any order, for bulk loading at startup; repositories too large to copy into a Set
+     * override it with a cursor over their storage.
+     */
+    default Spliterator<Meeting> meetingCursor() {
+        return getMeetings().spliterator();
+    }
+
+    default void saveMeeting(final Meeting meeting) {
+    }
+
+    default void saveMeetings(final Collection<Meeting> meetings) {
+        for (Meeting meeting : meetings) {
+            saveMeeting(meeting);
+        }
+    }
+
+    default Set<RecurringMeeting> getRecurringMeetings() {
+        return Set.of();
+    }
+
+    default void saveRecurringMeeting(final RecurringMeeting recurringMeeting) {
+    }
+
+    /**
+     * Stores a meeting of a two-phase creation (see SchedulingShard) before it is applied and returns the id commitPrepared
+     * or abortPrepared resolve it by; a prepared meeting which is never aborted, f.e. because of a crash before the commit, is read back as created.
+     */
+    default long savePreparedMeeting(final Meeting meeting) {
+        return 0;
+    }
+
+    default long savePreparedRecurringMeeting(final RecurringMeeting recurringMeeting) {
+        return 0;
+    }
+
+    /**
+     * Marks a prepared meeting as created once it is applied; it must not fail, the meeting is already stored.
+     */
+    default void commitPrepared(final long preparedId) {
+    }
+
+    default void abortPrepared(final long preparedId) {
+    }
 }
@@ -3,8 +3,29 @@ package main.java.com.wtomaszewski.schedulingservice.repository;
 import main.java.com.wtomaszewski.schedulingservice.model.Person;
 
 import java.util.Set;
+import java.util.Spliterator;
 
 public interface PersonRepository {
 
     Set<Person> getPersons();
+
+    /**
+     * Reads the persons one at a time for bulk loading at startup; repositories too large to copy into a Set override it with a cursor over their storage.
+     */
+    default Spliterator<Person> personCursor() {
+        return getPersons().spliterator();
+    }
+
+    default void savePerson(final Person person) {
+    }
+
+    /**
+     * Emails stored by saveGuest, attendees owned by another service (see SchedulingShard) which meetings of this one reference.
+     */
+    default Set<String> getGuests() {
+        return Set.of();
+    }
+
+    default void saveGuest(final String email) {
+    }
 }
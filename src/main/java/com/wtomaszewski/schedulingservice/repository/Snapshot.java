@@ -0,0 +1,279 @@
+package main.java.com.wtomaszewski.schedulingservice.repository;
+
+import main.java.com.wtomaszewski.schedulingservice.exception.PersistenceException;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Columnar snapshot of a write-ahead log, memory-mapped for reading.
+ * Layout: header, person table in ordinal order, then meetings sorted by start hour as three columns
+ * (epoch hours, attendee offsets, attendee person ordinals), the record tables and a CRC32C of everything before it.
+ * Persons are stored with their time zone. Record tables hold records rare enough to stay in the log format: recurring meetings,
+ * meetings that are not exactly one whole hour, the emails of guests, attendees stored without a person record, whose ordinal -1 - i
+ * refers to guest i, and prepared meetings still waiting for the commit or abort of their two-phase creation.
+ */
+public class Snapshot {
+
+    private static final int MAGIC = 0x534E4150;
+    private static final int VERSION = 1;
+    private static final int RECORD_TABLES = 4;
+    private static final int RECURRING_MEETING_TABLE = 0;
+    private static final int TIMED_MEETING_TABLE = 1;
+    private static final int GUEST_TABLE = 2;
+    private static final int PREPARED_MEETING_TABLE = 3;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES + 4 * Integer.BYTES + RECORD_TABLES * 2 * Integer.BYTES;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final long coveredSegment;
+    private final long nextPreparedId;
+    private final List<Person> persons;
+    private final LongBuffer epochHours;
+    private final IntBuffer attendeeOffsets;
+    private final IntBuffer attendeeIds;
+    private final List<List<byte[]>> recordTables;
+
+    private Snapshot(final long coveredSegment, final long nextPreparedId, final List<Person> persons, final LongBuffer epochHours,
+                     final IntBuffer attendeeOffsets, final IntBuffer attendeeIds, final List<List<byte[]>> recordTables) {
+        this.coveredSegment = coveredSegment;
+        this.nextPreparedId = nextPreparedId;
+        this.persons = persons;
+        this.epochHours = epochHours;
+        this.attendeeOffsets = attendeeOffsets;
+        this.attendeeIds = attendeeIds;
+        this.recordTables = recordTables;
+    }
+
+    /**
+     * Maps a snapshot file and verifies its checksum.
+     */
+    public static Snapshot map(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long checkedBytes = channel.size() - Integer.BYTES;
+            if (checkedBytes < HEADER_BYTES) {
+                throw new IOException("Snapshot is truncated");
+            }
+            final CRC32C checksum = new CRC32C();
+            for (long position = 0; position < checkedBytes; position += Integer.MAX_VALUE) {
+                checksum.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Integer.MAX_VALUE, checkedBytes - position)));
+            }
+            final ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(trailer, checkedBytes);
+            if (trailer.getInt(0) != (int) checksum.getValue()) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Unsupported snapshot format");
+            }
+            final long coveredSegment = header.getLong();
+            final long nextPreparedId = header.getLong();
+            final int personCount = header.getInt();
+            final int meetingCount = header.getInt();
+            final int attendeeIdCount = header.getInt();
+            final int personTableBytes = header.getInt();
+
+            final ByteBuffer personTable = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, personTableBytes);
+            final List<Person> persons = new ArrayList<>(personCount);
+            for (int i = 0; i < personCount; i++) {
+                persons.add(new Person(readString(personTable), readString(personTable), ZoneId.of(readString(personTable))));
+            }
+
+            long position = HEADER_BYTES + personTableBytes;
+            final LongBuffer epochHours = mapColumn(channel, position, (long) meetingCount * Long.BYTES).asLongBuffer();
+            position += (long) meetingCount * Long.BYTES;
+            final IntBuffer attendeeOffsets = mapColumn(channel, position, (meetingCount + 1L) * Integer.BYTES).asIntBuffer();
+            position += (meetingCount + 1L) * Integer.BYTES;
+            final IntBuffer attendeeIds = mapColumn(channel, position, (long) attendeeIdCount * Integer.BYTES).asIntBuffer();
+            position += (long) attendeeIdCount * Integer.BYTES;
+            final List<List<byte[]>> recordTables = new ArrayList<>(RECORD_TABLES);
+            for (int table = 0; table < RECORD_TABLES; table++) {
+                final int recordCount = header.getInt();
+                final int tableBytes = header.getInt();
+                final ByteBuffer recordTable = channel.map(FileChannel.MapMode.READ_ONLY, position, tableBytes);
+                position += tableBytes;
+                final List<byte[]> records = new ArrayList<>(recordCount);
+                for (int i = 0; i < recordCount; i++) {
+                    final byte[] record = new byte[recordTable.getInt()];
+                    recordTable.get(record);
+                    records.add(record);
+                }
+                recordTables.add(Collections.unmodifiableList(records));
+            }
+            return new Snapshot(coveredSegment, nextPreparedId, Collections.unmodifiableList(persons), epochHours, attendeeOffsets, attendeeIds, recordTables);
+        } catch (IOException e) {
+            throw new PersistenceException(file, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot; epochHours has to be sorted and meeting i attends attendeeIds[attendeeOffsets[i], attendeeOffsets[i + 1]).
+     * Recurring, timed and prepared meetings are stored as opaque records, in the format of the log they come from.
+     */
+    public static void write(final Path file, final long coveredSegment, final long nextPreparedId, final List<Person> persons, final List<String> guests,
+                             final long[] epochHours, final int meetingCount, final int[] attendeeOffsets, final int[] attendeeIds,
+                             final List<byte[]> recurringMeetingRecords, final List<byte[]> timedMeetingRecords, final List<byte[]> preparedMeetingRecords) {
+        final List<byte[]> personTable = new ArrayList<>(persons.size() * 3);
+        int personTableBytes = 0;
+        for (Person person : persons) {
+            final byte[] name = person.name().getBytes(StandardCharsets.UTF_8);
+            final byte[] email = person.email().getBytes(StandardCharsets.UTF_8);
+            final byte[] zone = person.zone().getId().getBytes(StandardCharsets.UTF_8);
+            personTable.add(name);
+            personTable.add(email);
+            personTable.add(zone);
+            personTableBytes += 3 * Integer.BYTES + name.length + email.length + zone.length;
+        }
+        final int attendeeIdCount = attendeeOffsets[meetingCount];
+        final List<byte[]> guestRecords = new ArrayList<>(guests.size());
+        for (String guest : guests) {
+            guestRecords.add(guest.getBytes(StandardCharsets.UTF_8));
+        }
+        final List<List<byte[]>> recordTables = List.of(recurringMeetingRecords, timedMeetingRecords, guestRecords, preparedMeetingRecords);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final OutputStream channelOutput = Channels.newOutputStream(channel);
+            final CheckedOutputStream checkedOutput = new CheckedOutputStream(channelOutput, new CRC32C());
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(checkedOutput, BUFFER_BYTES));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(coveredSegment);
+            output.writeLong(nextPreparedId);
+            output.writeInt(persons.size());
+            output.writeInt(meetingCount);
+            output.writeInt(attendeeIdCount);
+            output.writeInt(personTableBytes);
+            for (List<byte[]> records : recordTables) {
+                int tableBytes = 0;
+                for (byte[] record : records) {
+                    tableBytes += Integer.BYTES + record.length;
+                }
+                output.writeInt(records.size());
+                output.writeInt(tableBytes);
+            }
+            for (byte[] value : personTable) {
+                output.writeInt(value.length);
+                output.write(value);
+            }
+            for (int i = 0; i < meetingCount; i++) {
+                output.writeLong(epochHours[i]);
+            }
+            for (int i = 0; i <= meetingCount; i++) {
+                output.writeInt(attendeeOffsets[i]);
+            }
+            for (int i = 0; i < attendeeIdCount; i++) {
+                output.writeInt(attendeeIds[i]);
+            }
+            for (List<byte[]> records : recordTables) {
+                for (byte[] record : records) {
+                    output.writeInt(record.length);
+                    output.write(record);
+                }
+            }
+            output.flush();
+            new DataOutputStream(channelOutput).writeInt((int) checkedOutput.getChecksum().getValue());
+            channel.force(true);
+        } catch (IOException e) {
+            throw new PersistenceException(file, e);
+        }
+    }
+
+    /**
+     * All log segments up to and including this one are contained in the snapshot.
+     */
+    public long getCoveredSegment() {
+        return coveredSegment;
+    }
+
+    /**
+     * Id the log continues with for the next prepared meeting, so ids of prepared meetings are never reused.
+     */
+    public long getNextPreparedId() {
+        return nextPreparedId;
+    }
+
+    /**
+     * Persons in ordinal order, attendee ids of meetings are indexes into this list.
+     */
+    public List<Person> getPersons() {
+        return persons;
+    }
+
+    /**
+     * Emails of the guests in ordinal order, attendee id -1 - i of a meeting is guest i.
+     */
+    public List<String> getGuests() {
+        return recordTables.get(GUEST_TABLE).stream()
+                .map(record -> new String(record, StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    public int getMeetingCount() {
+        return epochHours.limit();
+    }
+
+    public long getEpochHour(final int meeting) {
+        return epochHours.get(meeting);
+    }
+
+    public int[] getAttendeeIds(final int meeting) {
+        final int from = attendeeOffsets.get(meeting);
+        final int[] ids = new int[attendeeOffsets.get(meeting + 1) - from];
+        attendeeIds.get(from, ids);
+        return ids;
+    }
+
+    /**
+     * Recurring meeting records in the order they were written, each one in the format of the log.
+     */
+    public List<byte[]> getRecurringMeetingRecords() {
+        return recordTables.get(RECURRING_MEETING_TABLE);
+    }
+
+    /**
+     * Records of meetings that are not exactly one whole hour, in the order they were written and in the format of the log.
+     */
+    public List<byte[]> getTimedMeetingRecords() {
+        return recordTables.get(TIMED_MEETING_TABLE);
+    }
+
+    /**
+     * Prepared meetings neither committed nor aborted when the snapshot was taken, each as its prepared id followed by
+     * the type and payload of its meeting record in the format of the log.
+     */
+    public List<byte[]> getPreparedMeetingRecords() {
+        return recordTables.get(PREPARED_MEETING_TABLE);
+    }
+
+    private static MappedByteBuffer mapColumn(final FileChannel channel, final long position, final long bytes) throws IOException {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot column exceeds " + Integer.MAX_VALUE + " bytes");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
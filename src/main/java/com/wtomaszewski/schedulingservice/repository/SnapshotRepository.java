@@ -0,0 +1,24 @@
+package main.java.com.wtomaszewski.schedulingservice.repository;
+
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+import main.java.com.wtomaszewski.schedulingservice.model.RecurringMeeting;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository able to hand out its data as a snapshot for bulk loading plus the records stored after the snapshot.
+ */
+public interface SnapshotRepository {
+
+    RecoveryState loadSnapshot();
+
+    /**
+     * Snapshot may be null when none was taken yet; persons and guests are in ordinal order, continuing the snapshot person and guest tables.
+     * Recurring meetings are few, so all of them are handed out decoded, including those stored in the snapshot.
+     */
+    record RecoveryState(Snapshot snapshot, List<Person> personsAfterSnapshot, List<String> guestsAfterSnapshot,
+                         Set<Meeting> meetingsAfterSnapshot, Set<RecurringMeeting> recurringMeetings) {
+    }
+}
@@ -0,0 +1,987 @@
+package main.java.com.wtomaszewski.schedulingservice.repository;
+
+import main.java.com.wtomaszewski.schedulingservice.exception.PersistenceException;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence.Frequency;
+import main.java.com.wtomaszewski.schedulingservice.model.RecurringMeeting;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochMinute;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getLocalDateTime;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getLocalDateTimeOfEpochMinute;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.isWholeHour;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getTimeOrder;
+
+/**
+ * Person and meeting repository backed by an append-only binary log split into numbered segments.
+ * Every record is framed as [payload length][CRC32C][payload], meetings and recurring meetings reference attendees by the ordinal
+ * of their person record. Whole-hour meetings and meetings of any other start minute or length have separate record types.
+ * Attendees who are not stored persons, guests owned by another service (see SchedulingShard), are stored by saveGuest as
+ * email-only guest records and are referenced by the negative ordinal -1 - i of guest i.
+ * Meetings of a two-phase creation (see SchedulingShard) are written as prepared records when prepared. Committing one writes nothing,
+ * aborting one writes an abort record, so a prepared meeting without an abort record counts as created.
+ * Appends only copy the record into a buffer; the buffer is written and fsynced by a background thread once per durability window
+ * (group commit), or after every append when the window is zero. Replay of the active segment stops at the first torn or corrupted record
+ * and truncates it; a sealed segment was forced whole before the next one was started, so a bad record there fails the replay instead.
+ * Once a segment is full it is sealed, and a background thread folds sealed segments into a columnar {@link Snapshot}
+ * and deletes them, so a restart maps the snapshot and replays only the log tail. Writers never wait for compaction.
+ * The same instance has to be used as person and meeting repository.
+ */
+public class WriteAheadLogRepository implements PersonRepository, MeetingRepository, SnapshotRepository, Closeable {
+
+    public static final Duration DEFAULT_DURABILITY_WINDOW = Duration.ofMillis(10);
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    static final byte PERSON_RECORD = 1;
+    static final byte MEETING_RECORD = 2;
+    static final byte RECURRING_MEETING_RECORD = 3;
+    static final byte TIMED_MEETING_RECORD = 4;
+    static final byte GUEST_RECORD = 5;
+    static final byte PREPARED_RECORD = 6;
+    static final byte ABORT_RECORD = 7;
+    private static final long NOT_PREPARED = 0;
+    private static final long NO_UNTIL_DATE = Long.MIN_VALUE;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path file;
+    private final Path directory;
+    private final Duration durabilityWindow;
+    private final long segmentBytes;
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService compactor;
+    private final AtomicBoolean compactionScheduled;
+    private final Object compactionLock;
+    private final List<Person> persons;
+    private final Map<String, Integer> personOrdinals;
+    private final List<String> guests;
+    private final Map<String, Integer> guestOrdinals;
+    private final Set<Long> committedPreparedIds;
+    private final Set<Long> abortedPreparedIds;
+    private final ByteBuffer buffer;
+    private final CRC32C checksum;
+    private FileChannel channel;
+    private long activeSegment;
+    private int recordStart;
+    private long nextPreparedId;
+    private long firstPreparedIdOfRun;
+    private volatile Snapshot snapshot;
+    private volatile Exception flushFailure;
+
+    public WriteAheadLogRepository(final Path file) {
+        this(file, DEFAULT_DURABILITY_WINDOW);
+    }
+
+    public WriteAheadLogRepository(final Path file, final Duration durabilityWindow) {
+        this(file, durabilityWindow, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Segments are stored next to the given file as file.00000001, file.00000002, ... and the snapshot as file.snapshot.
+     */
+    public WriteAheadLogRepository(final Path file, final Duration durabilityWindow, final long segmentBytes) {
+        this.file = file.toAbsolutePath();
+        this.directory = this.file.getParent();
+        this.durabilityWindow = durabilityWindow;
+        this.segmentBytes = segmentBytes;
+        this.compactionScheduled = new AtomicBoolean();
+        this.compactionLock = new Object();
+        this.persons = new ArrayList<>();
+        this.personOrdinals = new HashMap<>();
+        this.guests = new ArrayList<>();
+        this.guestOrdinals = new HashMap<>();
+        this.committedPreparedIds = new HashSet<>();
+        this.abortedPreparedIds = new HashSet<>();
+        this.buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        this.checksum = new CRC32C();
+        try {
+            openLog();
+        } catch (IOException e) {
+            throw new PersistenceException(file, e);
+        }
+        this.compactor = Executors.newSingleThreadExecutor(daemonThreads("wal-compactor-"));
+        if (durabilityWindow.isZero()) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(daemonThreads("wal-flusher-"));
+            final long windowNanos = durabilityWindow.toNanos();
+            flusher.scheduleWithFixedDelay(this::backgroundSync, windowNanos, windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public synchronized Set<Person> getPersons() {
+        return new HashSet<>(persons);
+    }
+
+    @Override
+    public synchronized Set<String> getGuests() {
+        return new HashSet<>(guests);
+    }
+
+    @Override
+    public Set<Meeting> getMeetings() {
+        synchronized (compactionLock) {
+            final RecoveryState state = loadSnapshot();
+            final Snapshot loadedSnapshot = state.snapshot();
+            if (loadedSnapshot == null) {
+                return state.meetingsAfterSnapshot();
+            }
+            final List<Meeting> meetings = new ArrayList<>(loadedSnapshot.getMeetingCount() + state.meetingsAfterSnapshot().size());
+            final List<String> snapshotGuests = loadedSnapshot.getGuests();
+            for (int i = 0; i < loadedSnapshot.getMeetingCount(); i++) {
+                meetings.add(toMeeting(loadedSnapshot.getPersons(), snapshotGuests, loadedSnapshot.getEpochHour(i), loadedSnapshot.getAttendeeIds(i)));
+            }
+            meetings.addAll(state.meetingsAfterSnapshot());
+            return new LogRecordSet<>(meetings);
+        }
+    }
+
+    /**
+     * Converts the snapshot meetings to Meeting objects as they are read instead of copying all of them first.
+     */
+    @Override
+    public Spliterator<Meeting> meetingCursor() {
+        synchronized (compactionLock) {
+            final RecoveryState state = loadSnapshot();
+            final Snapshot loadedSnapshot = state.snapshot();
+            if (loadedSnapshot == null) {
+                return state.meetingsAfterSnapshot().spliterator();
+            }
+            final List<String> snapshotGuests = loadedSnapshot.getGuests();
+            return Stream.concat(IntStream.range(0, loadedSnapshot.getMeetingCount())
+                            .mapToObj(i -> toMeeting(loadedSnapshot.getPersons(), snapshotGuests, loadedSnapshot.getEpochHour(i), loadedSnapshot.getAttendeeIds(i))),
+                    state.meetingsAfterSnapshot().stream()).spliterator();
+        }
+    }
+
+    @Override
+    public Set<RecurringMeeting> getRecurringMeetings() {
+        return loadSnapshot().recurringMeetings();
+    }
+
+    @Override
+    public RecoveryState loadSnapshot() {
+        synchronized (compactionLock) {
+            final Snapshot loadedSnapshot = snapshot;
+            final long fromSegment = loadedSnapshot == null ? 1 : loadedSnapshot.getCoveredSegment() + 1;
+            final List<Person> personsByOrdinal;
+            final List<String> guestsByOrdinal;
+            final long lastSegment;
+            final long lastSegmentLength;
+            synchronized (this) {
+                try {
+                    drain();
+                    lastSegment = activeSegment;
+                    lastSegmentLength = channel.size();
+                } catch (IOException e) {
+                    throw new PersistenceException(segmentFile(activeSegment), e);
+                }
+                personsByOrdinal = new ArrayList<>(persons);
+                guestsByOrdinal = new ArrayList<>(guests);
+            }
+
+            final List<Meeting> meetings = new ArrayList<>();
+            final List<RecurringMeeting> recurringMeetings = new ArrayList<>();
+            final Map<Long, Meeting> preparedMeetings = new HashMap<>();
+            final Map<Long, RecurringMeeting> preparedRecurringMeetings = new HashMap<>();
+            final RecordVisitor visitor = (type, payload) -> {
+                if (type == MEETING_RECORD || type == TIMED_MEETING_RECORD) {
+                    meetings.add(toMeeting(personsByOrdinal, guestsByOrdinal, type, payload));
+                } else if (type == RECURRING_MEETING_RECORD) {
+                    recurringMeetings.add(toRecurringMeeting(personsByOrdinal, guestsByOrdinal, payload));
+                } else if (type == PREPARED_RECORD) {
+                    final long preparedId = payload.getLong();
+                    final byte meetingType = payload.get();
+                    if (meetingType == RECURRING_MEETING_RECORD) {
+                        preparedRecurringMeetings.put(preparedId, toRecurringMeeting(personsByOrdinal, guestsByOrdinal, payload));
+                    } else {
+                        preparedMeetings.put(preparedId, toMeeting(personsByOrdinal, guestsByOrdinal, meetingType, payload));
+                    }
+                } else if (type == ABORT_RECORD) {
+                    final long preparedId = payload.getLong();
+                    preparedMeetings.remove(preparedId);
+                    preparedRecurringMeetings.remove(preparedId);
+                }
+            };
+            if (loadedSnapshot != null) {
+                for (byte[] record : loadedSnapshot.getRecurringMeetingRecords()) {
+                    visitor.visit(RECURRING_MEETING_RECORD, ByteBuffer.wrap(record));
+                }
+                for (byte[] record : loadedSnapshot.getTimedMeetingRecords()) {
+                    visitor.visit(TIMED_MEETING_RECORD, ByteBuffer.wrap(record));
+                }
+                for (byte[] record : loadedSnapshot.getPreparedMeetingRecords()) {
+                    visitor.visit(PREPARED_RECORD, ByteBuffer.wrap(record));
+                }
+            }
+            for (long segment = fromSegment; segment <= lastSegment; segment++) {
+                final Path segmentFile = segmentFile(segment);
+                try {
+                    if (segment == lastSegment) {
+                        replay(segmentFile, lastSegmentLength, visitor);
+                    } else {
+                        replaySealed(segmentFile, visitor);
+                    }
+                } catch (IOException e) {
+                    throw new PersistenceException(segmentFile, e);
+                }
+            }
+            // a prepared meeting nobody aborted is created, whether or not the commit was reached
+            meetings.addAll(preparedMeetings.values());
+            recurringMeetings.addAll(preparedRecurringMeetings.values());
+            final int snapshotPersons = loadedSnapshot == null ? 0 : loadedSnapshot.getPersons().size();
+            final int snapshotGuests = loadedSnapshot == null ? 0 : loadedSnapshot.getGuests().size();
+            return new RecoveryState(loadedSnapshot, personsByOrdinal.subList(snapshotPersons, personsByOrdinal.size()),
+                    guestsByOrdinal.subList(snapshotGuests, guestsByOrdinal.size()), new LogRecordSet<>(meetings), new LogRecordSet<>(recurringMeetings));
+        }
+    }
+
+    @Override
+    public void savePerson(final Person person) {
+        synchronized (this) {
+            checkFlushFailure();
+            final byte[] name = person.name().getBytes(StandardCharsets.UTF_8);
+            final byte[] email = person.email().getBytes(StandardCharsets.UTF_8);
+            final byte[] zone = person.zone().getId().getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer record = startRecord(1 + 3 * Integer.BYTES + name.length + email.length + zone.length);
+            record.put(PERSON_RECORD).putInt(name.length).put(name).putInt(email.length).put(email).putInt(zone.length).put(zone);
+            finishRecord(record);
+            addPerson(person);
+        }
+        syncIfNoDurabilityWindow();
+    }
+
+    /**
+     * Stores email as a guest unless it is a stored person or guest already.
+     */
+    @Override
+    public void saveGuest(final String email) {
+        synchronized (this) {
+            checkFlushFailure();
+            if (personOrdinals.containsKey(email) || guestOrdinals.containsKey(email)) {
+                return;
+            }
+            final byte[] guest = email.getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer record = startRecord(1 + Integer.BYTES + guest.length);
+            record.put(GUEST_RECORD).putInt(guest.length).put(guest);
+            finishRecord(record);
+            addGuest(email);
+        }
+        syncIfNoDurabilityWindow();
+    }
+
+    @Override
+    public void saveMeeting(final Meeting meeting) {
+        synchronized (this) {
+            checkFlushFailure();
+            appendMeeting(meeting, NOT_PREPARED);
+        }
+        syncIfNoDurabilityWindow();
+    }
+
+    @Override
+    public long savePreparedMeeting(final Meeting meeting) {
+        final long preparedId;
+        synchronized (this) {
+            checkFlushFailure();
+            preparedId = nextPreparedId;
+            appendMeeting(meeting, preparedId);
+            nextPreparedId++;
+        }
+        syncIfNoDurabilityWindow();
+        return preparedId;
+    }
+
+    @Override
+    public void saveMeetings(final Collection<Meeting> meetings) {
+        synchronized (this) {
+            checkFlushFailure();
+            for (Meeting meeting : meetings) {
+                appendMeeting(meeting, NOT_PREPARED);
+            }
+        }
+        syncIfNoDurabilityWindow();
+    }
+
+    @Override
+    public void saveRecurringMeeting(final RecurringMeeting recurringMeeting) {
+        synchronized (this) {
+            checkFlushFailure();
+            appendRecurringMeeting(recurringMeeting, NOT_PREPARED);
+        }
+        syncIfNoDurabilityWindow();
+    }
+
+    @Override
+    public long savePreparedRecurringMeeting(final RecurringMeeting recurringMeeting) {
+        final long preparedId;
+        synchronized (this) {
+            checkFlushFailure();
+            preparedId = nextPreparedId;
+            appendRecurringMeeting(recurringMeeting, preparedId);
+            nextPreparedId++;
+        }
+        syncIfNoDurabilityWindow();
+        return preparedId;
+    }
+
+    /**
+     * Writes nothing, the prepared record already stands for the created meeting; the id only tells compaction it is resolved.
+     */
+    @Override
+    public synchronized void commitPrepared(final long preparedId) {
+        committedPreparedIds.add(preparedId);
+    }
+
+    @Override
+    public void abortPrepared(final long preparedId) {
+        synchronized (this) {
+            checkFlushFailure();
+            final ByteBuffer record = startRecord(1 + Long.BYTES);
+            record.put(ABORT_RECORD).putLong(preparedId);
+            finishRecord(record);
+            abortedPreparedIds.add(preparedId);
+        }
+        syncIfNoDurabilityWindow();
+    }
+
+    /**
+     * Writes all buffered records and forces them to the storage device.
+     */
+    public void sync() {
+        try {
+            drainAndForce();
+        } catch (IOException e) {
+            throw new PersistenceException(file, e);
+        }
+    }
+
+    /**
+     * Seals the active segment and folds all sealed segments into a new snapshot on the calling thread.
+     */
+    public void compact() {
+        synchronized (this) {
+            checkFlushFailure();
+            try {
+                drain();
+                if (channel.size() > 0) {
+                    sealSegment();
+                }
+            } catch (IOException e) {
+                throw new PersistenceException(segmentFile(activeSegment), e);
+            }
+        }
+        compactSealedSegments();
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            awaitTermination(flusher, durabilityWindow.toMillis() + 1000);
+        }
+        sync();
+        compactor.shutdown();
+        awaitTermination(compactor, Long.MAX_VALUE);
+        synchronized (this) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new PersistenceException(file, e);
+            }
+        }
+    }
+
+    public Duration getDurabilityWindow() {
+        return durabilityWindow;
+    }
+
+    private void openLog() throws IOException {
+        final Path snapshotFile = snapshotFile();
+        final List<Long> segments = listSegments();
+        snapshot = Files.exists(snapshotFile) ? Snapshot.map(snapshotFile) : null;
+        final long coveredSegment = snapshot == null ? 0 : snapshot.getCoveredSegment();
+        final Set<Long> preparedIds = new HashSet<>();
+        nextPreparedId = 1;
+        if (snapshot != null) {
+            snapshot.getPersons().forEach(this::addPerson);
+            snapshot.getGuests().forEach(this::addGuest);
+            snapshot.getPreparedMeetingRecords().forEach(record -> preparedIds.add(ByteBuffer.wrap(record).getLong()));
+            nextPreparedId = snapshot.getNextPreparedId();
+        }
+
+        activeSegment = coveredSegment + 1;
+        final long lastSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        for (long segment : segments) {
+            final Path segmentFile = segmentFile(segment);
+            if (segment <= coveredSegment) {
+                // left behind by a compaction interrupted after installing its snapshot
+                Files.delete(segmentFile);
+                continue;
+            }
+            final long length = Files.size(segmentFile);
+            final long validLength = replay(segmentFile, length, (type, payload) -> {
+                if (type == PERSON_RECORD) {
+                    addPerson(toPerson(payload));
+                } else if (type == GUEST_RECORD) {
+                    addGuest(readString(payload));
+                } else if (type == PREPARED_RECORD) {
+                    final long preparedId = payload.getLong();
+                    preparedIds.add(preparedId);
+                    nextPreparedId = Math.max(nextPreparedId, preparedId + 1);
+                } else if (type == ABORT_RECORD) {
+                    abortedPreparedIds.add(payload.getLong());
+                }
+            });
+            if (segment != lastSegment) {
+                checkSealedLength(segmentFile, length, validLength);
+            }
+            try (FileChannel segmentChannel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+                segmentChannel.truncate(validLength);
+            }
+            activeSegment = segment;
+        }
+        // aborts of prepared meetings a compaction already dropped
+        abortedPreparedIds.retainAll(preparedIds);
+        firstPreparedIdOfRun = nextPreparedId;
+        channel = FileChannel.open(segmentFile(activeSegment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    private void appendMeeting(final Meeting meeting, final long preparedId) {
+        final Set<String> emails = meeting.persons();
+        if (!isWholeHour(meeting)) {
+            final ByteBuffer record = startMeetingRecord(1 + Long.BYTES + 2 * Integer.BYTES + emails.size() * Integer.BYTES, preparedId);
+            record.put(TIMED_MEETING_RECORD)
+                    .putLong(getEpochMinute(meeting.startTime()))
+                    .putInt((int) Duration.between(meeting.startTime(), meeting.endTime()).toMinutes())
+                    .putInt(emails.size());
+            putAttendeeOrdinals(record, emails);
+            finishRecord(record);
+            return;
+        }
+        final ByteBuffer record = startMeetingRecord(1 + Long.BYTES + Integer.BYTES + emails.size() * Integer.BYTES, preparedId);
+        record.put(MEETING_RECORD).putLong(getEpochHour(meeting.startTime())).putInt(emails.size());
+        putAttendeeOrdinals(record, emails);
+        finishRecord(record);
+    }
+
+    private void appendRecurringMeeting(final RecurringMeeting recurringMeeting, final long preparedId) {
+        final Set<String> emails = recurringMeeting.persons();
+        final Recurrence recurrence = recurringMeeting.recurrence();
+        final ByteBuffer record = startMeetingRecord(1 + Long.BYTES + 1 + Integer.BYTES + Long.BYTES + 2 * Integer.BYTES + emails.size() * Integer.BYTES, preparedId);
+        record.put(RECURRING_MEETING_RECORD)
+                .putLong(getEpochHour(recurringMeeting.startTime()))
+                .put((byte) recurrence.frequency().ordinal())
+                .putInt(recurrence.interval())
+                .putLong(recurrence.until() == null ? NO_UNTIL_DATE : recurrence.until().toEpochDay())
+                .putInt(recurrence.count())
+                .putInt(emails.size());
+        putAttendeeOrdinals(record, emails);
+        finishRecord(record);
+    }
+
+    /**
+     * Starts a meeting record, wrapped into a prepared record unless preparedId is NOT_PREPARED.
+     */
+    private ByteBuffer startMeetingRecord(final int payloadBytes, final long preparedId) {
+        if (preparedId == NOT_PREPARED) {
+            return startRecord(payloadBytes);
+        }
+        return startRecord(1 + Long.BYTES + payloadBytes).put(PREPARED_RECORD).putLong(preparedId);
+    }
+
+    private void putAttendeeOrdinals(final ByteBuffer record, final Set<String> emails) {
+        for (String email : emails) {
+            final Integer ordinal = personOrdinals.get(email);
+            final Integer guestOrdinal = guestOrdinals.get(email);
+            if (ordinal == null && guestOrdinal == null) {
+                record.position(recordStart);
+                throw new IllegalStateException("Person " + email + " is not stored in " + file);
+            }
+            record.putInt(ordinal != null ? ordinal : -1 - guestOrdinal);
+        }
+    }
+
+    private ByteBuffer startRecord(final int payloadBytes) {
+        final int recordBytes = HEADER_BYTES + payloadBytes;
+        if (buffer.remaining() < recordBytes) {
+            drainUnchecked();
+        }
+        final ByteBuffer record = recordBytes <= buffer.capacity() ? buffer : ByteBuffer.allocate(recordBytes);
+        recordStart = record.position();
+        record.putInt(payloadBytes).putInt(0);
+        return record;
+    }
+
+    private void finishRecord(final ByteBuffer record) {
+        final int payloadStart = recordStart + HEADER_BYTES;
+        checksum.reset();
+        checksum.update(record.array(), payloadStart, record.position() - payloadStart);
+        record.putInt(recordStart + Integer.BYTES, (int) checksum.getValue());
+        if (record != buffer) {
+            record.flip();
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            } catch (IOException e) {
+                throw new PersistenceException(file, e);
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        if (channel.position() >= segmentBytes) {
+            sealSegment();
+        }
+    }
+
+    private void drainUnchecked() {
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new PersistenceException(file, e);
+        }
+    }
+
+    private void drainAndForce() throws IOException {
+        final FileChannel drainedChannel;
+        synchronized (this) {
+            drain();
+            drainedChannel = channel;
+        }
+        try {
+            drainedChannel.force(false);
+        } catch (ClosedChannelException e) {
+            // the segment was sealed meanwhile, sealing forces it before closing
+        }
+    }
+
+    private void sealSegment() throws IOException {
+        channel.force(false);
+        channel.close();
+        activeSegment++;
+        channel = FileChannel.open(segmentFile(activeSegment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        forceDirectory();
+        if (compactionScheduled.compareAndSet(false, true)) {
+            compactor.execute(this::backgroundCompaction);
+        }
+    }
+
+    private void backgroundSync() {
+        try {
+            drainAndForce();
+        } catch (IOException e) {
+            flushFailure = e;
+        }
+    }
+
+    private void backgroundCompaction() {
+        compactionScheduled.set(false);
+        try {
+            compactSealedSegments();
+        } catch (PersistenceException e) {
+            // nothing was deleted; writers report the failure instead of the log going on with segments no compaction can fold
+            flushFailure = e;
+        }
+    }
+
+    private void compactSealedSegments() {
+        synchronized (compactionLock) {
+            final long lastSealedSegment;
+            final long nextSnapshotPreparedId;
+            final long firstPreparedIdOfSnapshotRun;
+            final Set<Long> committedIds;
+            final Set<Long> abortedIds;
+            synchronized (this) {
+                lastSealedSegment = activeSegment - 1;
+                nextSnapshotPreparedId = nextPreparedId;
+                firstPreparedIdOfSnapshotRun = firstPreparedIdOfRun;
+                committedIds = new HashSet<>(committedPreparedIds);
+                abortedIds = new HashSet<>(abortedPreparedIds);
+            }
+            final Snapshot previous = snapshot;
+            final long coveredSegment = previous == null ? 0 : previous.getCoveredSegment();
+            if (lastSealedSegment <= coveredSegment) {
+                return;
+            }
+
+            final List<Person> snapshotPersons = new ArrayList<>(previous == null ? List.of() : previous.getPersons());
+            final List<String> snapshotGuests = new ArrayList<>(previous == null ? List.of() : previous.getGuests());
+            final List<byte[]> recurringMeetingRecords = new ArrayList<>(previous == null ? List.of() : previous.getRecurringMeetingRecords());
+            final List<byte[]> timedMeetingRecords = new ArrayList<>(previous == null ? List.of() : previous.getTimedMeetingRecords());
+            final Map<Long, byte[]> preparedMeetingRecords = new LinkedHashMap<>();
+            if (previous != null) {
+                previous.getPreparedMeetingRecords().forEach(record -> preparedMeetingRecords.put(ByteBuffer.wrap(record).getLong(), record));
+            }
+            final MeetingColumns logMeetings = new MeetingColumns();
+            final RecordVisitor meetingVisitor = (type, payload) -> {
+                if (type == MEETING_RECORD) {
+                    logMeetings.add(payload);
+                } else {
+                    (type == RECURRING_MEETING_RECORD ? recurringMeetingRecords : timedMeetingRecords).add(remainingBytes(payload));
+                }
+            };
+            for (long segment = coveredSegment + 1; segment <= lastSealedSegment; segment++) {
+                final Path segmentFile = segmentFile(segment);
+                try {
+                    replaySealed(segmentFile, (type, payload) -> {
+                        if (type == PERSON_RECORD) {
+                            snapshotPersons.add(toPerson(payload));
+                        } else if (type == GUEST_RECORD) {
+                            snapshotGuests.add(readString(payload));
+                        } else if (type == MEETING_RECORD || type == RECURRING_MEETING_RECORD || type == TIMED_MEETING_RECORD) {
+                            meetingVisitor.visit(type, payload);
+                        } else if (type == PREPARED_RECORD) {
+                            final byte[] record = remainingBytes(payload);
+                            preparedMeetingRecords.put(ByteBuffer.wrap(record).getLong(), record);
+                        }
+                    });
+                } catch (IOException e) {
+                    throw new PersistenceException(segmentFile, e);
+                }
+            }
+            // aborted ones are dropped, committed ones and those left unresolved by an earlier run are folded in like any meeting
+            final List<byte[]> pendingMeetingRecords = new ArrayList<>();
+            final Set<Long> resolvedIds = new HashSet<>();
+            for (Map.Entry<Long, byte[]> prepared : preparedMeetingRecords.entrySet()) {
+                final long preparedId = prepared.getKey();
+                if (abortedIds.contains(preparedId)) {
+                    resolvedIds.add(preparedId);
+                } else if (preparedId < firstPreparedIdOfSnapshotRun || committedIds.contains(preparedId)) {
+                    final ByteBuffer payload = ByteBuffer.wrap(prepared.getValue()).position(Long.BYTES);
+                    meetingVisitor.visit(payload.get(), payload);
+                    resolvedIds.add(preparedId);
+                } else {
+                    pendingMeetingRecords.add(prepared.getValue());
+                }
+            }
+
+            final MeetingColumns merged = logMeetings.mergeInto(previous);
+            final Path snapshotFile = snapshotFile();
+            final Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + TEMPORARY_SUFFIX);
+            Snapshot.write(temporaryFile, lastSealedSegment, nextSnapshotPreparedId, snapshotPersons, snapshotGuests, merged.epochHours, merged.size,
+                    merged.attendeeOffsets, merged.attendeeIds, recurringMeetingRecords, timedMeetingRecords, pendingMeetingRecords);
+            try {
+                Files.move(temporaryFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                forceDirectory();
+                snapshot = Snapshot.map(snapshotFile);
+                for (long segment = coveredSegment + 1; segment <= lastSealedSegment; segment++) {
+                    Files.deleteIfExists(segmentFile(segment));
+                }
+            } catch (IOException e) {
+                throw new PersistenceException(snapshotFile, e);
+            }
+            synchronized (this) {
+                committedPreparedIds.removeAll(resolvedIds);
+                abortedPreparedIds.removeAll(resolvedIds);
+            }
+        }
+    }
+
+    private void syncIfNoDurabilityWindow() {
+        if (flusher == null) {
+            sync();
+        }
+    }
+
+    private void checkFlushFailure() {
+        if (flushFailure != null) {
+            throw new PersistenceException(file, flushFailure);
+        }
+    }
+
+    private void addPerson(final Person person) {
+        personOrdinals.put(person.email(), persons.size());
+        persons.add(person);
+    }
+
+    private void addGuest(final String email) {
+        guestOrdinals.put(email, guests.size());
+        guests.add(email);
+    }
+
+    private Path segmentFile(final long segment) {
+        return file.resolveSibling(String.format("%s.%08d", file.getFileName(), segment));
+    }
+
+    private Path snapshotFile() {
+        return file.resolveSibling(file.getFileName() + SNAPSHOT_SUFFIX);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        final String prefix = file.getFileName() + ".";
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.length() > prefix.length()
+                            && name.substring(prefix.length()).chars().allMatch(Character::isDigit))
+                    .map(name -> Long.parseLong(name.substring(prefix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void forceDirectory() {
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            // not every platform allows opening a directory, the entries are then persisted by the file system on its own
+        }
+    }
+
+    /**
+     * Replays a whole sealed segment and fails unless every record of it reads back intact.
+     */
+    private static void replaySealed(final Path segmentFile, final RecordVisitor visitor) throws IOException {
+        final long length = Files.size(segmentFile);
+        checkSealedLength(segmentFile, length, replay(segmentFile, length, visitor));
+    }
+
+    private static void checkSealedLength(final Path segmentFile, final long length, final long validLength) throws IOException {
+        if (validLength != length) {
+            throw new IOException("Sealed segment " + segmentFile.getFileName() + " is corrupt at byte " + validLength + " of " + length);
+        }
+    }
+
+    private static long replay(final Path segmentFile, final long length, final RecordVisitor visitor) throws IOException {
+        long position = 0;
+        try (FileChannel readChannel = FileChannel.open(segmentFile, StandardOpenOption.READ);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(readChannel), BUFFER_BYTES))) {
+            final CRC32C replayChecksum = new CRC32C();
+            byte[] payload = new byte[256];
+            ByteBuffer payloadBuffer = ByteBuffer.wrap(payload);
+            while (position + HEADER_BYTES <= length) {
+                final int payloadBytes = input.readInt();
+                final int expectedChecksum = input.readInt();
+                if (payloadBytes <= 0 || position + HEADER_BYTES + payloadBytes > length) {
+                    break;
+                }
+                if (payload.length < payloadBytes) {
+                    payload = new byte[Math.max(payloadBytes, payload.length * 2)];
+                    payloadBuffer = ByteBuffer.wrap(payload);
+                }
+                input.readFully(payload, 0, payloadBytes);
+                replayChecksum.reset();
+                replayChecksum.update(payload, 0, payloadBytes);
+                if ((int) replayChecksum.getValue() != expectedChecksum) {
+                    break;
+                }
+                payloadBuffer.clear().limit(payloadBytes);
+                visitor.visit(payloadBuffer.get(), payloadBuffer);
+                position += HEADER_BYTES + payloadBytes;
+            }
+        } catch (EOFException e) {
+            // torn record at the end of the log
+        }
+        return position;
+    }
+
+    private static Meeting toMeeting(final List<Person> personsByOrdinal, final List<String> guestsByOrdinal, final long epochHour, final int[] attendeeIds) {
+        final String[] emails = new String[attendeeIds.length];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = toEmail(personsByOrdinal, guestsByOrdinal, attendeeIds[i]);
+        }
+        return new Meeting(Set.of(emails), getLocalDateTime(epochHour));
+    }
+
+    /**
+     * Reads the payload of a whole-hour or timed meeting record of the given type.
+     */
+    private static Meeting toMeeting(final List<Person> personsByOrdinal, final List<String> guestsByOrdinal, final byte type, final ByteBuffer payload) {
+        if (type == TIMED_MEETING_RECORD) {
+            return toTimedMeeting(personsByOrdinal, guestsByOrdinal, payload);
+        }
+        final long epochHour = payload.getLong();
+        final int[] attendeeIds = new int[payload.getInt()];
+        payload.asIntBuffer().get(attendeeIds);
+        return toMeeting(personsByOrdinal, guestsByOrdinal, epochHour, attendeeIds);
+    }
+
+    private static Meeting toTimedMeeting(final List<Person> personsByOrdinal, final List<String> guestsByOrdinal, final ByteBuffer payload) {
+        final LocalDateTime startTime = getLocalDateTimeOfEpochMinute(payload.getLong());
+        final int durationMinutes = payload.getInt();
+        final String[] emails = new String[payload.getInt()];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = toEmail(personsByOrdinal, guestsByOrdinal, payload.getInt());
+        }
+        return new Meeting(Set.of(emails), startTime, startTime.plusMinutes(durationMinutes));
+    }
+
+    private static RecurringMeeting toRecurringMeeting(final List<Person> personsByOrdinal, final List<String> guestsByOrdinal, final ByteBuffer payload) {
+        final long epochHour = payload.getLong();
+        final Frequency frequency = Frequency.values()[payload.get()];
+        final int interval = payload.getInt();
+        final long untilEpochDay = payload.getLong();
+        final int count = payload.getInt();
+        final String[] emails = new String[payload.getInt()];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = toEmail(personsByOrdinal, guestsByOrdinal, payload.getInt());
+        }
+        final LocalDate until = untilEpochDay == NO_UNTIL_DATE ? null : LocalDate.ofEpochDay(untilEpochDay);
+        return new RecurringMeeting(Set.of(emails), getLocalDateTime(epochHour), new Recurrence(frequency, interval, until, count));
+    }
+
+    private static String toEmail(final List<Person> personsByOrdinal, final List<String> guestsByOrdinal, final int ordinal) {
+        return ordinal >= 0 ? personsByOrdinal.get(ordinal).email() : guestsByOrdinal.get(-1 - ordinal);
+    }
+
+    private static Person toPerson(final ByteBuffer payload) {
+        return new Person(readString(payload), readString(payload), ZoneId.of(readString(payload)));
+    }
+
+    private static byte[] remainingBytes(final ByteBuffer payload) {
+        final byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return bytes;
+    }
+
+    private static String readString(final ByteBuffer payload) {
+        final byte[] bytes = new byte[payload.getInt()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void awaitTermination(final ExecutorService executor, final long timeoutMillis) {
+        try {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ThreadFactory daemonThreads(final String namePrefix) {
+        return runnable -> {
+            final Thread thread = new Thread(runnable, namePrefix + file.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private interface RecordVisitor {
+        void visit(byte type, ByteBuffer payload);
+    }
+
+    /**
+     * Growable meeting columns in the snapshot layout.
+     */
+    private static class MeetingColumns {
+        private long[] epochHours = new long[1024];
+        private int[] attendeeOffsets = new int[1025];
+        private int[] attendeeIds = new int[4096];
+        private int size;
+
+        void add(final ByteBuffer meetingPayload) {
+            final long epochHour = meetingPayload.getLong();
+            final int attendeeCount = meetingPayload.getInt();
+            final int offset = startMeeting(epochHour, attendeeCount);
+            meetingPayload.asIntBuffer().get(attendeeIds, offset, attendeeCount);
+        }
+
+        /**
+         * Merges these meetings, sorted by start hour, with the already sorted snapshot meetings; snapshot meetings go first on equal hours.
+         */
+        MeetingColumns mergeInto(final Snapshot previous) {
+            final int[] timeOrder = getTimeOrder(Arrays.copyOf(epochHours, size));
+            final MeetingColumns merged = new MeetingColumns();
+            final int previousCount = previous == null ? 0 : previous.getMeetingCount();
+            int i = 0;
+            int j = 0;
+            while (i < previousCount || j < size) {
+                if (j == size || (i < previousCount && previous.getEpochHour(i) <= epochHours[timeOrder[j]])) {
+                    final int[] ids = previous.getAttendeeIds(i);
+                    final int offset = merged.startMeeting(previous.getEpochHour(i++), ids.length);
+                    System.arraycopy(ids, 0, merged.attendeeIds, offset, ids.length);
+                } else {
+                    final int meeting = timeOrder[j++];
+                    final int attendeeCount = attendeeOffsets[meeting + 1] - attendeeOffsets[meeting];
+                    final int offset = merged.startMeeting(epochHours[meeting], attendeeCount);
+                    System.arraycopy(attendeeIds, attendeeOffsets[meeting], merged.attendeeIds, offset, attendeeCount);
+                }
+            }
+            return merged;
+        }
+
+        private int startMeeting(final long epochHour, final int attendeeCount) {
+            if (size == epochHours.length) {
+                epochHours = Arrays.copyOf(epochHours, size * 2);
+                attendeeOffsets = Arrays.copyOf(attendeeOffsets, size * 2 + 1);
+            }
+            final int offset = attendeeOffsets[size];
+            if (offset + attendeeCount > attendeeIds.length) {
+                attendeeIds = Arrays.copyOf(attendeeIds, Math.max(attendeeIds.length * 2, offset + attendeeCount));
+            }
+            epochHours[size++] = epochHour;
+            attendeeOffsets[size] = offset + attendeeCount;
+            return offset;
+        }
+    }
+
+    private static class LogRecordSet<T> extends AbstractSet<T> {
+        private final List<T> records;
+
+        LogRecordSet(final List<T> records) {
+            this.records = records;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return records.iterator();
+        }
+
+        @Override
+        public int size() {
+            return records.size();
+        }
+    }
+}
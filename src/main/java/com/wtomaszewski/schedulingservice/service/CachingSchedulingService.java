@@ -0,0 +1,205 @@
+package main.java.com.wtomaszewski.schedulingservice.service;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+import main.java.com.wtomaszewski.schedulingservice.cache.CacheStats;
+import main.java.com.wtomaszewski.schedulingservice.cache.ScheduleCache;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+
+/**
+ * Serves repeated getSchedule calls from a {@link ScheduleCache}. Cached schedules are unmodifiable and stay valid until a meeting
+ * or an occurrence of a recurring meeting of one of their attendees is created inside their window; all other operations go straight to the wrapped service.
+ */
+public class CachingSchedulingService implements SchedulingService {
+
+    public static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+
+    private final SchedulingService schedulingService;
+    private final ScheduleCache scheduleCache;
+
+    public CachingSchedulingService(final SchedulingService schedulingService) {
+        this(schedulingService, DEFAULT_CACHE_BYTES);
+    }
+
+    public CachingSchedulingService(final SchedulingService schedulingService, final long maxCacheBytes) {
+        this.schedulingService = schedulingService;
+        this.scheduleCache = new ScheduleCache(maxCacheBytes);
+    }
+
+    @Override
+    public void createPerson(final String name, final String email) {
+        schedulingService.createPerson(name, email);
+    }
+
+    @Override
+    public void createPerson(final String name, final String email, final ZoneId zone) {
+        schedulingService.createPerson(name, email, zone);
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour) {
+        createMeeting(personEmails, date, hour, false);
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts) {
+        schedulingService.createMeeting(personEmails, date, hour, checkConflicts);
+        invalidate(personEmails, getEpochHour(date, hour));
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDateTime startTime, final Duration duration, final boolean checkConflicts) {
+        schedulingService.createMeeting(personEmails, startTime, duration, checkConflicts);
+        invalidate(personEmails, getEpochHour(startTime));
+    }
+
+    @Override
+    public MeetingResult tryCreateMeeting(final Set<String> personEmails, final LocalDate date, final int hour) {
+        final MeetingResult result = schedulingService.tryCreateMeeting(personEmails, date, hour);
+        if (result.isSuccess()) {
+            invalidate(personEmails, getEpochHour(date, hour));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Meeting> bookFirstAvailable(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        final Optional<Meeting> meeting = schedulingService.bookFirstAvailable(personEmails, startDate, startHour, endDate, endHour);
+        meeting.ifPresent(booked -> invalidate(personEmails, getEpochHour(booked.startTime())));
+        return meeting;
+    }
+
+    @Override
+    public List<Meeting> createMeetings(final Collection<MeetingRequest> meetingRequests) {
+        final List<Meeting> meetings = schedulingService.createMeetings(meetingRequests);
+        for (Meeting meeting : meetings) {
+            invalidate(meeting.persons(), getEpochHour(meeting.startTime()));
+        }
+        return meetings;
+    }
+
+    @Override
+    public void createRecurringMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence, final boolean checkConflicts) {
+        schedulingService.createRecurringMeeting(personEmails, date, hour, recurrence, checkConflicts);
+        final RecurrenceRule rule = RecurrenceRule.of(getEpochHour(date, hour), recurrence);
+        for (String email : personEmails) {
+            scheduleCache.invalidate(email, rule);
+        }
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate date, final int hour) {
+        if (email == null || date == null || hour < 0 || hour > 23) {
+            return schedulingService.getSchedule(email, date, hour);
+        }
+        return scheduleCache.get(email, getEpochHour(date, hour), Long.MAX_VALUE, () -> schedulingService.getSchedule(email, date, hour));
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        if (email == null || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23) {
+            return schedulingService.getSchedule(email, startDate, startHour, endDate, endHour);
+        }
+        return scheduleCache.get(email, getEpochHour(startDate, startHour), getEpochHour(endDate, endHour),
+                () -> schedulingService.getSchedule(email, startDate, startHour, endDate, endHour));
+    }
+
+    public CacheStats getCacheStats() {
+        return scheduleCache.getStats();
+    }
+
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int hour, final LocalDate endDate, final int endHour) {
+        return schedulingService.suggestTimeSlots(personEmails, startDate, hour, endDate, endHour);
+    }
+
+    @Override
+    public List<TimeRange> suggestTimeRanges(final Set<String> personEmails, final LocalDateTime startTime, final LocalDateTime endTime, final Duration minDuration) {
+        return schedulingService.suggestTimeRanges(personEmails, startTime, endTime, minDuration);
+    }
+
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour,
+                                               final SlotConstraints localConstraints) {
+        return schedulingService.suggestTimeSlots(personEmails, startDate, startHour, endDate, endHour, localConstraints);
+    }
+
+    @Override
+    public FreeTimeSlots findFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Stream<Meeting> streamSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.streamSchedule(email, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Page<Meeting> getSchedulePage(final String email, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        return schedulingService.getSchedulePage(email, cursor, endDate, endHour, limit);
+    }
+
+    @Override
+    public Stream<LocalDateTime> streamFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.streamFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Page<LocalDateTime> getFreeTimeSlotPage(final Set<String> personEmails, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        return schedulingService.getFreeTimeSlotPage(personEmails, cursor, endDate, endHour, limit);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count) {
+        return schedulingService.findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count,
+                                                    final SlotConstraints constraints) {
+        return schedulingService.findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count, constraints);
+    }
+
+    @Override
+    public MeetingSubscription subscribe(final Set<String> personEmails, final TimeRange window) {
+        return schedulingService.subscribe(personEmails, window);
+    }
+
+    @Override
+    public Set<Meeting> getMeetings(final LocalDate date, final int hour) {
+        return schedulingService.getMeetings(date, hour);
+    }
+
+    @Override
+    public Map<String, Person> getPersonsMap() {
+        return schedulingService.getPersonsMap();
+    }
+
+    private void invalidate(final Set<String> personEmails, final long epochHour) {
+        for (String email : personEmails) {
+            scheduleCache.invalidate(email, epochHour);
+        }
+    }
+}
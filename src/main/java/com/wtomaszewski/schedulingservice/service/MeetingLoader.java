@@ -0,0 +1,162 @@
+package main.java.com.wtomaszewski.schedulingservice.service;
+
+import main.java.com.wtomaszewski.schedulingservice.index.AttendeeSets;
+import main.java.com.wtomaszewski.schedulingservice.index.MeetingRecord;
+import main.java.com.wtomaszewski.schedulingservice.index.MeetingTimeline;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonEntry;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonIndex;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getAttendeesOrGuests;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochMinute;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.isWholeHour;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.withoutGuests;
+
+/**
+ * Bulk loads meetings read from a repository cursor into the indexes of a service which is not published yet, after all persons
+ * and stored guests (see SchedulingShard) are registered; an attendee who is neither fails the load with PersonNotExistException.
+ * The cursor is read on the calling thread in rounds of one LOAD_CHUNK per worker of the pool. Each worker resolves the attendees
+ * of its chunk into a partial index of its own, so only one round of Meeting objects is on the heap at a time.
+ * The partial indexes are merged at the end, every person by a single worker, so reservations and calendars keep a single writer.
+ */
+final class MeetingLoader {
+
+    static final int LOAD_CHUNK = 1 << 14;
+
+    private final PersonIndex personIndex;
+    private final AttendeeSets attendeeSets;
+    private final MeetingTimeline meetingTimeline;
+    private final ForkJoinPool pool;
+    private final PartialIndex[] partialIndexes;
+
+    MeetingLoader(final PersonIndex personIndex, final AttendeeSets attendeeSets, final MeetingTimeline meetingTimeline, final ForkJoinPool pool) {
+        this.personIndex = personIndex;
+        this.attendeeSets = attendeeSets;
+        this.meetingTimeline = meetingTimeline;
+        this.pool = pool;
+        this.partialIndexes = new PartialIndex[pool.getParallelism()];
+        for (int i = 0; i < partialIndexes.length; i++) {
+            partialIndexes[i] = new PartialIndex(partialIndexes.length);
+        }
+    }
+
+    void load(final Spliterator<Meeting> meetings) {
+        final List<List<Meeting>> round = new ArrayList<>(partialIndexes.length);
+        boolean exhausted = false;
+        while (!exhausted) {
+            round.clear();
+            while (round.size() < partialIndexes.length && !exhausted) {
+                final List<Meeting> chunk = readChunk(meetings);
+                exhausted = chunk.size() < LOAD_CHUNK;
+                round.add(chunk);
+            }
+            forEachWorker(round.size(), worker -> partialIndexes[worker].add(round.get(worker)));
+        }
+        forEachWorker(partialIndexes.length, this::merge);
+    }
+
+    private static List<Meeting> readChunk(final Spliterator<Meeting> meetings) {
+        final List<Meeting> chunk = new ArrayList<>(LOAD_CHUNK);
+        boolean advanced = true;
+        while (advanced && chunk.size() < LOAD_CHUNK) {
+            advanced = meetings.tryAdvance(chunk::add);
+        }
+        return chunk;
+    }
+
+    private void forEachWorker(final int workers, final IntConsumer work) {
+        if (workers == 1) {
+            work.accept(0);
+            return;
+        }
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            final int worker = i;
+            tasks.add(pool.submit(() -> work.accept(worker)));
+        }
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    /**
+     * Adds the meetings of worker to the timeline and applies the meetings of the persons in bucket worker from all partial indexes.
+     */
+    private void merge(final int worker) {
+        partialIndexes[worker].addToTimeline();
+        final Map<PersonEntry, List<MeetingRecord>> meetingsByAttendee = new IdentityHashMap<>();
+        for (PartialIndex partialIndex : partialIndexes) {
+            partialIndex.meetingsByAttendee.get(worker).forEach((attendee, meetings) ->
+                    meetingsByAttendee.computeIfAbsent(attendee, key -> new ArrayList<>()).addAll(meetings));
+        }
+        for (Map.Entry<PersonEntry, List<MeetingRecord>> attendeeMeetings : meetingsByAttendee.entrySet()) {
+            final PersonEntry attendee = attendeeMeetings.getKey();
+            final List<MeetingRecord> meetings = attendeeMeetings.getValue();
+            meetings.sort(Comparator.comparingLong(MeetingRecord::startMinute));
+            for (MeetingRecord meeting : meetings) {
+                if (meeting.isWholeHour()) {
+                    attendee.reservations().reserve(meeting.epochHour());
+                } else {
+                    attendee.reservations().reserve(meeting.startMinute(), meeting.endMinute());
+                }
+            }
+            attendee.calendar().addAll(meetings);
+        }
+    }
+
+    /**
+     * Meetings resolved by one worker, and for every merge bucket, their attendees in that bucket (id modulo the number of buckets).
+     */
+    private final class PartialIndex {
+
+        private final List<MeetingRecord> meetings;
+        private final List<Map<PersonEntry, List<MeetingRecord>>> meetingsByAttendee;
+
+        PartialIndex(final int buckets) {
+            this.meetings = new ArrayList<>();
+            this.meetingsByAttendee = new ArrayList<>(buckets);
+            for (int i = 0; i < buckets; i++) {
+                meetingsByAttendee.add(new IdentityHashMap<>());
+            }
+        }
+
+        void add(final List<Meeting> chunk) {
+            for (Meeting meeting : chunk) {
+                final PersonEntry[] attendees = getAttendeesOrGuests(personIndex, meeting.persons());
+                final long startMinute = getEpochMinute(meeting.startTime());
+                final long epochHour = Math.floorDiv(startMinute, MeetingRecord.HOUR_MINUTES);
+                final MeetingRecord record = isWholeHour(meeting)
+                        ? new MeetingRecord(epochHour, attendeeSets.intern(attendees))
+                        : new MeetingRecord(epochHour, Math.floorMod(startMinute, MeetingRecord.HOUR_MINUTES),
+                                (int) (getEpochMinute(meeting.endTime()) - startMinute), attendeeSets.intern(attendees));
+                meetings.add(record);
+                for (PersonEntry attendee : withoutGuests(attendees)) {
+                    meetingsByAttendee.get(attendee.id() % meetingsByAttendee.size()).computeIfAbsent(attendee, key -> new ArrayList<>()).add(record);
+                }
+            }
+        }
+
+        void addToTimeline() {
+            meetings.sort(Comparator.comparingLong(MeetingRecord::epochHour));
+            int from = 0;
+            while (from < meetings.size()) {
+                final long epochHour = meetings.get(from).epochHour();
+                int to = from + 1;
+                while (to < meetings.size() && meetings.get(to).epochHour() == epochHour) {
+                    to++;
+                }
+                meetingTimeline.add(epochHour, meetings.subList(from, to).toArray(new MeetingRecord[0]));
+                from = to;
+            }
+            meetings.clear();
+        }
+    }
+}
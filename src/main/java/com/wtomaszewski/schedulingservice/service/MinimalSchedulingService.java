@@ -1,54 +1,196 @@
 package main.java.com.wtomaszewski.schedulingservice.service;
 
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlotScanner;
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.availability.HeapReservationStore;
+import main.java.com.wtomaszewski.schedulingservice.availability.ParallelOccupancy;
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap;
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationStore;
+import main.java.com.wtomaszewski.schedulingservice.availability.ZoneOffsetTable;
 import main.java.com.wtomaszewski.schedulingservice.exception.DataInitializationException;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingFeed;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
+import main.java.com.wtomaszewski.schedulingservice.index.AttendeeSets;
+import main.java.com.wtomaszewski.schedulingservice.index.MeetingRecord;
+import main.java.com.wtomaszewski.schedulingservice.index.MeetingSeries;
+import main.java.com.wtomaszewski.schedulingservice.index.MeetingTimeline;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonEntry;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonIndex;
+import main.java.com.wtomaszewski.schedulingservice.index.WeekMeetings;
+import main.java.com.wtomaszewski.schedulingservice.metrics.Operation;
+import main.java.com.wtomaszewski.schedulingservice.metrics.SchedulingMetrics;
 import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.RecurringMeeting;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
 import main.java.com.wtomaszewski.schedulingservice.model.Person;
 import main.java.com.wtomaszewski.schedulingservice.repository.MeetingRepository;
 import main.java.com.wtomaszewski.schedulingservice.repository.PersonRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.Snapshot;
+import main.java.com.wtomaszewski.schedulingservice.repository.SnapshotRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.SnapshotRepository.RecoveryState;
+import main.java.com.wtomaszewski.schedulingservice.util.StripedLocks;
 import org.junit.platform.commons.util.StringUtils;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.checkPersonsAndMeetingConflicts;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.checkMeetingConflicts;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getAttendees;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getAttendeesOrGuests;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochMinute;
 import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getLocalDateTime;
-import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.updateMeetingMap;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getLocalDateTimeOfEpochMinute;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getTimeOrder;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.resolveAttendees;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.toMeeting;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.toPage;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.updatePersonMeetingsMap;
 import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.updateReservedTimeslots;
 import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.validateInput;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.validateMeetingResult;
 import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.validatePerson;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.withoutGuests;
 
 public class MinimalSchedulingService implements SchedulingService {
 
     public static final String INVALID_INPUT_ERROR = "Invalid input parameters";
+    public static final int DEFAULT_LOCK_STRIPES = 256;
+    public static final Period DEFAULT_ARCHIVE_HORIZON = Period.ofWeeks(4);
+    public static final Duration ARCHIVAL_INTERVAL = Duration.ofHours(1);
+    public static final Duration MAX_MEETING_DURATION = Duration.ofDays(1);
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 1 << 18;
+    private static final int SNAPSHOT_LOAD_CHUNK = 1 << 16;
 
-    private final Map<String, Person> personsMap;
-    private final TreeMap<LocalDateTime, Set<Meeting>> meetingsSortedByTimeSlotMap;
-    private final Map<String, Set<LocalDateTime>> reservedPersonTimeSlotsMap;
+    private final PersonIndex personIndex;
+    private final MeetingTimeline meetingTimeline;
+    private final AttendeeSets attendeeSets;
+    private final List<MeetingSeries> meetingSeries;
+    private final StripedLocks personLocks;
+    private final PersonRepository personRepository;
+    private final MeetingRepository meetingRepository;
+    private final Clock clock;
+    private final Period archiveHorizon;
+    private final SchedulingMetrics metrics;
+    private final ForkJoinPool slotSearchPool;
+    private final long parallelThreshold;
+    private final Map<ZoneId, ZoneOffsetTable> zoneOffsetTables;
+    private final MeetingFeed meetingFeed;
+    private volatile long nextArchivalMillis;
 
     public MinimalSchedulingService(final PersonRepository personRepository, final MeetingRepository meetingRepository) {
-        this.personsMap = new HashMap<>();
-        this.meetingsSortedByTimeSlotMap = new TreeMap<>();
-        this.reservedPersonTimeSlotsMap = new HashMap<>();
+        this(personRepository, meetingRepository, Clock.systemDefaultZone(), DEFAULT_ARCHIVE_HORIZON);
+    }
+
+    /**
+     * Meetings in weeks entirely before today minus archiveHorizon are kept in compact read-only form, checked at most once per ARCHIVAL_INTERVAL.
+     */
+    public MinimalSchedulingService(final PersonRepository personRepository, final MeetingRepository meetingRepository,
+                                    final Clock clock, final Period archiveHorizon) {
+        this(personRepository, meetingRepository, clock, archiveHorizon, null);
+    }
+
+    /**
+     * Reports what is only known inside the service, like meetings scanned per getSchedule, to the given metrics (may be null).
+     */
+    public MinimalSchedulingService(final PersonRepository personRepository, final MeetingRepository meetingRepository,
+                                    final Clock clock, final Period archiveHorizon, final SchedulingMetrics metrics) {
+        this(personRepository, meetingRepository, clock, archiveHorizon, metrics, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Free time slot searches over at least parallelThreshold person-hours (attendees times hours of the range) build the occupancy
+     * in chunks on slotSearchPool, smaller ones and all of them on a single-threaded pool stay on the calling thread;
+     * Long.MAX_VALUE keeps all of them sequential. Stored meetings are loaded at startup by one worker per thread of slotSearchPool.
+     */
+    public MinimalSchedulingService(final PersonRepository personRepository, final MeetingRepository meetingRepository,
+                                    final Clock clock, final Period archiveHorizon, final SchedulingMetrics metrics,
+                                    final ForkJoinPool slotSearchPool, final long parallelThreshold) {
+        this(personRepository, meetingRepository, clock, archiveHorizon, metrics, slotSearchPool, parallelThreshold, id -> new HeapReservationStore());
+    }
+
+    /**
+     * Keeps the hour reservations of each person in the store created for its id, f.e. off-heap with MappedReservationFile::store.
+     */
+    public MinimalSchedulingService(final PersonRepository personRepository, final MeetingRepository meetingRepository,
+                                    final Clock clock, final Period archiveHorizon, final SchedulingMetrics metrics,
+                                    final ForkJoinPool slotSearchPool, final long parallelThreshold,
+                                    final IntFunction<ReservationStore> reservationStores) {
+        this.personRepository = personRepository;
+        this.meetingRepository = meetingRepository;
+        this.clock = clock;
+        this.archiveHorizon = archiveHorizon;
+        this.metrics = metrics;
+        this.slotSearchPool = slotSearchPool;
+        this.parallelThreshold = parallelThreshold;
+        this.zoneOffsetTables = new ConcurrentHashMap<>();
+        this.meetingFeed = new MeetingFeed();
+        this.personIndex = new PersonIndex(reservationStores);
+        this.meetingTimeline = new MeetingTimeline();
+        this.attendeeSets = new AttendeeSets();
+        this.meetingSeries = new CopyOnWriteArrayList<>();
+        this.personLocks = new StripedLocks(DEFAULT_LOCK_STRIPES);
         try {
-            initializePersons(personRepository.getPersons());
-            initializeMeetings(meetingRepository.getMeetings());
+            if (meetingRepository instanceof SnapshotRepository snapshotRepository) {
+                initialize(snapshotRepository.loadSnapshot());
+            } else {
+                initializePersons(personRepository.personCursor());
+                initializeGuests(personRepository.getGuests());
+                initializeMeetings(meetingRepository.meetingCursor());
+                initializeRecurringMeetings(meetingRepository.getRecurringMeetings());
+            }
         } catch (Exception e) {
             throw new DataInitializationException(e);
         }
+        archiveIfDue();
     }
 
     @Override
     public void createPerson(final String name, final String email) {
-        validatePerson(personsMap, email);
-        personsMap.put(email, new Person(name, email));
+        createPerson(name, email, ZoneOffset.UTC);
+    }
+
+    @Override
+    public void createPerson(final String name, final String email, final ZoneId zone) {
+        validateInput(zone == null, INVALID_INPUT_ERROR);
+        validatePerson(personIndex.register(new Person(name, email, zone), personRepository::savePerson), email);
     }
 
     @Override
@@ -59,79 +201,714 @@ public class MinimalSchedulingService implements SchedulingService {
     @Override
     public void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts) {
         validateInput(personEmails == null || date == null || hour < 0 || hour > 23, INVALID_INPUT_ERROR);
-        final LocalDateTime startTime = getLocalDateTime(date, hour);
-        checkPersonsAndMeetingConflicts(personsMap, reservedPersonTimeSlotsMap, personEmails, checkConflicts, startTime);
-        updateReservedTimeslots(reservedPersonTimeSlotsMap, personEmails, startTime);
-        updateMeetingMap(meetingsSortedByTimeSlotMap, personEmails, startTime);
+        validateMeetingResult(tryCreateMeeting(personEmails, date, hour, checkConflicts));
     }
 
+    /**
+     * Creates a conflict-checked meeting, or reports every busy attendee and every unknown email without creating it and without throwing.
+     */
     @Override
-    public Set<Meeting> getSchedule(final String email, final LocalDate date, final int hour) {
-        validateInput(StringUtils.isBlank(email) || date == null || hour < 0 || hour > 23, INVALID_INPUT_ERROR);
-        final LocalDateTime startTime = getLocalDateTime(date, hour);
-        final Set<Meeting> schedule = new TreeSet<>();
+    public MeetingResult tryCreateMeeting(final Set<String> personEmails, final LocalDate date, final int hour) {
+        validateInput(personEmails == null || date == null || hour < 0 || hour > 23, INVALID_INPUT_ERROR);
+        return tryCreateMeeting(personEmails, date, hour, true);
+    }
 
-        SortedMap<LocalDateTime, Set<Meeting>> subMap = meetingsSortedByTimeSlotMap.tailMap(startTime);
+    private MeetingResult tryCreateMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts) {
+        final long epochHour = getEpochHour(date, hour);
+        final Meeting meeting = new Meeting(personEmails, getLocalDateTime(date, hour));
+        final int[] stripes = personLocks.stripesOf(personEmails);
+        personLocks.lock(stripes);
+        try {
+            final PersonEntry[] attendees = new PersonEntry[personEmails.size()];
+            final MeetingResult result = resolveAttendees(personIndex, personEmails, attendees, epochHour * 60, (epochHour + 1) * 60, checkConflicts);
+            if (!result.isSuccess()) {
+                return result;
+            }
+            meetingRepository.saveMeeting(meeting);
+            applyMeeting(attendees, epochHour);
+        } finally {
+            personLocks.unlock(stripes);
+        }
+        meetingFeed.publish(meeting);
+        archiveIfDue();
+        return MeetingResult.SUCCESS;
+    }
 
-        for (Map.Entry<LocalDateTime, Set<Meeting>> entry : subMap.entrySet()) {
-            for (Meeting meeting : entry.getValue()) {
-                if (meeting.persons().contains(email)) {
-                    schedule.add(meeting);
+    /**
+     * Books a meeting of all given persons at the earliest hour of [start, end) free for every one of them, empty when there is none.
+     * The hour is searched and reserved under the locks of the attendees, so no other meeting can take it in between.
+     */
+    @Override
+    public Optional<Meeting> bookFirstAvailable(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        validateInput(personEmails == null || personEmails.isEmpty() || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23,
+                INVALID_INPUT_ERROR);
+        final long fromHour = getEpochHour(startDate, startHour);
+        final long toHour = getEpochHour(endDate, endHour);
+        final Meeting meeting;
+        validateInput(toHour < fromHour, INVALID_INPUT_ERROR);
+        final int[] stripes = personLocks.stripesOf(personEmails);
+        personLocks.lock(stripes);
+        try {
+            final PersonEntry[] attendees = getAttendees(personIndex, personEmails);
+            final ReservationBitmap[] reservations = new ReservationBitmap[attendees.length];
+            for (int i = 0; i < attendees.length; i++) {
+                reservations[i] = attendees[i].reservations();
+            }
+            final FreeTimeSlotScanner freeHours = new FreeTimeSlotScanner(reservations, fromHour, toHour);
+            if (!freeHours.hasNext()) {
+                return Optional.empty();
+            }
+            final long epochHour = freeHours.nextLong();
+            meeting = new Meeting(personEmails, getLocalDateTime(epochHour));
+            meetingRepository.saveMeeting(meeting);
+            applyMeeting(attendees, epochHour);
+        } finally {
+            personLocks.unlock(stripes);
+        }
+        meetingFeed.publish(meeting);
+        archiveIfDue();
+        return Optional.of(meeting);
+    }
+
+    /**
+     * Creates a meeting of any whole number of minutes up to MAX_MEETING_DURATION; one whole hour starting on the hour
+     * is stored like a meeting created by hour.
+     */
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDateTime startTime, final Duration duration, final boolean checkConflicts) {
+        validateInput(personEmails == null || startTime == null || startTime.getSecond() != 0 || startTime.getNano() != 0 || !isValid(duration), INVALID_INPUT_ERROR);
+        if (startTime.getMinute() == 0 && duration.equals(Duration.ofHours(1))) {
+            createMeeting(personEmails, startTime.toLocalDate(), startTime.getHour(), checkConflicts);
+            return;
+        }
+        final long startMinute = getEpochMinute(startTime);
+        final long endMinute = startMinute + duration.toMinutes();
+        final Meeting meeting = new Meeting(personEmails, startTime, startTime.plus(duration));
+        final int[] stripes = personLocks.stripesOf(personEmails);
+        personLocks.lock(stripes);
+        try {
+            final PersonEntry[] attendees = new PersonEntry[personEmails.size()];
+            validateMeetingResult(resolveAttendees(personIndex, personEmails, attendees, startMinute, endMinute, checkConflicts));
+            meetingRepository.saveMeeting(meeting);
+            applyTimedMeeting(attendees, startMinute, endMinute);
+        } finally {
+            personLocks.unlock(stripes);
+        }
+        meetingFeed.publish(meeting);
+        archiveIfDue();
+    }
+
+    @Override
+    public List<Meeting> createMeetings(final Collection<MeetingRequest> meetingRequests) {
+        final List<Meeting> meetings = createMeetingBatch(meetingRequests);
+        meetingFeed.publishAll(meetings);
+        archiveIfDue();
+        return meetings;
+    }
+
+    private List<Meeting> createMeetingBatch(final Collection<MeetingRequest> meetingRequests) {
+        validateInput(meetingRequests == null, INVALID_INPUT_ERROR);
+        final MeetingRequest[] requests = meetingRequests.toArray(new MeetingRequest[0]);
+        final long[] epochHours = new long[requests.length];
+        final Set<String> allPersonEmails = new HashSet<>();
+        for (int i = 0; i < requests.length; i++) {
+            final MeetingRequest request = requests[i];
+            validateInput(request == null || request.personEmails() == null || request.date() == null || request.hour() < 0 || request.hour() > 23, INVALID_INPUT_ERROR);
+            epochHours[i] = getEpochHour(request.date(), request.hour());
+            allPersonEmails.addAll(request.personEmails());
+        }
+
+        final int[] stripes = personLocks.stripesOf(allPersonEmails);
+        personLocks.lock(stripes);
+        try {
+            final PersonEntry[][] attendees = new PersonEntry[requests.length][];
+            final Map<Integer, ReservationBitmap> batchReservedTimeSlots = new HashMap<>();
+            final int lastCheckedRequest = getLastCheckedRequest(requests);
+            for (int i = 0; i < requests.length; i++) {
+                attendees[i] = getAttendees(personIndex, requests[i].personEmails());
+                if (requests[i].checkConflicts()) {
+                    checkMeetingConflicts(attendees[i], epochHours[i]);
+                    checkMeetingConflicts(batchReservedTimeSlots, attendees[i], epochHours[i]);
+                }
+                if (i < lastCheckedRequest) {
+                    updateReservedTimeslots(batchReservedTimeSlots, attendees[i], epochHours[i]);
                 }
             }
+            final List<Meeting> meetings = new ArrayList<>(requests.length);
+            for (MeetingRequest request : requests) {
+                meetings.add(new Meeting(request.personEmails(), getLocalDateTime(request.date(), request.hour())));
+            }
+            meetingRepository.saveMeetings(meetings);
+            applyMeetings(attendees, epochHours);
+            return meetings;
+        } finally {
+            personLocks.unlock(stripes);
         }
+    }
 
-        return schedule;
+    /**
+     * Creates every valid meeting of the batch as if they were created one by one in order, with a single repository write,
+     * and returns the failure of each rejected request (null for created meetings) instead of rejecting the whole batch.
+     * Takes no locks, so the caller has to be the only thread mutating this service.
+     */
+    RuntimeException[] createMeetingsIndividually(final List<MeetingRequest> meetingRequests) {
+        final RuntimeException[] failures = new RuntimeException[meetingRequests.size()];
+        final List<PersonEntry[]> attendees = new ArrayList<>(meetingRequests.size());
+        final List<Meeting> meetings = new ArrayList<>(meetingRequests.size());
+        final long[] epochHours = new long[meetingRequests.size()];
+        final Map<Integer, ReservationBitmap> batchReservedTimeSlots = new HashMap<>();
+        for (int i = 0; i < meetingRequests.size(); i++) {
+            final MeetingRequest request = meetingRequests.get(i);
+            try {
+                validateInput(request == null || request.personEmails() == null || request.date() == null || request.hour() < 0 || request.hour() > 23, INVALID_INPUT_ERROR);
+                final long epochHour = getEpochHour(request.date(), request.hour());
+                final PersonEntry[] requestAttendees = getAttendees(personIndex, request.personEmails());
+                if (request.checkConflicts()) {
+                    checkMeetingConflicts(requestAttendees, epochHour);
+                    checkMeetingConflicts(batchReservedTimeSlots, requestAttendees, epochHour);
+                }
+                updateReservedTimeslots(batchReservedTimeSlots, requestAttendees, epochHour);
+                epochHours[attendees.size()] = epochHour;
+                attendees.add(requestAttendees);
+                meetings.add(new Meeting(request.personEmails(), getLocalDateTime(request.date(), request.hour())));
+            } catch (RuntimeException e) {
+                failures[i] = e;
+            }
+        }
+        if (!meetings.isEmpty()) {
+            meetingRepository.saveMeetings(meetings);
+            applyMeetings(attendees.toArray(new PersonEntry[0][]), Arrays.copyOf(epochHours, attendees.size()));
+            meetingFeed.publishAll(meetings);
+        }
+        archiveIfDue();
+        return failures;
+    }
+
+    /**
+     * Creates a meeting series kept as a single rule; with checkConflicts no occurrence may overlap a meeting of any attendee.
+     */
+    @Override
+    public void createRecurringMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence, final boolean checkConflicts) {
+        validateInput(personEmails == null || date == null || hour < 0 || hour > 23 || recurrence == null || !recurrence.isValid(), INVALID_INPUT_ERROR);
+        final RecurrenceRule rule = RecurrenceRule.of(getEpochHour(date, hour), recurrence);
+        validateInput(rule.getCount() == 0, INVALID_INPUT_ERROR);
+        final int[] stripes = personLocks.stripesOf(personEmails);
+        personLocks.lock(stripes);
+        try {
+            final PersonEntry[] attendees = getAttendees(personIndex, personEmails);
+            if (checkConflicts) {
+                checkMeetingConflicts(attendees, rule);
+            }
+            meetingRepository.saveRecurringMeeting(new RecurringMeeting(personEmails, getLocalDateTime(date, hour), recurrence));
+            applyMeetingSeries(attendees, rule);
+        } finally {
+            personLocks.unlock(stripes);
+        }
+    }
+
+    /**
+     * Phase one of a meeting of [startMinute, endMinute) counted from the epoch which a coordinator of meetings spanning several services
+     * (see SchedulingShard) has already checked, so it is not checked again: stores it as prepared without applying it.
+     * Attendees who are not persons here belong to other services and are kept as guests: by email only, without reservations or a schedule here.
+     * One whole hour is stored like a meeting created by hour.
+     */
+    public PreparedMeeting prepareMeeting(final Set<String> personEmails, final long startMinute, final long endMinute) {
+        validateInput(personEmails == null || personEmails.isEmpty() || endMinute <= startMinute || endMinute - startMinute > MAX_MEETING_DURATION.toMinutes(),
+                INVALID_INPUT_ERROR);
+        final LocalDateTime startTime = getLocalDateTimeOfEpochMinute(startMinute);
+        final Meeting meeting = isWholeHour(startMinute, endMinute)
+                ? new Meeting(personEmails, startTime)
+                : new Meeting(personEmails, startTime, getLocalDateTimeOfEpochMinute(endMinute));
+        final int[] stripes = personLocks.stripesOf(personEmails);
+        personLocks.lock(stripes);
+        try {
+            final PersonEntry[] attendees = getAttendeesRegisteringGuests(personEmails);
+            return new PreparedMeeting(meetingRepository.savePreparedMeeting(meeting), personEmails, attendees, startMinute, endMinute, null);
+        } finally {
+            personLocks.unlock(stripes);
+        }
+    }
+
+    /**
+     * Like prepareMeeting for a meeting series.
+     */
+    public PreparedMeeting prepareRecurringMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence) {
+        validateInput(personEmails == null || personEmails.isEmpty() || date == null || hour < 0 || hour > 23 || recurrence == null || !recurrence.isValid(),
+                INVALID_INPUT_ERROR);
+        final RecurrenceRule rule = RecurrenceRule.of(getEpochHour(date, hour), recurrence);
+        final int[] stripes = personLocks.stripesOf(personEmails);
+        personLocks.lock(stripes);
+        try {
+            final PersonEntry[] attendees = getAttendeesRegisteringGuests(personEmails);
+            final long preparedId = meetingRepository.savePreparedRecurringMeeting(new RecurringMeeting(personEmails, getLocalDateTime(date, hour), recurrence));
+            return new PreparedMeeting(preparedId, personEmails, attendees, 0, 0, rule);
+        } finally {
+            personLocks.unlock(stripes);
+        }
+    }
+
+    /**
+     * Phase two: applies a prepared meeting. It is stored already, so this only changes memory and cannot fail; the coordinator
+     * publishes the meeting to subscribers, this service does not.
+     */
+    public void commitPrepared(final PreparedMeeting meeting) {
+        final int[] stripes = personLocks.stripesOf(meeting.personEmails);
+        personLocks.lock(stripes);
+        try {
+            if (meeting.rule != null) {
+                applyMeetingSeries(meeting.attendees, meeting.rule);
+            } else if (isWholeHour(meeting.startMinute, meeting.endMinute)) {
+                applyMeeting(meeting.attendees, Math.floorDiv(meeting.startMinute, MeetingRecord.HOUR_MINUTES));
+            } else {
+                applyTimedMeeting(meeting.attendees, meeting.startMinute, meeting.endMinute);
+            }
+            meetingRepository.commitPrepared(meeting.preparedId);
+        } finally {
+            personLocks.unlock(stripes);
+        }
+        archiveIfDue();
+    }
+
+    /**
+     * Drops a prepared meeting from the repository; it was never applied.
+     */
+    public void abortPrepared(final PreparedMeeting meeting) {
+        meetingRepository.abortPrepared(meeting.preparedId);
+    }
+
+    /**
+     * The attendees of personEmails, storing and registering every email which is not a person here as a guest (see PersonIndex.registerGuest).
+     */
+    private PersonEntry[] getAttendeesRegisteringGuests(final Set<String> personEmails) {
+        final PersonEntry[] attendees = new PersonEntry[personEmails.size()];
+        int i = 0;
+        for (String email : personEmails) {
+            final PersonEntry person = personIndex.get(email);
+            if (person != null) {
+                attendees[i++] = person;
+                continue;
+            }
+            if (personIndex.getGuest(email) == null) {
+                personRepository.saveGuest(email);
+            }
+            attendees[i++] = personIndex.registerGuest(email);
+        }
+        return attendees;
+    }
+
+    /**
+     * Failures a conflict-checked meeting of the given persons in [startMinute, endMinute) counted from the epoch would have, without creating it,
+     * for coordinators of meetings spanning several services (see SchedulingShard). Takes no locks, the caller serializes writes itself.
+     */
+    public MeetingResult findConflicts(final Set<String> personEmails, final long startMinute, final long endMinute) {
+        return resolveAttendees(personIndex, personEmails, new PersonEntry[personEmails.size()], startMinute, endMinute, true);
+    }
+
+    /**
+     * Like findConflicts for a single meeting, for every occurrence of a series.
+     */
+    public MeetingResult findConflicts(final Set<String> personEmails, final RecurrenceRule rule) {
+        return resolveAttendees(personIndex, personEmails, new PersonEntry[personEmails.size()], rule);
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate date, final int hour) {
+        validateInput(StringUtils.isBlank(email) || date == null || hour < 0 || hour > 23, INVALID_INPUT_ERROR);
+        return getSchedule(email, getEpochHour(date, hour), Long.MAX_VALUE);
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        validateInput(StringUtils.isBlank(email) || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23, INVALID_INPUT_ERROR);
+        final long fromHour = getEpochHour(startDate, startHour);
+        final long toHour = getEpochHour(endDate, endHour);
+        validateInput(toHour < fromHour, INVALID_INPUT_ERROR);
+        return getSchedule(email, fromHour, toHour);
     }
 
     @Override
     public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, int endHour) {
+        return findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour).stream()
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Free ranges of [startTime, endTime) at least minDuration long, common to all given persons. Each person contributes
+     * the reserved ranges of the window rather than a test per candidate slot, the ranges of everyone are then swept once.
+     */
+    @Override
+    public List<TimeRange> suggestTimeRanges(final Set<String> personEmails, final LocalDateTime startTime, final LocalDateTime endTime, final Duration minDuration) {
+        validateInput(personEmails == null || personEmails.isEmpty() || startTime == null || endTime == null || !startTime.isBefore(endTime)
+                || minDuration == null || minDuration.isNegative() || minDuration.isZero(), INVALID_INPUT_ERROR);
+        final long fromMinute = getEpochMinute(startTime);
+        final long toMinute = getEpochMinute(endTime);
+        final List<long[]> reservedRanges = new ArrayList<>();
+        for (String email : personEmails) {
+            final PersonEntry person = personIndex.get(email);
+            if (person != null) {
+                person.reservations().forEachReservedRange(fromMinute, toMinute, (start, end) -> reservedRanges.add(new long[]{start, end}));
+            }
+        }
+        reservedRanges.sort(Comparator.comparingLong(range -> range[0]));
+        final long minMinutes = (minDuration.toSeconds() + 59) / 60;
+        final List<TimeRange> freeRanges = new ArrayList<>();
+        long freeFrom = fromMinute;
+        for (long[] range : reservedRanges) {
+            if (range[0] - freeFrom >= minMinutes) {
+                freeRanges.add(new TimeRange(getLocalDateTimeOfEpochMinute(freeFrom), getLocalDateTimeOfEpochMinute(range[0])));
+            }
+            freeFrom = Math.max(freeFrom, range[1]);
+        }
+        if (toMinute - freeFrom >= minMinutes) {
+            freeRanges.add(new TimeRange(getLocalDateTimeOfEpochMinute(freeFrom), getLocalDateTimeOfEpochMinute(toMinute)));
+        }
+        return freeRanges;
+    }
+
+    @Override
+    public FreeTimeSlots findFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
         validateInput(personEmails.isEmpty() || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23, INVALID_INPUT_ERROR);
-        final Set<LocalDateTime> availableTimeSlots = new TreeSet<>();
-        LocalDateTime startTime = getLocalDateTime(startDate, startHour);
-        LocalDateTime endTime = getLocalDateTime(endDate, endHour);
-
-        final Set<LocalDateTime> reservedSlots = new HashSet<>();
-        for (String person : personEmails) {
-            Set<LocalDateTime> personReservedSlots = reservedPersonTimeSlotsMap.getOrDefault(person, Collections.emptySet());
-            for (LocalDateTime slot : personReservedSlots) {
-                if ((slot.isEqual(startTime) || slot.isAfter(startTime)) && (slot.isEqual(endTime) || slot.isBefore(endTime))) {
-                    reservedSlots.add(slot);
+        final long fromHour = getEpochHour(startDate, startHour);
+        final long toHour = getEpochHour(endDate, endHour);
+        return new FreeTimeSlots(fromHour, toHour, occupancy(personEmails, fromHour, toHour));
+    }
+
+    /**
+     * Free time slots where every attendee is also within the hours allowed by localConstraints in their own time zone.
+     * Offsets come from one ZoneOffsetTable per distinct zone of the attendees, so the zone rules are not consulted per slot.
+     */
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour,
+                                               final SlotConstraints localConstraints) {
+        validateInput(personEmails == null || personEmails.isEmpty() || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23
+                || localConstraints == null || !localConstraints.isValid(), INVALID_INPUT_ERROR);
+        final long fromHour = getEpochHour(startDate, startHour);
+        final long toHour = getEpochHour(endDate, endHour);
+        final long[] occupied = occupancy(personEmails, fromHour, toHour);
+        final Set<ZoneId> zones = new HashSet<>();
+        for (String email : personEmails) {
+            final PersonEntry person = personIndex.get(email);
+            if (person != null && zones.add(person.person().zone())) {
+                zoneOffsetTables.computeIfAbsent(person.person().zone(), ZoneOffsetTable::of).orDisallowedInto(occupied, fromHour, toHour, localConstraints);
+            }
+        }
+        final PrimitiveIterator.OfLong freeHours = new FreeTimeSlots(fromHour, toHour, occupied).epochHours();
+        final Set<LocalDateTime> slots = new TreeSet<>();
+        long previousHour = Long.MIN_VALUE;
+        int runLength = 0;
+        while (freeHours.hasNext()) {
+            final long hour = freeHours.nextLong();
+            runLength = hour == previousHour + 1 ? runLength + 1 : 1;
+            previousHour = hour;
+            if (runLength >= localConstraints.consecutiveHours()) {
+                slots.add(getLocalDateTime(hour - localConstraints.consecutiveHours() + 1));
+            }
+        }
+        return slots;
+    }
+
+    private long[] occupancy(final Set<String> personEmails, final long fromHour, final long toHour) {
+        final long[] occupied = FreeTimeSlots.newOccupancy(fromHour, toHour);
+
+        if (slotSearchPool.getParallelism() > 1 && (double) personEmails.size() * (toHour - fromHour) >= parallelThreshold) {
+            final List<ReservationBitmap> reservations = new ArrayList<>(personEmails.size());
+            for (String email : personEmails) {
+                final PersonEntry person = personIndex.get(email);
+                if (person != null) {
+                    reservations.add(person.reservations());
                 }
             }
+            ParallelOccupancy.orInto(slotSearchPool, reservations, occupied, fromHour, toHour);
+            return occupied;
+        }
+        for (String email : personEmails) {
+            final PersonEntry person = personIndex.get(email);
+            if (person != null) {
+                person.reservations().orInto(occupied, fromHour, toHour);
+            }
         }
+        return occupied;
+    }
+
+    @Override
+    public Stream<Meeting> streamSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        validateInput(StringUtils.isBlank(email) || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23, INVALID_INPUT_ERROR);
+        final long fromHour = getEpochHour(startDate, startHour);
+        final long toHour = getEpochHour(endDate, endHour);
+        validateInput(toHour < fromHour, INVALID_INPUT_ERROR);
+        return streamSchedule(email, fromHour, toHour);
+    }
+
+    @Override
+    public Page<Meeting> getSchedulePage(final String email, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        validateInput(StringUtils.isBlank(email) || !isValid(cursor) || endDate == null || endHour < 0 || endHour > 23 || limit <= 0, INVALID_INPUT_ERROR);
+        final long fromHour = getEpochHour(cursor.startTime());
+        final long toHour = getEpochHour(endDate, endHour);
+        validateInput(toHour < fromHour, INVALID_INPUT_ERROR);
+        final PageCursor start = new PageCursor(getLocalDateTime(fromHour), cursor.skip());
+        return toPage(streamSchedule(email, fromHour, toHour).skip(cursor.skip()), start, limit, Meeting::startTime);
+    }
 
-        while (startTime.isBefore(endTime)) {
-            boolean allAvailable = !reservedSlots.contains(startTime);
-            if (allAvailable) {
-                availableTimeSlots.add(startTime);
+    @Override
+    public Stream<LocalDateTime> streamFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        validateInput(personEmails == null || personEmails.isEmpty() || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23, INVALID_INPUT_ERROR);
+        return streamFreeEpochHours(personEmails, getEpochHour(startDate, startHour), getEpochHour(endDate, endHour))
+                .mapToObj(hour -> getLocalDateTime(hour));
+    }
+
+    @Override
+    public Page<LocalDateTime> getFreeTimeSlotPage(final Set<String> personEmails, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        validateInput(personEmails == null || personEmails.isEmpty() || !isValid(cursor) || endDate == null || endHour < 0 || endHour > 23 || limit <= 0, INVALID_INPUT_ERROR);
+        final long fromHour = getEpochHour(cursor.startTime());
+        final PageCursor start = new PageCursor(getLocalDateTime(fromHour), cursor.skip());
+        final Stream<LocalDateTime> freeTimeSlots = streamFreeEpochHours(personEmails, fromHour, getEpochHour(endDate, endHour))
+                .skip(cursor.skip())
+                .mapToObj(hour -> getLocalDateTime(hour));
+        return toPage(freeTimeSlots, start, limit, Function.identity());
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count) {
+        return findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count, SlotConstraints.NONE);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count,
+                                                    final SlotConstraints constraints) {
+        validateInput(personEmails == null || personEmails.isEmpty() || startDate == null || endDate == null || startHour < 0 || startHour > 23 || endHour < 0 || endHour > 23
+                || count <= 0 || constraints == null || !constraints.isValid(), INVALID_INPUT_ERROR);
+        final PrimitiveIterator.OfLong freeHours = streamFreeEpochHours(personEmails, getEpochHour(startDate, startHour), getEpochHour(endDate, endHour)).iterator();
+        final List<LocalDateTime> slots = new ArrayList<>(count);
+        long previousHour = Long.MIN_VALUE;
+        int runLength = 0;
+        while (slots.size() < count && freeHours.hasNext()) {
+            final long hour = freeHours.nextLong();
+            if (!constraints.allows(hour)) {
+                continue;
+            }
+            runLength = hour == previousHour + 1 ? runLength + 1 : 1;
+            previousHour = hour;
+            if (runLength >= constraints.consecutiveHours()) {
+                slots.add(getLocalDateTime(hour - constraints.consecutiveHours() + 1));
             }
-            startTime = startTime.plusHours(1);
         }
+        return slots;
+    }
 
-        return availableTimeSlots;
+    /**
+     * Pushes every meeting created from now on with any of the given persons, overlapping window unless it is null, to the returned subscription
+     * once the meeting is stored and visible to reads; meetings of series are not published. The subscription has to be closed when no longer read.
+     */
+    @Override
+    public MeetingSubscription subscribe(final Set<String> personEmails, final TimeRange window) {
+        validateInput(personEmails == null || personEmails.isEmpty() || window != null && !window.isValid(), INVALID_INPUT_ERROR);
+        getAttendees(personIndex, personEmails);
+        return meetingFeed.subscribe(personEmails, window, MeetingFeed.DEFAULT_QUEUE_CAPACITY);
     }
 
     @Override
     public Set<Meeting> getMeetings(final LocalDate date, int hour) {
-        final LocalDateTime startTime = getLocalDateTime(date, hour);
-        return meetingsSortedByTimeSlotMap.getOrDefault(startTime, Collections.emptySet());
+        final long epochHour = getEpochHour(date, hour);
+        final MeetingRecord[] meetings = meetingTimeline.get(epochHour);
+        final Set<Meeting> result = new HashSet<>();
+        if (meetings != null) {
+            for (MeetingRecord meeting : meetings) {
+                result.add(toMeeting(personIndex, meeting));
+            }
+        }
+        // every series is tested, which stays cheap as long as series are counted in thousands rather than millions
+        for (MeetingSeries series : meetingSeries) {
+            if (series.rule().occursAt(epochHour)) {
+                result.add(toMeeting(personIndex, new MeetingRecord(epochHour, series.attendeeIds())));
+            }
+        }
+        return result.isEmpty() ? Collections.emptySet() : result;
     }
 
     @Override
     public Map<String, Person> getPersonsMap() {
-        return personsMap;
+        return personIndex.getPersons();
+    }
+
+    private Set<Meeting> getSchedule(final String email, final long fromHour, final long toHour) {
+        final Set<Meeting> schedule = new TreeSet<>();
+        final PersonEntry person = personIndex.get(email);
+        if (person == null) {
+            return schedule;
+        }
+        // Meetings are ordered by start time only, so the schedule keeps the first meeting booked for each start time
+        final long[] lastMinute = {Long.MIN_VALUE};
+        final int[] scanned = {0};
+        person.calendar().forEach(fromHour, toHour, meeting -> {
+            scanned[0]++;
+            if (meeting.startMinute() != lastMinute[0]) {
+                lastMinute[0] = meeting.startMinute();
+                schedule.add(toMeeting(personIndex, meeting));
+            }
+        });
+        if (metrics != null && metrics.isEnabled()) {
+            metrics.get(Operation.GET_SCHEDULE).recordScanned(scanned[0]);
+        }
+        return schedule;
     }
 
-    private void initializePersons(final Set<Person> persons) {
-        for (Person person : persons) {
-            createPerson(person.name(), person.email());
+    private Stream<Meeting> streamSchedule(final String email, final long fromHour, final long toHour) {
+        final PersonEntry person = personIndex.get(email);
+        if (person == null) {
+            return Stream.empty();
         }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(person.calendar().iterator(fromHour, toHour), Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(meeting -> toMeeting(personIndex, meeting));
+    }
+
+    private LongStream streamFreeEpochHours(final Set<String> personEmails, final long fromHour, final long toHour) {
+        final List<ReservationBitmap> reservations = new ArrayList<>(personEmails.size());
+        for (String email : personEmails) {
+            final PersonEntry person = personIndex.get(email);
+            if (person != null) {
+                reservations.add(person.reservations());
+            }
+        }
+        final FreeTimeSlotScanner scanner = new FreeTimeSlotScanner(reservations.toArray(new ReservationBitmap[0]), fromHour, toHour);
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(scanner, Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    private static boolean isValid(final Duration duration) {
+        return duration != null && !duration.isNegative() && !duration.isZero() && duration.toSeconds() % 60 == 0 && duration.getNano() == 0
+                && duration.compareTo(MAX_MEETING_DURATION) <= 0;
+    }
+
+    private static boolean isValid(final PageCursor cursor) {
+        return cursor != null && cursor.startTime() != null && cursor.skip() >= 0;
+    }
+
+    private static boolean isWholeHour(final long startMinute, final long endMinute) {
+        return Math.floorMod(startMinute, MeetingRecord.HOUR_MINUTES) == 0 && endMinute - startMinute == MeetingRecord.HOUR_MINUTES;
+    }
+
+    private static int getLastCheckedRequest(final MeetingRequest[] requests) {
+        for (int i = requests.length - 1; i >= 0; i--) {
+            if (requests[i].checkConflicts()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void applyMeetings(final PersonEntry[][] attendees, final long[] epochHours) {
+        final int[] timeOrder = getTimeOrder(epochHours);
+        final Map<PersonEntry, List<MeetingRecord>> meetingsByAttendee = new IdentityHashMap<>();
+        final List<MeetingRecord> sameHourMeetings = new ArrayList<>();
+        for (int i : timeOrder) {
+            if (!sameHourMeetings.isEmpty() && sameHourMeetings.get(0).epochHour() != epochHours[i]) {
+                meetingTimeline.add(sameHourMeetings.get(0).epochHour(), sameHourMeetings.toArray(new MeetingRecord[0]));
+                sameHourMeetings.clear();
+            }
+            final MeetingRecord meeting = new MeetingRecord(epochHours[i], attendeeSets.intern(attendees[i]));
+            final PersonEntry[] persons = withoutGuests(attendees[i]);
+            updateReservedTimeslots(persons, epochHours[i]);
+            for (PersonEntry attendee : persons) {
+                meetingsByAttendee.computeIfAbsent(attendee, k -> new ArrayList<>()).add(meeting);
+            }
+            sameHourMeetings.add(meeting);
+        }
+        if (!sameHourMeetings.isEmpty()) {
+            meetingTimeline.add(sameHourMeetings.get(0).epochHour(), sameHourMeetings.toArray(new MeetingRecord[0]));
+        }
+        for (Map.Entry<PersonEntry, List<MeetingRecord>> attendeeMeetings : meetingsByAttendee.entrySet()) {
+            attendeeMeetings.getKey().calendar().addAll(attendeeMeetings.getValue());
+        }
+    }
+
+    private void applyMeeting(final PersonEntry[] attendees, final long epochHour) {
+        final MeetingRecord meeting = new MeetingRecord(epochHour, attendeeSets.intern(attendees));
+        final PersonEntry[] persons = withoutGuests(attendees);
+        updateReservedTimeslots(persons, epochHour);
+        updatePersonMeetingsMap(persons, meeting);
+        meetingTimeline.add(epochHour, meeting);
+    }
+
+    private void applyTimedMeeting(final PersonEntry[] attendees, final long startMinute, final long endMinute) {
+        final MeetingRecord meeting = new MeetingRecord(Math.floorDiv(startMinute, MeetingRecord.HOUR_MINUTES), Math.floorMod(startMinute, MeetingRecord.HOUR_MINUTES),
+                (int) (endMinute - startMinute), attendeeSets.intern(attendees));
+        final PersonEntry[] persons = withoutGuests(attendees);
+        for (PersonEntry attendee : persons) {
+            attendee.reservations().reserve(startMinute, endMinute);
+        }
+        updatePersonMeetingsMap(persons, meeting);
+        meetingTimeline.add(meeting.epochHour(), meeting);
+    }
+
+    private void applyMeetingSeries(final PersonEntry[] attendees, final RecurrenceRule rule) {
+        final MeetingSeries series = new MeetingSeries(rule, attendeeSets.intern(attendees));
+        for (PersonEntry attendee : withoutGuests(attendees)) {
+            attendee.reservations().reserve(rule);
+            attendee.calendar().addSeries(series);
+        }
+        meetingSeries.add(series);
+    }
+
+    private void archiveIfDue() {
+        final long now = clock.millis();
+        if (now >= nextArchivalMillis) {
+            nextArchivalMillis = now + ARCHIVAL_INTERVAL.toMillis();
+            meetingTimeline.archiveBefore(WeekMeetings.weekOf(getEpochHour(LocalDate.now(clock).minus(archiveHorizon), 0)));
+        }
+    }
+
+    private void initialize(final RecoveryState recoveryState) {
+        if (recoveryState.snapshot() != null) {
+            loadSnapshot(recoveryState.snapshot());
+        }
+        initializePersons(recoveryState.personsAfterSnapshot().spliterator());
+        initializeGuests(recoveryState.guestsAfterSnapshot());
+        initializeMeetings(recoveryState.meetingsAfterSnapshot().spliterator());
+        initializeRecurringMeetings(recoveryState.recurringMeetings());
+    }
+
+    /**
+     * Bulk loads snapshot meetings without validation or locking; persons are registered in snapshot order,
+     * so their ids match the attendee ids stored in the snapshot. Negative attendee ids are guests, in the order of the snapshot guests.
+     */
+    private void loadSnapshot(final Snapshot snapshot) {
+        initializePersons(snapshot.getPersons().spliterator());
+        final PersonEntry[] guests = snapshot.getGuests().stream().map(personIndex::registerGuest).toArray(PersonEntry[]::new);
+        final int meetingCount = snapshot.getMeetingCount();
+        for (int from = 0; from < meetingCount; from += SNAPSHOT_LOAD_CHUNK) {
+            final int to = Math.min(meetingCount, from + SNAPSHOT_LOAD_CHUNK);
+            final PersonEntry[][] attendees = new PersonEntry[to - from][];
+            final long[] epochHours = new long[to - from];
+            for (int i = from; i < to; i++) {
+                final int[] attendeeIds = snapshot.getAttendeeIds(i);
+                attendees[i - from] = new PersonEntry[attendeeIds.length];
+                for (int j = 0; j < attendeeIds.length; j++) {
+                    attendees[i - from][j] = attendeeIds[j] >= 0 ? personIndex.get(attendeeIds[j]) : guests[-1 - attendeeIds[j]];
+                }
+                epochHours[i - from] = snapshot.getEpochHour(i);
+            }
+            applyMeetings(attendees, epochHours);
+        }
+    }
+
+    /**
+     * Registers persons in cursor order, before any meeting is loaded.
+     */
+    private void initializePersons(final Spliterator<Person> persons) {
+        persons.forEachRemaining(person -> validatePerson(personIndex.register(person, storedPerson -> { }), person.email()));
+    }
+
+    private void initializeGuests(final Collection<String> guests) {
+        guests.forEach(personIndex::registerGuest);
+    }
+
+    private void initializeMeetings(final Spliterator<Meeting> meetings) {
+        new MeetingLoader(personIndex, attendeeSets, meetingTimeline, slotSearchPool).load(meetings);
     }
 
-    private void initializeMeetings(final Set<Meeting> meetings) {
-        for (Meeting meeting : meetings) {
-            createMeeting(meeting.persons(), meeting.startTime().toLocalDate(), meeting.startTime().getHour());
+    private void initializeRecurringMeetings(final Set<RecurringMeeting> recurringMeetings) {
+        for (RecurringMeeting recurringMeeting : recurringMeetings) {
+            final RecurrenceRule rule = RecurrenceRule.of(getEpochHour(recurringMeeting.startTime()), recurringMeeting.recurrence());
+            applyMeetingSeries(getAttendeesOrGuests(personIndex, recurringMeeting.persons()), rule);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package main.java.com.wtomaszewski.schedulingservice.service;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonEntry;
+
+import java.util.Set;
+
+/**
+ * A meeting stored by {@link MinimalSchedulingService#prepareMeeting} or prepareRecurringMeeting and not applied yet;
+ * commitPrepared applies it and abortPrepared drops it. A single meeting of [startMinute, endMinute), or a series of rule when rule is not null.
+ */
+public final class PreparedMeeting {
+
+    final long preparedId;
+    final Set<String> personEmails;
+    final PersonEntry[] attendees;
+    final long startMinute;
+    final long endMinute;
+    final RecurrenceRule rule;
+
+    PreparedMeeting(final long preparedId, final Set<String> personEmails, final PersonEntry[] attendees, final long startMinute, final long endMinute,
+                    final RecurrenceRule rule) {
+        this.preparedId = preparedId;
+        this.personEmails = personEmails;
+        this.attendees = attendees;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+        this.rule = rule;
+    }
+}
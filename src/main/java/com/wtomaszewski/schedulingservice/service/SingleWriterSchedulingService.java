@@ -0,0 +1,369 @@
+package main.java.com.wtomaszewski.schedulingservice.service;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
+import main.java.com.wtomaszewski.schedulingservice.repository.MeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.PersonRepository;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getLocalDateTime;
+
+/**
+ * Scheduling service where one writer thread owns all mutations. Writes are queued on a bounded multi-producer queue
+ * (producers block while it is full) and the writer applies consecutive meetings in batches with one repository write per batch,
+ * each meeting accepted or rejected as if created on its own. Writes never contend on locks, and reads go straight
+ * to the concurrent indexes without locking. The future of a write completes once it is visible to every read.
+ */
+public class SingleWriterSchedulingService implements SchedulingService, Closeable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    public static final int MAX_BATCH_SIZE = 512;
+    public static final String CLOSED_ERROR = "Scheduling service is closed";
+
+    private static final Mutation<Void> STOP = new Mutation<>(() -> null);
+
+    private final MinimalSchedulingService schedulingService;
+    private final BlockingQueue<Command> commands;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public SingleWriterSchedulingService(final PersonRepository personRepository, final MeetingRepository meetingRepository) {
+        this(personRepository, meetingRepository, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public SingleWriterSchedulingService(final PersonRepository personRepository, final MeetingRepository meetingRepository, final int queueCapacity) {
+        this.schedulingService = new MinimalSchedulingService(personRepository, meetingRepository);
+        this.commands = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::runWriter, "scheduling-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public CompletableFuture<Void> createPersonAsync(final String name, final String email) {
+        return submit(new Mutation<>(() -> {
+            schedulingService.createPerson(name, email);
+            return null;
+        }));
+    }
+
+    public CompletableFuture<Void> createPersonAsync(final String name, final String email, final ZoneId zone) {
+        return submit(new Mutation<>(() -> {
+            schedulingService.createPerson(name, email, zone);
+            return null;
+        }));
+    }
+
+    public CompletableFuture<Meeting> createMeetingAsync(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts) {
+        return submit(new MeetingCommand(new MeetingRequest(personEmails, date, hour, checkConflicts), new CompletableFuture<>()));
+    }
+
+    public CompletableFuture<Void> createMeetingAsync(final Set<String> personEmails, final LocalDateTime startTime, final Duration duration,
+                                                      final boolean checkConflicts) {
+        return submit(new Mutation<>(() -> {
+            schedulingService.createMeeting(personEmails, startTime, duration, checkConflicts);
+            return null;
+        }));
+    }
+
+    public CompletableFuture<MeetingResult> tryCreateMeetingAsync(final Set<String> personEmails, final LocalDate date, final int hour) {
+        return submit(new Mutation<>(() -> schedulingService.tryCreateMeeting(personEmails, date, hour)));
+    }
+
+    public CompletableFuture<Optional<Meeting>> bookFirstAvailableAsync(final Set<String> personEmails, final LocalDate startDate, final int startHour,
+                                                                        final LocalDate endDate, final int endHour) {
+        return submit(new Mutation<>(() -> schedulingService.bookFirstAvailable(personEmails, startDate, startHour, endDate, endHour)));
+    }
+
+    /**
+     * Creates all meetings or none, like {@link MinimalSchedulingService#createMeetings(Collection)}.
+     */
+    public CompletableFuture<List<Meeting>> createMeetingsAsync(final Collection<MeetingRequest> meetingRequests) {
+        return submit(new Mutation<>(() -> schedulingService.createMeetings(meetingRequests)));
+    }
+
+    public CompletableFuture<Void> createRecurringMeetingAsync(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence,
+                                                               final boolean checkConflicts) {
+        return submit(new Mutation<>(() -> {
+            schedulingService.createRecurringMeeting(personEmails, date, hour, recurrence, checkConflicts);
+            return null;
+        }));
+    }
+
+    @Override
+    public void createPerson(final String name, final String email) {
+        await(createPersonAsync(name, email));
+    }
+
+    @Override
+    public void createPerson(final String name, final String email, final ZoneId zone) {
+        await(createPersonAsync(name, email, zone));
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour) {
+        createMeeting(personEmails, date, hour, false);
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final boolean checkConflicts) {
+        await(createMeetingAsync(personEmails, date, hour, checkConflicts));
+    }
+
+    @Override
+    public void createMeeting(final Set<String> personEmails, final LocalDateTime startTime, final Duration duration, final boolean checkConflicts) {
+        await(createMeetingAsync(personEmails, startTime, duration, checkConflicts));
+    }
+
+    @Override
+    public MeetingResult tryCreateMeeting(final Set<String> personEmails, final LocalDate date, final int hour) {
+        return await(tryCreateMeetingAsync(personEmails, date, hour));
+    }
+
+    @Override
+    public Optional<Meeting> bookFirstAvailable(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return await(bookFirstAvailableAsync(personEmails, startDate, startHour, endDate, endHour));
+    }
+
+    @Override
+    public List<Meeting> createMeetings(final Collection<MeetingRequest> meetingRequests) {
+        return await(createMeetingsAsync(meetingRequests));
+    }
+
+    @Override
+    public void createRecurringMeeting(final Set<String> personEmails, final LocalDate date, final int hour, final Recurrence recurrence, final boolean checkConflicts) {
+        await(createRecurringMeetingAsync(personEmails, date, hour, recurrence, checkConflicts));
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate date, final int hour) {
+        return schedulingService.getSchedule(email, date, hour);
+    }
+
+    @Override
+    public Set<Meeting> getSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.getSchedule(email, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int hour, final LocalDate endDate, final int endHour) {
+        return schedulingService.suggestTimeSlots(personEmails, startDate, hour, endDate, endHour);
+    }
+
+    @Override
+    public List<TimeRange> suggestTimeRanges(final Set<String> personEmails, final LocalDateTime startTime, final LocalDateTime endTime, final Duration minDuration) {
+        return schedulingService.suggestTimeRanges(personEmails, startTime, endTime, minDuration);
+    }
+
+    @Override
+    public Set<LocalDateTime> suggestTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour,
+                                               final SlotConstraints localConstraints) {
+        return schedulingService.suggestTimeSlots(personEmails, startDate, startHour, endDate, endHour, localConstraints);
+    }
+
+    @Override
+    public FreeTimeSlots findFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.findFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Stream<Meeting> streamSchedule(final String email, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.streamSchedule(email, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Page<Meeting> getSchedulePage(final String email, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        return schedulingService.getSchedulePage(email, cursor, endDate, endHour, limit);
+    }
+
+    @Override
+    public Stream<LocalDateTime> streamFreeTimeSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour) {
+        return schedulingService.streamFreeTimeSlots(personEmails, startDate, startHour, endDate, endHour);
+    }
+
+    @Override
+    public Page<LocalDateTime> getFreeTimeSlotPage(final Set<String> personEmails, final PageCursor cursor, final LocalDate endDate, final int endHour, final int limit) {
+        return schedulingService.getFreeTimeSlotPage(personEmails, cursor, endDate, endHour, limit);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count) {
+        return schedulingService.findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count);
+    }
+
+    @Override
+    public List<LocalDateTime> findFirstCommonSlots(final Set<String> personEmails, final LocalDate startDate, final int startHour, final LocalDate endDate, final int endHour, final int count,
+                                                    final SlotConstraints constraints) {
+        return schedulingService.findFirstCommonSlots(personEmails, startDate, startHour, endDate, endHour, count, constraints);
+    }
+
+    @Override
+    public MeetingSubscription subscribe(final Set<String> personEmails, final TimeRange window) {
+        return schedulingService.subscribe(personEmails, window);
+    }
+
+    @Override
+    public Set<Meeting> getMeetings(final LocalDate date, final int hour) {
+        return schedulingService.getMeetings(date, hour);
+    }
+
+    @Override
+    public Map<String, Person> getPersonsMap() {
+        return schedulingService.getPersonsMap();
+    }
+
+    /**
+     * Applies every write queued so far and stops the writer; later writes fail with IllegalStateException.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            commands.put(STOP);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final List<Command> rejected = new ArrayList<>();
+        commands.drainTo(rejected);
+        rejected.forEach(command -> command.fail(new IllegalStateException(CLOSED_ERROR)));
+    }
+
+    private <T> CompletableFuture<T> submit(final Command command) {
+        if (closed) {
+            throw new IllegalStateException(CLOSED_ERROR);
+        }
+        try {
+            commands.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(CLOSED_ERROR, e);
+        }
+        // the writer may have stopped between the check and the put, nobody else would complete the command then
+        if (closed && commands.remove(command)) {
+            command.fail(new IllegalStateException(CLOSED_ERROR));
+        }
+        @SuppressWarnings("unchecked")
+        final CompletableFuture<T> result = (CompletableFuture<T>) command.result();
+        return result;
+    }
+
+    private static <T> T await(final CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void runWriter() {
+        final List<Command> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(commands.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            commands.drainTo(batch, MAX_BATCH_SIZE - 1);
+            apply(batch);
+            if (batch.contains(STOP)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void apply(final List<Command> batch) {
+        int from = 0;
+        while (from < batch.size()) {
+            if (batch.get(from) instanceof Mutation<?> mutation) {
+                mutation.run();
+                from++;
+                continue;
+            }
+            int to = from;
+            final List<MeetingRequest> requests = new ArrayList<>();
+            while (to < batch.size() && batch.get(to) instanceof MeetingCommand meeting) {
+                requests.add(meeting.request());
+                to++;
+            }
+            try {
+                final RuntimeException[] failures = schedulingService.createMeetingsIndividually(requests);
+                for (int i = from; i < to; i++) {
+                    ((MeetingCommand) batch.get(i)).complete(failures[i - from]);
+                }
+            } catch (RuntimeException e) {
+                for (int i = from; i < to; i++) {
+                    batch.get(i).fail(e);
+                }
+            }
+            from = to;
+        }
+    }
+
+    private sealed interface Command permits Mutation, MeetingCommand {
+
+        CompletableFuture<?> result();
+
+        default void fail(final RuntimeException e) {
+            result().completeExceptionally(e);
+        }
+    }
+
+    private record Mutation<T>(Supplier<T> mutation, CompletableFuture<T> result) implements Command {
+
+        Mutation(final Supplier<T> mutation) {
+            this(mutation, new CompletableFuture<>());
+        }
+
+        void run() {
+            try {
+                result.complete(mutation.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private record MeetingCommand(MeetingRequest request, CompletableFuture<Meeting> result) implements Command {
+
+        void complete(final RuntimeException failure) {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(new Meeting(request.personEmails(), getLocalDateTime(request.date(), request.hour())));
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package main.java.com.wtomaszewski.schedulingservice.shard;
+
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+import main.java.com.wtomaszewski.schedulingservice.service.PreparedMeeting;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One partition of a sharded deployment (see ShardedSchedulingAPI): a service owning the persons hashed to it, taking part
+ * in two-phase creation of meetings. prepare checks the owned attendees, holds the time of the meeting and stores it as prepared,
+ * commit applies it and abort drops the hold and the stored meeting. Only prepare writes the meeting, so commit cannot fail.
+ * Holds never wait for each other, a meeting overlapping a held time of the same person is rejected as a conflict.
+ * Every shard stores the meeting with all of its attendees, those owned by other shards only as guests: by email, without
+ * a person record, reservations or a schedule here (see MinimalSchedulingService.prepareMeeting).
+ * Writes are serialized on the shard, reads go to the service directly.
+ */
+public class SchedulingShard {
+
+    private final MinimalSchedulingService schedulingService;
+    private final Map<Long, HeldMeeting> heldMeetings;
+
+    public SchedulingShard(final MinimalSchedulingService schedulingService) {
+        this.schedulingService = schedulingService;
+        this.heldMeetings = new HashMap<>();
+    }
+
+    public MinimalSchedulingService getSchedulingService() {
+        return schedulingService;
+    }
+
+    public synchronized void createPerson(final String name, final String email, final ZoneId zone) {
+        schedulingService.createPerson(name, email, zone);
+    }
+
+    /**
+     * Phase one of meeting transactionId: reports every owned attendee who does not exist or, with checkConflicts, is busy or held
+     * by another prepared meeting at any time of hold. When there is none, stores the meeting with stage, which has to use one of the prepare
+     * methods of the service, and holds the time for the owned attendees; a repository error of stage is thrown with nothing held.
+     */
+    public synchronized MeetingResult prepare(final long transactionId, final Set<String> ownedEmails, final TimeHold hold, final boolean checkConflicts,
+                                              final Function<MinimalSchedulingService, PreparedMeeting> stage) {
+        final MeetingResult result;
+        if (checkConflicts) {
+            result = hold.rule() == null
+                    ? schedulingService.findConflicts(ownedEmails, hold.startMinute(), hold.endMinute())
+                    : schedulingService.findConflicts(ownedEmails, hold.rule());
+        } else {
+            result = findUnknown(ownedEmails);
+        }
+        final List<String> heldEmails = checkConflicts ? findHeld(ownedEmails, hold) : List.of();
+        if (!heldEmails.isEmpty()) {
+            final List<String> conflictingEmails = new ArrayList<>(result.conflictingEmails());
+            heldEmails.stream().filter(email -> !conflictingEmails.contains(email)).forEach(conflictingEmails::add);
+            return new MeetingResult(conflictingEmails, result.unknownEmails());
+        }
+        if (result.isSuccess()) {
+            heldMeetings.put(transactionId, new HeldMeeting(ownedEmails, hold, stage.apply(schedulingService)));
+        }
+        return result;
+    }
+
+    /**
+     * Phase two: releases the hold of transactionId and applies the prepared meeting.
+     */
+    public synchronized void commit(final long transactionId) {
+        final HeldMeeting held = heldMeetings.remove(transactionId);
+        if (held == null) {
+            throw new IllegalStateException("Meeting " + transactionId + " is not prepared");
+        }
+        schedulingService.commitPrepared(held.meeting());
+    }
+
+    /**
+     * Releases the hold of transactionId, if it holds any, and drops its stored meeting.
+     */
+    public synchronized void abort(final long transactionId) {
+        final HeldMeeting held = heldMeetings.remove(transactionId);
+        if (held != null) {
+            schedulingService.abortPrepared(held.meeting());
+        }
+    }
+
+    private MeetingResult findUnknown(final Set<String> emails) {
+        final List<String> unknownEmails = emails.stream()
+                .filter(email -> !schedulingService.getPersonsMap().containsKey(email))
+                .collect(Collectors.toList());
+        return unknownEmails.isEmpty() ? MeetingResult.SUCCESS : new MeetingResult(List.of(), unknownEmails);
+    }
+
+    private List<String> findHeld(final Set<String> emails, final TimeHold hold) {
+        final List<String> heldEmails = new ArrayList<>();
+        for (HeldMeeting held : heldMeetings.values()) {
+            if (held.hold().overlaps(hold)) {
+                emails.stream().filter(email -> held.emails().contains(email) && !heldEmails.contains(email)).forEach(heldEmails::add);
+            }
+        }
+        return heldEmails;
+    }
+
+    private record HeldMeeting(Set<String> emails, TimeHold hold, PreparedMeeting meeting) {
+    }
+}
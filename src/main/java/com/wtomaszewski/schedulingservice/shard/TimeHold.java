@@ -0,0 +1,33 @@
+package main.java.com.wtomaszewski.schedulingservice.shard;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+
+/**
+ * Time a prepared meeting holds on a shard until it is committed or aborted: the minutes [startMinute, endMinute) counted from the epoch,
+ * or every occurrence of rule for a meeting series.
+ */
+public record TimeHold(long startMinute, long endMinute, RecurrenceRule rule) {
+
+    public static TimeHold of(final long startMinute, final long endMinute) {
+        return new TimeHold(startMinute, endMinute, null);
+    }
+
+    public static TimeHold of(final RecurrenceRule rule) {
+        return new TimeHold(0, 0, rule);
+    }
+
+    /**
+     * Like ReservationBitmap, an occurrence of a series takes its whole hour.
+     */
+    public boolean overlaps(final TimeHold other) {
+        if (rule == null && other.rule == null) {
+            return startMinute < other.endMinute && other.startMinute < endMinute;
+        }
+        if (rule != null && other.rule != null) {
+            return rule.intersects(other.rule);
+        }
+        final TimeHold range = rule == null ? this : other;
+        final RecurrenceRule series = rule == null ? other.rule : rule;
+        return series.firstOccurrenceIn(Math.floorDiv(range.startMinute, 60), -Math.floorDiv(-range.endMinute, 60)) != Long.MAX_VALUE;
+    }
+}
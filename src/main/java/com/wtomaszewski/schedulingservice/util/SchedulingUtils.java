@@ -1,57 +1,285 @@
 package main.java.com.wtomaszewski.schedulingservice.util;
 
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap;
 import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
 import main.java.com.wtomaszewski.schedulingservice.exception.NotUniquePersonException;
 import main.java.com.wtomaszewski.schedulingservice.exception.PersonNotExistException;
+import main.java.com.wtomaszewski.schedulingservice.index.MeetingRecord;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonEntry;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonIndex;
 import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
-import main.java.com.wtomaszewski.schedulingservice.model.Person;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class SchedulingUtils {
 
-    public static void checkPersonsAndMeetingConflicts(final Map<String, Person> persons, final Map<String, Set<LocalDateTime>> reservedTimeSlots,
-                                                       final Set<String> personEmails, final boolean checkConflicts, final LocalDateTime startTime) {
+    public static PersonEntry[] getAttendees(final PersonIndex personIndex, final Set<String> personEmails) {
+        final PersonEntry[] attendees = new PersonEntry[personEmails.size()];
+        int i = 0;
         for (String email : personEmails) {
-            if (!persons.containsKey(email)) {
+            final PersonEntry attendee = personIndex.get(email);
+            if (attendee == null) {
                 throw new PersonNotExistException(email);
             }
-            final Set<LocalDateTime> reservedSlots = reservedTimeSlots.get(email);
-            if (reservedSlots != null && checkConflicts && reservedSlots.contains(startTime)) {
-                throw new MeetingTimeslotConflictException(email);
+            attendees[i++] = attendee;
+        }
+        return attendees;
+    }
+
+    /**
+     * Like getAttendees, but also accepts the guests registered with the index (see PersonIndex.registerGuest).
+     */
+    public static PersonEntry[] getAttendeesOrGuests(final PersonIndex personIndex, final Set<String> personEmails) {
+        final PersonEntry[] attendees = new PersonEntry[personEmails.size()];
+        int i = 0;
+        for (String email : personEmails) {
+            final PersonEntry person = personIndex.get(email);
+            final PersonEntry attendee = person != null ? person : personIndex.getGuest(email);
+            if (attendee == null) {
+                throw new PersonNotExistException(email);
+            }
+            attendees[i++] = attendee;
+        }
+        return attendees;
+    }
+
+    /**
+     * The attendees who are persons here, which take reservations and calendar entries; attendees itself when there is no guest among them.
+     */
+    public static PersonEntry[] withoutGuests(final PersonEntry[] attendees) {
+        int persons = 0;
+        for (PersonEntry attendee : attendees) {
+            if (!attendee.isGuest()) {
+                persons++;
             }
         }
+        if (persons == attendees.length) {
+            return attendees;
+        }
+        final PersonEntry[] owned = new PersonEntry[persons];
+        int i = 0;
+        for (PersonEntry attendee : attendees) {
+            if (!attendee.isGuest()) {
+                owned[i++] = attendee;
+            }
+        }
+        return owned;
+    }
+
+    /**
+     * Fills attendees with the persons of personEmails and, with checkConflicts, tests them against the minutes [startMinute, endMinute).
+     * Unlike getAttendees and checkMeetingConflicts it goes on after the first failure and reports all of them in the result;
+     * nothing is allocated unless a failure is found.
+     */
+    public static MeetingResult resolveAttendees(final PersonIndex personIndex, final Set<String> personEmails, final PersonEntry[] attendees,
+                                                 final long startMinute, final long endMinute, final boolean checkConflicts) {
+        return resolveAttendees(personIndex, personEmails, attendees, startMinute, endMinute, null, checkConflicts);
     }
 
-    public static void updateMeetingMap(final Map<LocalDateTime, Set<Meeting>> sortedMeetingsMap, final Set<String> personEmails, final LocalDateTime startTime) {
-        sortedMeetingsMap.computeIfAbsent(startTime, k -> new HashSet<>()).add(new Meeting(personEmails, startTime));
+    /**
+     * Like resolveAttendees for a single meeting, checking every occurrence of rule.
+     */
+    public static MeetingResult resolveAttendees(final PersonIndex personIndex, final Set<String> personEmails, final PersonEntry[] attendees,
+                                                 final RecurrenceRule rule) {
+        return resolveAttendees(personIndex, personEmails, attendees, 0, 0, rule, true);
     }
 
-    public static void updateReservedTimeslots(final Map<String, Set<LocalDateTime>> reservedPersonTimeSlotsMap, final Set<String> personEmails, final LocalDateTime startTime) {
+    private static MeetingResult resolveAttendees(final PersonIndex personIndex, final Set<String> personEmails, final PersonEntry[] attendees,
+                                                  final long startMinute, final long endMinute, final RecurrenceRule rule, final boolean checkConflicts) {
+        List<String> conflictingEmails = null;
+        List<String> unknownEmails = null;
+        int i = 0;
         for (String email : personEmails) {
-            final Set<LocalDateTime> reservedTimeSlots = reservedPersonTimeSlotsMap.computeIfAbsent(email, k -> new HashSet<>());
-            reservedTimeSlots.add(startTime);
+            final PersonEntry attendee = personIndex.get(email);
+            if (attendee == null) {
+                if (unknownEmails == null) {
+                    unknownEmails = new ArrayList<>();
+                }
+                unknownEmails.add(email);
+                continue;
+            }
+            attendees[i++] = attendee;
+            if (checkConflicts && (rule == null ? attendee.reservations().isReserved(startMinute, endMinute) : attendee.reservations().isReservedAtAnyOccurrence(rule))) {
+                if (conflictingEmails == null) {
+                    conflictingEmails = new ArrayList<>();
+                }
+                conflictingEmails.add(email);
+            }
+        }
+        if (conflictingEmails == null && unknownEmails == null) {
+            return MeetingResult.SUCCESS;
+        }
+        return new MeetingResult(conflictingEmails == null ? List.of() : conflictingEmails, unknownEmails == null ? List.of() : unknownEmails);
+    }
+
+    public static void checkMeetingConflicts(final PersonEntry[] attendees, final long epochHour) {
+        for (PersonEntry attendee : attendees) {
+            if (attendee.reservations().isReserved(epochHour)) {
+                throw new MeetingTimeslotConflictException(attendee.email());
+            }
+        }
+    }
+
+    public static void checkMeetingConflicts(final PersonEntry[] attendees, final RecurrenceRule rule) {
+        for (PersonEntry attendee : attendees) {
+            if (attendee.reservations().isReservedAtAnyOccurrence(rule)) {
+                throw new MeetingTimeslotConflictException(attendee.email());
+            }
+        }
+    }
+
+    public static void checkMeetingConflicts(final Map<Integer, ReservationBitmap> reservedTimeSlots, final PersonEntry[] attendees, final long epochHour) {
+        for (PersonEntry attendee : attendees) {
+            final ReservationBitmap reservedSlots = reservedTimeSlots.get(attendee.id());
+            if (reservedSlots != null && reservedSlots.isReserved(epochHour)) {
+                throw new MeetingTimeslotConflictException(attendee.email());
+            }
+        }
+    }
+
+    public static void updatePersonMeetingsMap(final PersonEntry[] attendees, final MeetingRecord meeting) {
+        for (PersonEntry attendee : attendees) {
+            attendee.calendar().add(meeting);
+        }
+    }
+
+    public static void updateReservedTimeslots(final PersonEntry[] attendees, final long epochHour) {
+        for (PersonEntry attendee : attendees) {
+            attendee.reservations().reserve(epochHour);
         }
     }
 
+    public static void updateReservedTimeslots(final Map<Integer, ReservationBitmap> reservedTimeSlots, final PersonEntry[] attendees, final long epochHour) {
+        for (PersonEntry attendee : attendees) {
+            reservedTimeSlots.computeIfAbsent(attendee.id(), k -> new ReservationBitmap()).reserve(epochHour);
+        }
+    }
+
+    public static Meeting toMeeting(final PersonIndex personIndex, final MeetingRecord meeting) {
+        final int[] attendeeIds = meeting.attendeeIds();
+        final String[] emails = new String[attendeeIds.length];
+        for (int i = 0; i < attendeeIds.length; i++) {
+            emails[i] = personIndex.get(attendeeIds[i]).email();
+        }
+        if (meeting.isWholeHour()) {
+            return new Meeting(Set.of(emails), getLocalDateTime(meeting.epochHour()));
+        }
+        final LocalDateTime startTime = getLocalDateTimeOfEpochMinute(meeting.startMinute());
+        return new Meeting(Set.of(emails), startTime, startTime.plusMinutes(meeting.durationMinutes()));
+    }
+
+    /**
+     * Takes up to limit results plus one to find out where the next page starts; results have to be ordered by start time.
+     */
+    public static <T> Page<T> toPage(final Stream<T> results, final PageCursor cursor, final int limit, final Function<T, LocalDateTime> startTime) {
+        final List<T> items = results.limit(limit + 1L).collect(Collectors.toCollection(ArrayList::new));
+        if (items.size() <= limit) {
+            return new Page<>(items, null);
+        }
+        final LocalDateTime nextStartTime = startTime.apply(items.remove(limit));
+        int skip = nextStartTime.equals(cursor.startTime()) ? cursor.skip() : 0;
+        for (T item : items) {
+            if (startTime.apply(item).equals(nextStartTime)) {
+                skip++;
+            }
+        }
+        return new Page<>(items, new PageCursor(nextStartTime, skip));
+    }
+
     public static LocalDateTime getLocalDateTime(final LocalDate date, final int hour) {
         return LocalDateTime.of(date, LocalTime.of(hour, 0));
     }
 
+    public static LocalDateTime getLocalDateTime(final long epochHour) {
+        return LocalDateTime.of(LocalDate.ofEpochDay(Math.floorDiv(epochHour, 24)), LocalTime.of(Math.floorMod(epochHour, 24), 0));
+    }
+
+    public static long getEpochHour(final LocalDate date, final int hour) {
+        return date.toEpochDay() * 24 + hour;
+    }
+
+    public static long getEpochHour(final LocalDateTime dateTime) {
+        return getEpochHour(dateTime.toLocalDate(), dateTime.getHour());
+    }
+
+    public static long getEpochMinute(final LocalDateTime dateTime) {
+        return getEpochHour(dateTime) * MeetingRecord.HOUR_MINUTES + dateTime.getMinute();
+    }
+
+    public static LocalDateTime getLocalDateTimeOfEpochMinute(final long epochMinute) {
+        return getLocalDateTime(Math.floorDiv(epochMinute, MeetingRecord.HOUR_MINUTES)).plusMinutes(Math.floorMod(epochMinute, MeetingRecord.HOUR_MINUTES));
+    }
+
+    public static boolean isWholeHour(final Meeting meeting) {
+        return meeting.startTime().getMinute() == 0 && meeting.endTime().equals(meeting.startTime().plusHours(1));
+    }
+
+    /**
+     * Indexes of the given epoch hours in ascending hour order, equal hours keep their original order.
+     */
+    public static int[] getTimeOrder(final long[] epochHours) {
+        final long minHour = Arrays.stream(epochHours).min().orElse(0);
+        final long maxHour = Arrays.stream(epochHours).max().orElse(0);
+        final int[] timeOrder = new int[epochHours.length];
+        if (maxHour - minHour < Integer.MAX_VALUE) {
+            // hour offset in the upper half and index in the lower half, sorted without boxing
+            final long[] keys = new long[epochHours.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (epochHours[i] - minHour) << Integer.SIZE | i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; i++) {
+                timeOrder[i] = (int) keys[i];
+            }
+            return timeOrder;
+        }
+        final Integer[] boxedOrder = new Integer[epochHours.length];
+        for (int i = 0; i < boxedOrder.length; i++) {
+            boxedOrder[i] = i;
+        }
+        Arrays.sort(boxedOrder, Comparator.comparingLong(i -> epochHours[i]));
+        for (int i = 0; i < boxedOrder.length; i++) {
+            timeOrder[i] = boxedOrder[i];
+        }
+        return timeOrder;
+    }
+
     public static void validateInput(final boolean condition, final String errorMessage) {
         if (condition) {
             throw new IllegalArgumentException(errorMessage);
         }
     }
 
-    public static void validatePerson(final Map<String, Person> persons, final String email) {
-        if (persons.containsKey(email)) {
+    public static void validatePerson(final boolean registered, final String email) {
+        if (!registered) {
             throw new NotUniquePersonException(email);
         }
     }
+
+    /**
+     * Throws what getAttendees and checkMeetingConflicts would have thrown for the first failure of result.
+     */
+    public static void validateMeetingResult(final MeetingResult result) {
+        if (!result.unknownEmails().isEmpty()) {
+            throw new PersonNotExistException(result.unknownEmails().get(0));
+        }
+        if (!result.conflictingEmails().isEmpty()) {
+            throw new MeetingTimeslotConflictException(result.conflictingEmails().get(0));
+        }
+    }
 }
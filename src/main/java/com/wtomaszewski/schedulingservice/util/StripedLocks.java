@@ -0,0 +1,57 @@
+package main.java.com.wtomaszewski.schedulingservice.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared by keys with the same hash stripe.
+ * Stripes of a key set are always acquired in ascending index order, so two callers locking overlapping key sets cannot deadlock.
+ */
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(final int stripes) {
+        final int size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public int stripeOf(final Object key) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    public int[] stripesOf(final Collection<?> keys) {
+        final int[] stripes = new int[keys.size()];
+        int count = 0;
+        for (Object key : keys) {
+            stripes[count++] = stripeOf(key);
+        }
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || stripes[distinct - 1] != stripes[i]) {
+                stripes[distinct++] = stripes[i];
+            }
+        }
+        return distinct == stripes.length ? stripes : Arrays.copyOf(stripes, distinct);
+    }
+
+    public void lock(final int[] stripes) {
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+    }
+
+    public void unlock(final int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package test.java.com.wtomaszewski.schedulingservice.api;
+
+import main.java.com.wtomaszewski.schedulingservice.api.ShardedSchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
+import main.java.com.wtomaszewski.schedulingservice.exception.PersonNotExistException;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.MeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+import main.java.com.wtomaszewski.schedulingservice.shard.SchedulingShard;
+import main.java.com.wtomaszewski.schedulingservice.shard.TimeHold;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedSchedulingAPITest {
+
+    private static final int SHARDS = 3;
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 4);
+
+    private ExecutorService fanOutExecutor;
+    private List<SchedulingShard> shards;
+    private ShardedSchedulingAPI schedulingAPI;
+
+    @BeforeEach
+    void setUp() {
+        fanOutExecutor = Executors.newFixedThreadPool(SHARDS);
+        shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(new SchedulingShard(newService()));
+        }
+        schedulingAPI = new ShardedSchedulingAPI(shards, fanOutExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOutExecutor.shutdown();
+    }
+
+    @Test
+    void shouldRejectCrossShardMeetingOnAnyConflictWithoutCreatingItAnywhere() {
+        final String first = emailOnShard(0);
+        final String second = emailOnShard(1);
+        final String missing = emailOnShard(2);
+        schedulingAPI.createPerson("First", first);
+        schedulingAPI.createPerson("Second", second);
+        schedulingAPI.createMeeting(Set.of(second), DATE, 10, true);
+
+        assertThrows(MeetingTimeslotConflictException.class, () -> schedulingAPI.createMeeting(Set.of(first, second), DATE, 10, true));
+        assertThrows(PersonNotExistException.class, () -> schedulingAPI.createMeeting(Set.of(first, missing), DATE, 11, true));
+        assertThrows(MeetingTimeslotConflictException.class, () -> schedulingAPI.createMeetings(List.of(
+                new MeetingRequest(Set.of(first), DATE, 12, true), new MeetingRequest(Set.of(first, second), DATE, 10, true))));
+        final MeetingResult result = schedulingAPI.tryCreateMeeting(Set.of(first, second, missing), DATE, 10);
+        assertEquals(List.of(second), result.conflictingEmails());
+        assertEquals(List.of(missing), result.unknownEmails());
+        assertTrue(schedulingAPI.getSchedule(first, DATE, 0, DATE, 23).isEmpty());
+        assertEquals(1, schedulingAPI.getSchedule(second, DATE, 0, DATE, 23).size());
+
+        final MeetingSubscription subscription = schedulingAPI.subscribe(Set.of(first, second), null);
+        schedulingAPI.createMeeting(Set.of(first, second), DATE, 11, true);
+
+        final Meeting meeting = new Meeting(Set.of(first, second), LocalDateTime.of(DATE.getYear(), DATE.getMonth(), DATE.getDayOfMonth(), 11, 0));
+        assertEquals(Set.of(meeting), schedulingAPI.getSchedule(first, DATE, 11));
+        assertTrue(schedulingAPI.getSchedule(second, DATE, 11).contains(meeting));
+        assertEquals(Set.of(meeting), shards.get(1).getSchedulingService().getMeetings(DATE, 11));
+        assertEquals(Set.of(first), shards.get(0).getSchedulingService().getPersonsMap().keySet());
+        assertEquals(Set.of(second), shards.get(1).getSchedulingService().getPersonsMap().keySet());
+        assertEquals(meeting, subscription.poll());
+        assertNull(subscription.poll());
+    }
+
+    @Test
+    void shouldTreatTimeHeldByPreparedMeetingAsBusyUntilAborted() {
+        final String first = emailOnShard(0);
+        final String second = emailOnShard(1);
+        schedulingAPI.createPerson("First", first);
+        schedulingAPI.createPerson("Second", second);
+        final long startMinute = getEpochHour(DATE, 9) * 60 + 30;
+        assertTrue(shards.get(1).prepare(-1, Set.of(second), TimeHold.of(startMinute, startMinute + 45), true,
+                schedulingService -> schedulingService.prepareMeeting(Set.of(second), startMinute, startMinute + 45)).isSuccess());
+
+        assertThrows(MeetingTimeslotConflictException.class,
+                () -> schedulingAPI.createMeeting(Set.of(first, second), LocalDateTime.of(2024, 3, 4, 10, 0), Duration.ofMinutes(30), true));
+        assertTrue(schedulingAPI.getSchedule(first, DATE, 0, DATE, 23).isEmpty());
+
+        shards.get(1).abort(-1);
+        schedulingAPI.createMeeting(Set.of(first, second), LocalDateTime.of(2024, 3, 4, 10, 0), Duration.ofMinutes(30), true);
+
+        assertEquals(1, schedulingAPI.getSchedule(first, DATE, 0, DATE, 23).size());
+        assertEquals(1, schedulingAPI.getSchedule(second, DATE, 0, DATE, 23).size());
+    }
+
+    @Test
+    void shouldCreateMeetingOnNoShardWhenRepositoryOfOneFailsToPrepareIt() {
+        final AtomicBoolean unavailable = new AtomicBoolean(true);
+        final MeetingRepository failingRepository = new InMemoryMeetingRepository(new HashSet<>()) {
+            @Override
+            public long savePreparedMeeting(final Meeting meeting) {
+                if (unavailable.getAndSet(false)) {
+                    throw new IllegalStateException("Repository unavailable");
+                }
+                return super.savePreparedMeeting(meeting);
+            }
+        };
+        shards.set(1, new SchedulingShard(new MinimalSchedulingService(new InMemoryPersonRepository(new HashSet<>()), failingRepository)));
+        schedulingAPI = new ShardedSchedulingAPI(shards, fanOutExecutor);
+        final Set<String> attendees = Set.of(emailOnShard(0), emailOnShard(1), emailOnShard(2));
+        attendees.forEach(email -> schedulingAPI.createPerson("Person", email));
+        final MeetingSubscription subscription = schedulingAPI.subscribe(attendees, null);
+
+        assertThrows(IllegalStateException.class, () -> schedulingAPI.createMeeting(attendees, DATE, 10, true));
+
+        for (String email : attendees) {
+            assertTrue(schedulingAPI.getSchedule(email, DATE, 0, DATE, 23).isEmpty());
+        }
+        assertNull(subscription.poll());
+        schedulingAPI.createMeeting(attendees, DATE, 10, true);
+        final Meeting meeting = new Meeting(attendees, DATE.atTime(10, 0));
+        for (String email : attendees) {
+            assertEquals(Set.of(meeting), schedulingAPI.getSchedule(email, DATE, 0, DATE, 23));
+        }
+        assertEquals(meeting, subscription.poll());
+    }
+
+    @Test
+    void shouldFindTheSameFreeTimeAsSingleService() {
+        final MinimalSchedulingService singleService = newService();
+        final SplittableRandom random = new SplittableRandom(42);
+        final List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            emails.add("person" + i + "@test.com");
+            final ZoneId zone = ZoneId.of(i % 2 == 0 ? "Europe/Warsaw" : "America/New_York");
+            schedulingAPI.createPerson("Person " + i, emails.get(i), zone);
+            singleService.createPerson("Person " + i, emails.get(i), zone);
+        }
+        for (int i = 0; i < 120; i++) {
+            final Set<String> attendees = randomAttendees(random, emails, 1 + random.nextInt(3));
+            final LocalDateTime startTime = DATE.atStartOfDay().plusMinutes(15L * random.nextInt(4 * 24 * 14));
+            final Duration duration = Duration.ofMinutes(15L * (1 + random.nextInt(8)));
+            schedulingAPI.createMeeting(attendees, startTime, duration, false);
+            singleService.createMeeting(attendees, startTime, duration, false);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            final Set<String> attendees = randomAttendees(random, emails, 2 + random.nextInt(6));
+            final LocalDate endDate = DATE.plusDays(14);
+            assertEquals(singleService.suggestTimeSlots(attendees, DATE, 0, endDate, 0), schedulingAPI.suggestTimeSlots(attendees, DATE, 0, endDate, 0));
+            final SlotConstraints constraints = SlotConstraints.workingHours(9, 17).withConsecutiveHours(2);
+            assertEquals(singleService.suggestTimeSlots(attendees, DATE, 0, endDate, 0, constraints),
+                    schedulingAPI.suggestTimeSlots(attendees, DATE, 0, endDate, 0, constraints));
+            assertEquals(singleService.findFirstCommonSlots(attendees, DATE, 0, endDate, 0, 10, constraints),
+                    schedulingAPI.findFirstCommonSlots(attendees, DATE, 0, endDate, 0, 10, constraints));
+            assertEquals(singleService.suggestTimeRanges(attendees, DATE.atStartOfDay(), endDate.atStartOfDay(), Duration.ofMinutes(50)),
+                    schedulingAPI.suggestTimeRanges(attendees, DATE.atStartOfDay(), endDate.atStartOfDay(), Duration.ofMinutes(50)));
+        }
+        assertFalse(schedulingAPI.suggestTimeSlots(Set.copyOf(emails), DATE, 0, DATE.plusDays(14), 0).isEmpty());
+    }
+
+    private String emailOnShard(final int shard) {
+        for (int i = 0; ; i++) {
+            final String email = "shard" + shard + "-" + i + "@test.com";
+            if (schedulingAPI.shardOf(email) == shard) {
+                return email;
+            }
+        }
+    }
+
+    private static MinimalSchedulingService newService() {
+        return new MinimalSchedulingService(new InMemoryPersonRepository(new HashSet<>()), new InMemoryMeetingRepository(new HashSet<>()));
+    }
+
+    private static Set<String> randomAttendees(final SplittableRandom random, final List<String> emails, final int count) {
+        final Set<String> attendees = new HashSet<>();
+        while (attendees.size() < count) {
+            attendees.add(emails.get(random.nextInt(emails.size())));
+        }
+        return attendees;
+    }
+}
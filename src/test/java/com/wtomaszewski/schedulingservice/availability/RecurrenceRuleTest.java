@@ -0,0 +1,75 @@
+package test.java.com.wtomaszewski.schedulingservice.availability;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.RecurrenceRule;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecurrenceRuleTest {
+
+    @Test
+    void shouldClampMonthlyOccurrencesToShorterMonthsAndStopAtUntilDate() {
+        RecurrenceRule rule = RecurrenceRule.of(getEpochHour(LocalDate.of(2024, 1, 31), 9),
+                Recurrence.until(Frequency.MONTHLY, 1, LocalDate.of(2024, 4, 29)));
+
+        assertEquals(3, rule.getCount());
+        assertEquals(getEpochHour(LocalDate.of(2024, 2, 29), 9), rule.occurrence(1));
+        assertTrue(rule.occursAt(getEpochHour(LocalDate.of(2024, 3, 31), 9)));
+        assertFalse(rule.occursAt(getEpochHour(LocalDate.of(2024, 3, 29), 9)));
+        assertEquals(2, rule.firstIndexAtOrAfter(getEpochHour(LocalDate.of(2024, 3, 1), 0)));
+        assertEquals(3, rule.firstIndexAtOrAfter(getEpochHour(LocalDate.of(2024, 4, 1), 0)));
+    }
+
+    @Test
+    void shouldFindCommonOccurrencesLikeExpandedSeries() {
+        Random random = new Random(7);
+        long baseHour = getEpochHour(LocalDate.of(2024, 1, 1), 0);
+        for (int i = 0; i < 2_000; i++) {
+            RecurrenceRule first = randomRule(random, baseHour);
+            RecurrenceRule second = randomRule(random, baseHour);
+
+            assertEquals(expand(first).stream().anyMatch(expand(second)::contains), first.intersects(second), i + "");
+            assertEquals(first.intersects(second), second.intersects(first));
+        }
+    }
+
+    @Test
+    void shouldAnswerOccurrenceQueriesLikeExpandedSeries() {
+        Random random = new Random(11);
+        long baseHour = getEpochHour(LocalDate.of(2024, 1, 1), 0);
+        for (int i = 0; i < 200; i++) {
+            RecurrenceRule rule = randomRule(random, baseHour);
+            Set<Long> occurrences = expand(rule);
+            for (long hour = baseHour - 24; hour < rule.getLastHour() + 48; hour += 1 + random.nextInt(5)) {
+                assertEquals(occurrences.contains(hour), rule.occursAt(hour));
+                long index = rule.firstIndexAtOrAfter(hour);
+                assertTrue(index == rule.getCount() || rule.occurrence(index) >= hour);
+                assertTrue(index == 0 || rule.occurrence(index - 1) < hour);
+            }
+        }
+    }
+
+    private static RecurrenceRule randomRule(final Random random, final long baseHour) {
+        Frequency frequency = Frequency.values()[random.nextInt(3)];
+        long firstHour = baseHour + random.nextInt(60) * 24L + (random.nextBoolean() ? 9 : 10);
+        return RecurrenceRule.of(firstHour, Recurrence.times(frequency, 1 + random.nextInt(5), 1 + random.nextInt(30)));
+    }
+
+    private static Set<Long> expand(final RecurrenceRule rule) {
+        Set<Long> occurrences = new HashSet<>();
+        for (long index = 0; index < rule.getCount(); index++) {
+            occurrences.add(rule.occurrence(index));
+        }
+        return occurrences;
+    }
+}
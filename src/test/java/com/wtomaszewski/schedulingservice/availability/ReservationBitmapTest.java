@@ -0,0 +1,139 @@
+package test.java.com.wtomaszewski.schedulingservice.availability;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.availability.MappedReservationFile;
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReservationBitmapTest {
+
+    @Test
+    void shouldDetectMinuteOverlapsAndReportReservedRanges() {
+        ReservationBitmap bitmap = new ReservationBitmap();
+        long hour = getEpochHour(LocalDate.of(2024, 1, 1), 9);
+        bitmap.reserve(hour);
+        bitmap.reserve(hour * 60 + 90, hour * 60 + 105);
+        bitmap.reserve(hour * 60 + 100, hour * 60 + 130);
+
+        assertTrue(bitmap.isReserved(hour * 60 + 59, hour * 60 + 61));
+        assertTrue(bitmap.isReserved(hour * 60 + 129, hour * 60 + 200));
+        assertFalse(bitmap.isReserved(hour * 60 + 60, hour * 60 + 90));
+        assertFalse(bitmap.isReserved(hour * 60 + 130, hour * 60 + 200));
+        assertTrue(bitmap.isReserved(hour + 1));
+        assertTrue(bitmap.isReserved(hour + 2));
+        assertFalse(bitmap.isReserved(hour + 3));
+
+        List<long[]> ranges = new ArrayList<>();
+        bitmap.forEachReservedRange(hour * 60 + 30, hour * 60 + 120, (start, end) -> ranges.add(new long[]{start, end}));
+        assertEquals(List.of("30-60", "90-120"), ranges.stream().map(range -> (range[0] - hour * 60) + "-" + (range[1] - hour * 60)).toList());
+    }
+
+    @Test
+    void shouldReserveHoursAcrossChunkBoundaries() {
+        ReservationBitmap bitmap = new ReservationBitmap();
+        long chunkStart = 10L * ReservationBitmap.CHUNK_HOURS;
+
+        bitmap.reserve(chunkStart - 1);
+        bitmap.reserve(chunkStart);
+        bitmap.reserve(-1);
+
+        assertTrue(bitmap.isReserved(chunkStart - 1));
+        assertTrue(bitmap.isReserved(chunkStart));
+        assertTrue(bitmap.isReserved(-1));
+        assertFalse(bitmap.isReserved(chunkStart + 1));
+        assertFalse(bitmap.isReserved(0));
+    }
+
+    @Test
+    void shouldReturnTheSameFreeSlotsAsNaiveScan() {
+        Random random = new Random(42);
+        long fromHour = getEpochHour(LocalDate.of(2024, 1, 1), 5);
+        long toHour = fromHour + 24 * 92;
+        ReservationBitmap first = new ReservationBitmap();
+        ReservationBitmap second = new ReservationBitmap();
+        TreeSet<Long> reserved = new TreeSet<>();
+
+        for (int i = 0; i < 800; i++) {
+            long hour = fromHour - 200 + random.nextInt(24 * 100);
+            (i % 2 == 0 ? first : second).reserve(hour);
+            reserved.add(hour);
+        }
+
+        long[] occupied = FreeTimeSlots.newOccupancy(fromHour, toHour);
+        first.orInto(occupied, fromHour, toHour);
+        second.orInto(occupied, fromHour, toHour);
+        FreeTimeSlots freeTimeSlots = new FreeTimeSlots(fromHour, toHour, occupied);
+
+        List<Long> expected = LongStream.range(fromHour, toHour).filter(hour -> !reserved.contains(hour)).boxed().collect(Collectors.toList());
+        assertEquals(expected, freeTimeSlots.epochHourStream().boxed().collect(Collectors.toList()));
+        assertEquals(expected.size(), freeTimeSlots.size());
+    }
+
+    @Test
+    void shouldIterateFreeSlotsAsLocalDateTimes() {
+        LocalDate date = LocalDate.of(2024, 3, 31);
+        long fromHour = getEpochHour(date, 22);
+        long toHour = getEpochHour(date.plusDays(1), 2);
+        ReservationBitmap bitmap = new ReservationBitmap();
+        bitmap.reserve(getEpochHour(date, 23));
+        bitmap.reserve(getEpochHour(date.plusDays(1), 1));
+
+        long[] occupied = FreeTimeSlots.newOccupancy(fromHour, toHour);
+        bitmap.orInto(occupied, fromHour, toHour);
+        List<LocalDateTime> freeSlots = new ArrayList<>();
+        new FreeTimeSlots(fromHour, toHour, occupied).forEach(freeSlots::add);
+
+        assertEquals(List.of(LocalDateTime.of(date, LocalTime.of(22, 0)), LocalDateTime.of(date.plusDays(1), LocalTime.MIDNIGHT)), freeSlots);
+    }
+
+    @Test
+    void shouldKeepTheSameReservationsOffHeapAsOnHeap() throws IOException {
+        Path file = Files.createTempFile("reservations", ".bin");
+        LocalDate firstDate = LocalDate.of(2024, 1, 1);
+        long firstHour = getEpochHour(firstDate, 0);
+        try (MappedReservationFile mappedFile = new MappedReservationFile(file, firstDate, 10)) {
+            Random random = new Random(3);
+            ReservationBitmap[] mapped = {new ReservationBitmap(mappedFile.store(0)), new ReservationBitmap(mappedFile.store(1))};
+            ReservationBitmap[] heap = {new ReservationBitmap(), new ReservationBitmap()};
+            for (int i = 0; i < 500; i++) {
+                long hour = firstHour - 24 * 7 + random.nextInt(24 * 7 * 12);
+                mapped[i % 2].reserve(hour);
+                heap[i % 2].reserve(hour);
+            }
+
+            for (int person = 0; person < 2; person++) {
+                for (long hour = firstHour - 24 * 7; hour < firstHour + 24 * 7 * 12; hour++) {
+                    assertEquals(heap[person].isReserved(hour), mapped[person].isReserved(hour));
+                }
+                long fromHour = firstHour - 30;
+                long toHour = firstHour + 24 * 7 * 11;
+                long[] expected = FreeTimeSlots.newOccupancy(fromHour, toHour);
+                long[] actual = FreeTimeSlots.newOccupancy(fromHour, toHour);
+                heap[person].orInto(expected, fromHour, toHour);
+                mapped[person].orInto(actual, fromHour, toHour);
+                assertArrayEquals(expected, actual);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package test.java.com.wtomaszewski.schedulingservice.availability;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.FreeTimeSlots;
+import main.java.com.wtomaszewski.schedulingservice.availability.ZoneOffsetTable;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ZoneOffsetTableTest {
+
+    private static final List<ZoneId> ZONES = List.of(ZoneId.of("UTC"), ZoneId.of("Europe/Warsaw"), ZoneId.of("America/New_York"),
+            ZoneId.of("Asia/Kolkata"), ZoneId.of("Australia/Lord_Howe"), ZoneId.of("America/St_Johns"));
+
+    @Test
+    void shouldReturnTheSameOffsetsAsZoneRules() {
+        Random random = new Random(13);
+        for (ZoneId zone : ZONES) {
+            ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+            for (int i = 0; i < 20_000; i++) {
+                long epochMinute = -60L * 24 * 365 * 80 + (long) (random.nextDouble() * 60L * 24 * 365 * 300);
+                assertEquals(zone.getRules().getOffset(Instant.ofEpochSecond(epochMinute * 60)).getTotalSeconds() / 60, table.offsetMinutesAt(epochMinute),
+                        zone + " " + epochMinute);
+            }
+        }
+    }
+
+    @Test
+    void shouldDisallowHoursOutsideLocalWorkingHoursAcrossDaylightSavingChanges() {
+        SlotConstraints constraints = SlotConstraints.workingHours(9, 17);
+        long fromHour = getEpochHour(LocalDate.of(2024, 3, 1), 0);
+        long toHour = getEpochHour(LocalDate.of(2024, 4, 15), 0);
+        for (ZoneId zone : ZONES) {
+            long[] occupied = FreeTimeSlots.newOccupancy(fromHour, toHour);
+            ZoneOffsetTable.of(zone).orDisallowedInto(occupied, fromHour, toHour, constraints);
+
+            for (long hour = fromHour; hour < toHour; hour++) {
+                ZonedDateTime start = Instant.ofEpochSecond(hour * 3600).atZone(zone);
+                ZonedDateTime end = start.toLocalDateTime().plusHours(1).atZone(zone);
+                boolean allowed = start.getHour() >= 9 && !end.toLocalDateTime().isAfter(start.toLocalDate().atTime(17, 0))
+                        && start.getDayOfWeek() != DayOfWeek.SATURDAY && start.getDayOfWeek() != DayOfWeek.SUNDAY;
+                long bit = hour - fromHour;
+                assertEquals(!allowed, (occupied[(int) (bit >>> 6)] & (1L << bit)) != 0, zone + " " + start);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package test.java.com.wtomaszewski.schedulingservice.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+
+/**
+ * Minimal warmup/measure harness used instead of JMH, which is not available in lib.
+ * Every operation is timed individually to get latency percentiles, allocations are read from the per-thread allocation counter.
+ */
+public class BenchmarkHarness {
+
+    private final int warmupOperations;
+    private final int measuredOperations;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    public BenchmarkHarness(final int warmupOperations, final int measuredOperations) {
+        this.warmupOperations = warmupOperations;
+        this.measuredOperations = measuredOperations;
+        this.threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    public Result run(final String benchmark, final String scale, final LongConsumer operation) {
+        for (long i = 0; i < warmupOperations; i++) {
+            operation.accept(i);
+        }
+
+        final long[] latencies = new long[measuredOperations];
+        final long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < measuredOperations; i++) {
+            final long operationStart = System.nanoTime();
+            operation.accept(warmupOperations + (long) i);
+            latencies[i] = System.nanoTime() - operationStart;
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        Arrays.sort(latencies);
+        return new Result(benchmark, scale, measuredOperations, measuredOperations * 1e9 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies[latencies.length - 1], (double) allocated / measuredOperations);
+    }
+
+    private static long percentile(final long[] sortedLatencies, final double percentile) {
+        return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1)];
+    }
+
+    public record Result(String benchmark, String scale, long operations, double opsPerSecond, long p50Nanos, long p90Nanos,
+                         long p99Nanos, long p999Nanos, long maxNanos, double allocatedBytesPerOp) {
+
+        public String toJson(final String label) {
+            return String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"benchmark\":\"%s\",\"scale\":\"%s\",\"operations\":%d,\"opsPerSecond\":%.1f,"
+                            + "\"p50Nanos\":%d,\"p90Nanos\":%d,\"p99Nanos\":%d,\"p999Nanos\":%d,\"maxNanos\":%d,\"allocatedBytesPerOp\":%.1f}",
+                    label, benchmark, scale, operations, opsPerSecond, p50Nanos, p90Nanos, p99Nanos, p999Nanos, maxNanos, allocatedBytesPerOp);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %-6s %12.0f ops/s  p50=%8dns p99=%9dns p99.9=%9dns  %10.1f B/op",
+                    benchmark, scale, opsPerSecond, p50Nanos, p99Nanos, p999Nanos, allocatedBytesPerOp);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package test.java.com.wtomaszewski.schedulingservice.benchmark;
+
+import main.java.com.wtomaszewski.schedulingservice.api.MinimalSchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.api.SchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.http.Json;
+import main.java.com.wtomaszewski.schedulingservice.http.SchedulingHttpServer;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load test of the HTTP front end: N clients share one keep-alive HTTP/1.1 client and each sends its next request
+ * as soon as the previous one is answered. The mix is 10% createMeeting, 60% getSchedule and 30% suggestTimeSlots over one week.
+ * Usage: HttpLoadTest [--clients=1,2,4,8,16] [--seconds=10] [--persons=10000] [--label=commit] [--out=results.jsonl]
+ * To see how throughput scales with cores, run it repeatedly with -XX:ActiveProcessorCount=N (or taskset) on the JVM.
+ */
+public class HttpLoadTest {
+
+    private static final LocalDate HORIZON_START = LocalDate.of(2024, 1, 1);
+    private static final int HORIZON_HOURS = 24 * 7 * 8;
+
+    private final int personsCount;
+    private final URI baseUri;
+    private final HttpClient client;
+
+    private HttpLoadTest(final int personsCount, final int port) {
+        this.personsCount = personsCount;
+        this.baseUri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port);
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = parseOptions(args);
+        final int[] clients = Arrays.stream(options.getOrDefault("clients", "1,2,4,8,16").split(",")).mapToInt(Integer::parseInt).toArray();
+        final long seconds = Long.parseLong(options.getOrDefault("seconds", "10"));
+        final int personsCount = Integer.parseInt(options.getOrDefault("persons", "10000"));
+
+        final SchedulingAPI schedulingAPI = new MinimalSchedulingAPI(new InMemoryPersonRepository(), new InMemoryMeetingRepository());
+        for (int i = 0; i < personsCount; i++) {
+            schedulingAPI.createPerson("Person " + i, email(i));
+        }
+        final String scale = Runtime.getRuntime().availableProcessors() + "cpu";
+        final List<BenchmarkHarness.Result> results = new ArrayList<>();
+        try (SchedulingHttpServer server = new SchedulingHttpServer(schedulingAPI, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            server.start();
+            final HttpLoadTest loadTest = new HttpLoadTest(personsCount, server.getPort());
+            // warm up the server and the client connection pool before the first measured round
+            loadTest.run(clients[clients.length - 1], seconds * 1_000_000_000L / 2, scale);
+            for (int clientCount : clients) {
+                final BenchmarkHarness.Result result = loadTest.run(clientCount, seconds * 1_000_000_000L, scale);
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        if (options.containsKey("out")) {
+            try (PrintStream printStream = new PrintStream(Files.newOutputStream(Path.of(options.get("out")), StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                results.forEach(result -> printStream.println(result.toJson(options.getOrDefault("label", "unlabeled"))));
+            }
+        }
+    }
+
+    private BenchmarkHarness.Result run(final int clientCount, final long durationNanos, final String scale) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(clientCount);
+        final long deadline = System.nanoTime() + durationNanos;
+        final List<Future<long[]>> futures = new ArrayList<>(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            final SplittableRandom random = new SplittableRandom(i);
+            futures.add(executor.submit(() -> runClient(random, deadline)));
+        }
+        final List<long[]> clientLatencies = new ArrayList<>(clientCount);
+        for (Future<long[]> future : futures) {
+            clientLatencies.add(future.get());
+        }
+        executor.shutdown();
+
+        final long[] latencies = clientLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new BenchmarkHarness.Result("http(" + clientCount + " clients)", scale, latencies.length, latencies.length * 1e9 / durationNanos,
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1], 0);
+    }
+
+    private long[] runClient(final SplittableRandom random, final long deadline) throws IOException, InterruptedException {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            final HttpRequest request = nextRequest(random);
+            final long start = System.nanoTime();
+            final HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            final long latency = System.nanoTime() - start;
+            if (response.statusCode() >= 500) {
+                throw new IllegalStateException("Unexpected response " + response.statusCode() + ": " + response.body());
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private HttpRequest nextRequest(final SplittableRandom random) {
+        final LocalDateTime startTime = HORIZON_START.atStartOfDay().plusHours(random.nextInt(HORIZON_HOURS));
+        final int operation = random.nextInt(10);
+        if (operation == 0) {
+            final Map<String, Object> meeting = Map.of("personEmails", List.of(randomEmail(random), randomEmail(random)),
+                    "date", startTime.toLocalDate(), "hour", startTime.getHour(), "checkConflicts", true);
+            return HttpRequest.newBuilder(baseUri.resolve("/meetings")).POST(HttpRequest.BodyPublishers.ofString(Json.write(meeting))).build();
+        }
+        if (operation < 7) {
+            final LocalDateTime endTime = startTime.plusDays(1);
+            return HttpRequest.newBuilder(baseUri.resolve("/schedule?email=" + randomEmail(random) + "&date=" + startTime.toLocalDate()
+                    + "&hour=" + startTime.getHour() + "&endDate=" + endTime.toLocalDate() + "&endHour=" + endTime.getHour())).GET().build();
+        }
+        final LocalDateTime endTime = startTime.plusWeeks(1);
+        return HttpRequest.newBuilder(baseUri.resolve("/time-slots?emails=" + randomEmail(random) + "," + randomEmail(random) + "," + randomEmail(random)
+                + "&startDate=" + startTime.toLocalDate() + "&startHour=" + startTime.getHour()
+                + "&endDate=" + endTime.toLocalDate() + "&endHour=" + endTime.getHour())).GET().build();
+    }
+
+    private String randomEmail(final SplittableRandom random) {
+        return email(random.nextInt(personsCount));
+    }
+
+    private static String email(final int index) {
+        return "person" + index + "@example.com";
+    }
+
+    private static long percentile(final long[] sortedLatencies, final double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1)];
+    }
+
+    private static Map<String, String> parseOptions(final String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
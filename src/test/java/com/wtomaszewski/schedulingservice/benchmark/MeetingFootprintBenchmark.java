@@ -0,0 +1,106 @@
+package test.java.com.wtomaszewski.schedulingservice.benchmark;
+
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+import main.java.com.wtomaszewski.schedulingservice.service.SchedulingService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+
+/**
+ * Compares the heap retained per meeting by MinimalSchedulingService with the per-meeting objects the indexes were built from before.
+ * Usage: MeetingFootprintBenchmark [meetings]
+ * The meetings are recurring 1:1s of 500 persons; the heap is measured after forcing GC, so run it with a heap large enough for both layouts.
+ */
+public class MeetingFootprintBenchmark {
+
+    private static final int PERSONS_COUNT = 500;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final int meetingsCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        final List<String> emails = new ArrayList<>();
+        for (int i = 0; i < PERSONS_COUNT; i++) {
+            emails.add("person" + i + "@benchmark.com");
+        }
+
+        long baseline = usedHeap();
+        final SchedulingService schedulingService = new MinimalSchedulingService(new InMemoryPersonRepository(), new InMemoryMeetingRepository());
+        for (int i = 0; i < PERSONS_COUNT; i++) {
+            schedulingService.createPerson("Person " + i, emails.get(i));
+        }
+        forEachMeeting(emails, meetingsCount, (attendees, startTime) -> schedulingService.createMeeting(attendees, startTime.toLocalDate(), startTime.getHour()));
+        final long compactBytesPerMeeting = (usedHeap() - baseline) / meetingsCount;
+        Reference.reachabilityFence(schedulingService);
+
+        baseline = usedHeap();
+        final LegacyIndexes legacyIndexes = new LegacyIndexes();
+        forEachMeeting(emails, meetingsCount, legacyIndexes::add);
+        final long legacyBytesPerMeeting = (usedHeap() - baseline) / meetingsCount;
+        Reference.reachabilityFence(legacyIndexes);
+
+        System.out.println(String.format(Locale.ROOT, "bytes per meeting over %d meetings: compact=%d  per-meeting objects=%d  reduction=%.1fx",
+                meetingsCount, compactBytesPerMeeting, legacyBytesPerMeeting, (double) legacyBytesPerMeeting / compactBytesPerMeeting));
+    }
+
+    private static void forEachMeeting(final List<String> emails, final int meetingsCount, final MeetingConsumer consumer) {
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.of(2024, 1, 1), LocalTime.of(8, 0));
+        for (int i = 0; i < meetingsCount; i++) {
+            int organizer = i % PERSONS_COUNT;
+            if (organizer == 0) {
+                startTime = startTime.plusHours(1);
+            }
+            // recurring 1:1s, attendees passed as HashSet like the existing callers do
+            Set<String> attendees = new HashSet<>();
+            attendees.add(emails.get(organizer));
+            attendees.add(emails.get((organizer + 1 + (i / PERSONS_COUNT) % 7) % PERSONS_COUNT));
+            consumer.accept(attendees, startTime);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private interface MeetingConsumer {
+        void accept(Set<String> attendees, LocalDateTime startTime);
+    }
+
+    /**
+     * Indexes as they were kept before attendee ids were introduced: one Meeting and LocalDateTime per meeting,
+     * a HashSet of reserved LocalDateTime per person and meetings sorted by time in TreeMap/TreeSet.
+     */
+    private static class LegacyIndexes {
+        private final TreeMap<LocalDateTime, Set<Meeting>> meetingsSortedByTimeSlotMap = new TreeMap<>();
+        private final Map<String, Set<LocalDateTime>> reservedPersonTimeSlotsMap = new HashMap<>();
+        private final Map<String, TreeSet<Meeting>> personMeetingsMap = new HashMap<>();
+
+        void add(final Set<String> attendees, final LocalDateTime startTime) {
+            LocalDateTime meetingStart = LocalDateTime.of(startTime.toLocalDate(), LocalTime.of(startTime.getHour(), 0));
+            Meeting meeting = new Meeting(attendees, meetingStart);
+            meetingsSortedByTimeSlotMap.computeIfAbsent(meetingStart, k -> new HashSet<>()).add(meeting);
+            for (String email : attendees) {
+                reservedPersonTimeSlotsMap.computeIfAbsent(email, k -> new HashSet<>()).add(meetingStart);
+                personMeetingsMap.computeIfAbsent(email, k -> new TreeSet<>()).add(meeting);
+            }
+        }
+    }
+}
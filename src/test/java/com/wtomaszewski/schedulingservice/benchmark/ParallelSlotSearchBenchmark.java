@@ -0,0 +1,84 @@
+package test.java.com.wtomaszewski.schedulingservice.benchmark;
+
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+import main.java.com.wtomaszewski.schedulingservice.service.SchedulingService;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares suggestTimeSlots on the calling thread with the fork-join path on pools of 2, 4, 8, ... threads up to the available processors.
+ * Usage: ParallelSlotSearchBenchmark [attendees] [days] [warmup] [operations]
+ * Every configuration gets its own service filled with the same meetings, so all of them answer the same queries.
+ */
+public class ParallelSlotSearchBenchmark {
+
+    private static final LocalDate HORIZON_START = LocalDate.of(2024, 1, 1);
+    private static final int PERSONS = 2_000;
+    private static final int MEETINGS = 400_000;
+    private static final int HORIZON_DAYS = 365;
+
+    public static void main(final String[] args) {
+        final int attendees = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final int days = args.length > 1 ? Integer.parseInt(args[1]) : 91;
+        final BenchmarkHarness harness = new BenchmarkHarness(args.length > 2 ? Integer.parseInt(args[2]) : 500, args.length > 3 ? Integer.parseInt(args[3]) : 2_000);
+        final String scale = attendees + "x" + days + "d";
+
+        final BenchmarkHarness.Result sequential = run(harness, "sequential", scale, attendees, days, ForkJoinPool.commonPool(), Long.MAX_VALUE);
+        System.out.println(sequential);
+        for (int threads = 2; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            final BenchmarkHarness.Result parallel = run(harness, "parallel(" + threads + " threads)", scale, attendees, days, pool, 0);
+            pool.shutdown();
+            System.out.println(parallel + String.format(Locale.ROOT, "  speedup=%.2fx", (double) sequential.p50Nanos() / parallel.p50Nanos()));
+        }
+    }
+
+    private static BenchmarkHarness.Result run(final BenchmarkHarness harness, final String benchmark, final String scale, final int attendees, final int days,
+                                               final ForkJoinPool pool, final long parallelThreshold) {
+        final SchedulingService schedulingService = new MinimalSchedulingService(new InMemoryPersonRepository(new HashSet<>()), new InMemoryMeetingRepository(new HashSet<>()),
+                Clock.systemDefaultZone(), MinimalSchedulingService.DEFAULT_ARCHIVE_HORIZON, null, pool, parallelThreshold);
+        final List<String> emails = populate(schedulingService, new SplittableRandom(42));
+        final SplittableRandom random = new SplittableRandom(7);
+        return harness.run("suggestTimeSlots " + benchmark, scale, i -> {
+            final LocalDateTime startTime = HORIZON_START.atStartOfDay().plusHours(random.nextInt(24 * (HORIZON_DAYS - days)));
+            final LocalDateTime endTime = startTime.plusDays(days);
+            schedulingService.suggestTimeSlots(randomAttendees(random, emails, attendees), startTime.toLocalDate(), startTime.getHour(),
+                    endTime.toLocalDate(), endTime.getHour());
+        });
+    }
+
+    private static List<String> populate(final SchedulingService schedulingService, final SplittableRandom random) {
+        final List<String> emails = new ArrayList<>(PERSONS);
+        for (int i = 0; i < PERSONS; i++) {
+            emails.add("person" + i + "@benchmark.com");
+            schedulingService.createPerson("Person " + i, emails.get(i));
+        }
+        final List<MeetingRequest> batch = new ArrayList<>(MEETINGS);
+        for (int i = 0; i < MEETINGS; i++) {
+            final LocalDateTime startTime = HORIZON_START.atStartOfDay().plusHours(random.nextInt(24 * HORIZON_DAYS));
+            batch.add(new MeetingRequest(randomAttendees(random, emails, 2 + random.nextInt(3)), startTime.toLocalDate(), startTime.getHour(), false));
+        }
+        schedulingService.createMeetings(batch);
+        return emails;
+    }
+
+    private static Set<String> randomAttendees(final SplittableRandom random, final List<String> emails, final int count) {
+        final Set<String> attendees = new HashSet<>();
+        while (attendees.size() < Math.min(count, emails.size())) {
+            attendees.add(emails.get(random.nextInt(emails.size())));
+        }
+        return attendees;
+    }
+}
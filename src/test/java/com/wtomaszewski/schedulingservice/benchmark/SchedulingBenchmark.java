@@ -0,0 +1,188 @@
+package test.java.com.wtomaszewski.schedulingservice.benchmark;
+
+import main.java.com.wtomaszewski.schedulingservice.api.InstrumentedSchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.api.MinimalSchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.api.SchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
+import main.java.com.wtomaszewski.schedulingservice.metrics.SchedulingMetrics;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmarks every SchedulingAPI operation against a synthetic population.
+ * Usage: SchedulingBenchmark [--scale=1k|100k|10m] [--warmup=N] [--operations=N] [--metrics=off|disabled|enabled] [--label=commit] [--out=results.jsonl]
+ * --metrics wraps the API in InstrumentedSchedulingAPI with recording switched off or on, to measure the instrumentation overhead.
+ * Results are printed as a table and appended as JSON lines to the --out file, so runs of different commits can be compared.
+ */
+public class SchedulingBenchmark {
+
+    private static final LocalDate HORIZON_START = LocalDate.of(2024, 1, 1);
+    private static final int MEETINGS_PER_PERSON = 100;
+    private static final int IMPORT_BATCH_SIZE = 10_000;
+
+    private final String scale;
+    private final int personsCount;
+    private final int meetingsCount;
+    private final int horizonHours;
+    private final List<String> emails;
+    private final SchedulingAPI schedulingAPI;
+    private final SchedulingMetrics metrics;
+
+    public SchedulingBenchmark(final String scale, final int meetingsCount, final String metricsMode) {
+        this.scale = scale;
+        this.meetingsCount = meetingsCount;
+        this.personsCount = Math.max(100, meetingsCount / MEETINGS_PER_PERSON * 2);
+        this.horizonHours = Math.max(24 * 7, MEETINGS_PER_PERSON * 4);
+        this.emails = new ArrayList<>(personsCount);
+        this.metrics = new SchedulingMetrics(metricsMode.equals("enabled"));
+        final SchedulingAPI api = new MinimalSchedulingAPI(new MinimalSchedulingService(new InMemoryPersonRepository(), new InMemoryMeetingRepository(),
+                Clock.systemDefaultZone(), MinimalSchedulingService.DEFAULT_ARCHIVE_HORIZON, metrics));
+        this.schedulingAPI = metricsMode.equals("off") ? api : new InstrumentedSchedulingAPI(api, metrics);
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final Map<String, String> options = parseOptions(args);
+        final String scale = options.getOrDefault("scale", "100k");
+        final int operations = Integer.parseInt(options.getOrDefault("operations", "20000"));
+        final BenchmarkHarness harness = new BenchmarkHarness(Integer.parseInt(options.getOrDefault("warmup", "20000")), operations);
+
+        final SchedulingBenchmark benchmark = new SchedulingBenchmark(scale, parseScale(scale), options.getOrDefault("metrics", "off"));
+        final long populateStart = System.nanoTime();
+        benchmark.populate(new SplittableRandom(42));
+        System.out.printf("populated %d persons and %d meetings in %d ms%n", benchmark.personsCount, benchmark.meetingsCount,
+                (System.nanoTime() - populateStart) / 1_000_000);
+
+        final List<BenchmarkHarness.Result> results = benchmark.runAll(harness, new SplittableRandom(7));
+        results.forEach(System.out::println);
+        System.out.print(benchmark.metrics.dump());
+        if (options.containsKey("out")) {
+            writeResults(Path.of(options.get("out")), options.getOrDefault("label", "unlabeled"), results);
+        }
+    }
+
+    public void populate(final SplittableRandom random) {
+        for (int i = 0; i < personsCount; i++) {
+            final String email = "person" + i + "@benchmark.com";
+            schedulingAPI.createPerson("Person " + i, email);
+            emails.add(email);
+        }
+        final List<MeetingRequest> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        for (int i = 0; i < meetingsCount; i++) {
+            final LocalDateTime startTime = randomStartTime(random);
+            batch.add(new MeetingRequest(randomAttendees(random, 2 + random.nextInt(3)), startTime.toLocalDate(), startTime.getHour(), false));
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                schedulingAPI.createMeetings(batch);
+                batch.clear();
+            }
+        }
+        schedulingAPI.createMeetings(batch);
+    }
+
+    public List<BenchmarkHarness.Result> runAll(final BenchmarkHarness harness, final SplittableRandom random) {
+        final List<BenchmarkHarness.Result> results = new ArrayList<>();
+        results.add(harness.run("createPerson", scale, i -> schedulingAPI.createPerson("New person " + i, "new" + i + "@benchmark.com")));
+        results.add(harness.run("createMeeting", scale, i -> {
+            final LocalDateTime startTime = randomStartTime(random);
+            schedulingAPI.createMeeting(randomAttendees(random, 3), startTime.toLocalDate(), startTime.getHour(), false);
+        }));
+        results.add(harness.run("createMeeting(checkConflicts)", scale, i -> {
+            final LocalDateTime startTime = randomStartTime(random);
+            try {
+                schedulingAPI.createMeeting(randomAttendees(random, 3), startTime.toLocalDate(), startTime.getHour(), true);
+            } catch (MeetingTimeslotConflictException e) {
+                // conflicts are part of the measured workload
+            }
+        }));
+        results.add(harness.run("getSchedule", scale, i -> {
+            final LocalDateTime startTime = randomStartTime(random);
+            schedulingAPI.getSchedule(randomEmail(random), startTime.toLocalDate(), startTime.getHour());
+        }));
+        results.add(harness.run("getSchedule(week)", scale, i -> {
+            final LocalDateTime startTime = randomStartTime(random);
+            final LocalDateTime endTime = startTime.plusWeeks(1);
+            schedulingAPI.getSchedule(randomEmail(random), startTime.toLocalDate(), startTime.getHour(), endTime.toLocalDate(), endTime.getHour());
+        }));
+        results.add(suggestTimeSlots(harness, random, 5, 7));
+        results.add(suggestTimeSlots(harness, random, 20, 91));
+        results.add(suggestTimeSlots(harness, random, 200, 91));
+        results.add(harness.run("findFirstCommonSlots(200 persons, 91 days, 5 working hour slots)", scale, i -> {
+            final LocalDateTime startTime = randomStartTime(random);
+            final LocalDateTime endTime = startTime.plusDays(91);
+            schedulingAPI.findFirstCommonSlots(randomAttendees(random, 200), startTime.toLocalDate(), startTime.getHour(), endTime.toLocalDate(), endTime.getHour(), 5,
+                    SlotConstraints.workingHours(9, 17));
+        }));
+        return results;
+    }
+
+    private BenchmarkHarness.Result suggestTimeSlots(final BenchmarkHarness harness, final SplittableRandom random, final int attendees, final int days) {
+        return harness.run("suggestTimeSlots(" + attendees + " persons, " + days + " days)", scale, i -> {
+            final LocalDateTime startTime = randomStartTime(random);
+            final LocalDateTime endTime = startTime.plusDays(days);
+            schedulingAPI.suggestTimeSlots(randomAttendees(random, attendees), startTime.toLocalDate(), startTime.getHour(), endTime.toLocalDate(), endTime.getHour());
+        });
+    }
+
+    private LocalDateTime randomStartTime(final SplittableRandom random) {
+        return HORIZON_START.atStartOfDay().plusHours(random.nextInt(horizonHours));
+    }
+
+    private String randomEmail(final SplittableRandom random) {
+        return emails.get(random.nextInt(emails.size()));
+    }
+
+    private Set<String> randomAttendees(final SplittableRandom random, final int count) {
+        final Set<String> attendees = new HashSet<>();
+        while (attendees.size() < Math.min(count, emails.size())) {
+            attendees.add(randomEmail(random));
+        }
+        return attendees;
+    }
+
+    private static int parseScale(final String scale) {
+        final String normalized = scale.toLowerCase();
+        if (normalized.endsWith("m")) {
+            return Integer.parseInt(normalized.substring(0, normalized.length() - 1)) * 1_000_000;
+        }
+        if (normalized.endsWith("k")) {
+            return Integer.parseInt(normalized.substring(0, normalized.length() - 1)) * 1_000;
+        }
+        return Integer.parseInt(normalized);
+    }
+
+    private static Map<String, String> parseOptions(final String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    private static void writeResults(final Path out, final String label, final List<BenchmarkHarness.Result> results) throws IOException {
+        try (PrintStream printStream = new PrintStream(Files.newOutputStream(out, StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            for (BenchmarkHarness.Result result : results) {
+                printStream.println(result.toJson(label));
+            }
+        }
+    }
+}
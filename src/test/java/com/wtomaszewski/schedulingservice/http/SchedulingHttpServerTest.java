@@ -0,0 +1,150 @@
+package test.java.com.wtomaszewski.schedulingservice.http;
+
+import main.java.com.wtomaszewski.schedulingservice.api.MinimalSchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.http.Json;
+import main.java.com.wtomaszewski.schedulingservice.http.SchedulingHttpServer;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_HOUR;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_LOCAL_DATE;
+
+public class SchedulingHttpServerTest {
+
+    private SchedulingHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new SchedulingHttpServer(new MinimalSchedulingAPI(new InMemoryPersonRepository(), new InMemoryMeetingRepository()),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldCreateMeetingAndServeScheduleAsJson() throws Exception {
+        assertEquals(201, post("/persons", personJson(PERSON_1_NAME, PERSON_1_EMAIL)).statusCode());
+        assertEquals(201, post("/persons", personJson(PERSON_2_NAME, PERSON_2_EMAIL)).statusCode());
+        assertEquals(201, post("/meetings", meetingJson(true)).statusCode());
+
+        final HttpResponse<String> schedule = get("/schedule?email=" + PERSON_1_EMAIL + "&date=" + START_LOCAL_DATE + "&hour=" + START_HOUR);
+        assertEquals(200, schedule.statusCode());
+        assertEquals(List.of(Map.of("persons", List.of(PERSON_1_EMAIL, PERSON_2_EMAIL),
+                "startTime", START_LOCAL_DATE.atTime(START_HOUR, 0).toString(), "endTime", START_LOCAL_DATE.atTime(START_HOUR + 1, 0).toString())),
+                Json.parse(schedule.body()));
+
+        final String startTime = START_LOCAL_DATE.atTime(START_HOUR - 1, 15).toString();
+        final String endTime = START_LOCAL_DATE.atTime(START_HOUR - 1, 45).toString();
+        assertEquals(201, post("/meetings", Json.write(Map.of("personEmails", List.of(PERSON_1_EMAIL), "startTime", startTime, "endTime", endTime,
+                "checkConflicts", true))).statusCode());
+        final HttpResponse<String> timedSchedule = get("/schedule?email=" + PERSON_1_EMAIL + "&date=" + START_LOCAL_DATE + "&hour=" + (START_HOUR - 1)
+                + "&endDate=" + START_LOCAL_DATE + "&endHour=" + START_HOUR);
+        assertEquals(List.of(Map.of("persons", List.of(PERSON_1_EMAIL), "startTime", startTime, "endTime", endTime)), Json.parse(timedSchedule.body()));
+
+        final HttpResponse<String> timeSlots = get("/time-slots?emails=" + PERSON_1_EMAIL + "," + PERSON_2_EMAIL
+                + "&startDate=" + START_LOCAL_DATE + "&startHour=" + START_HOUR + "&endDate=" + START_LOCAL_DATE + "&endHour=" + (START_HOUR + 2));
+        assertEquals(200, timeSlots.statusCode());
+        assertEquals(List.of(START_LOCAL_DATE.atTime(START_HOUR + 1, 0).toString()), Json.parse(timeSlots.body()));
+    }
+
+    @Test
+    void shouldMapServiceErrorsToStatusCodes() throws Exception {
+        post("/persons", personJson(PERSON_1_NAME, PERSON_1_EMAIL));
+        post("/persons", personJson(PERSON_2_NAME, PERSON_2_EMAIL));
+        post("/meetings", meetingJson(true));
+
+        assertEquals(409, post("/persons", personJson(PERSON_1_NAME, PERSON_1_EMAIL)).statusCode());
+        assertEquals(409, post("/meetings", meetingJson(true)).statusCode());
+        assertEquals(404, post("/meetings", Json.write(Map.of("personEmails", List.of("unknown@test.com"), "date", START_LOCAL_DATE,
+                "hour", START_HOUR))).statusCode());
+        assertEquals(400, post("/persons", "{\"name\": ").statusCode());
+        assertEquals(400, post("/meetings/first-available", Json.write(Map.of("personEmails", List.of(PERSON_1_EMAIL), "startDate", START_LOCAL_DATE,
+                "startHour", START_HOUR, "endDate", START_LOCAL_DATE, "endHour", START_HOUR - 1))).statusCode());
+        assertEquals(400, post("/meetings", Json.write(Map.of("personEmails", List.of(PERSON_1_EMAIL), "startTime", START_LOCAL_DATE.atTime(START_HOUR, 30).toString(),
+                "endTime", START_LOCAL_DATE.atTime(START_HOUR, 10).toString()))).statusCode());
+        assertEquals(400, get("/schedule?email=" + PERSON_1_EMAIL).statusCode());
+        assertEquals(405, get("/meetings").statusCode());
+        assertEquals(404, get("/persons/unknown").statusCode());
+    }
+
+    @Test
+    void shouldAnswerPipelinedRequestsOnOneConnection() throws Exception {
+        post("/persons", personJson(PERSON_1_NAME, PERSON_1_EMAIL));
+        final String request = "GET /schedule?email=" + PERSON_1_EMAIL + "&date=" + START_LOCAL_DATE + "&hour=" + START_HOUR + " HTTP/1.1\r\n"
+                + "Host: localhost\r\n\r\n";
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            final OutputStream output = socket.getOutputStream();
+            output.write((request + request).getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            for (int i = 0; i < 2; i++) {
+                assertEquals("HTTP/1.1 200 OK", reader.readLine());
+                int contentLength = -1;
+                String header;
+                while (!(header = reader.readLine()).isEmpty()) {
+                    if (header.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+                    }
+                }
+                final char[] body = new char[contentLength];
+                int read = 0;
+                while (read < contentLength) {
+                    read += reader.read(body, read, contentLength - read);
+                }
+                assertEquals("[]", new String(body));
+            }
+        }
+    }
+
+    private HttpResponse<String> post(final String path, final String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(final String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort() + path);
+    }
+
+    private static String personJson(final String name, final String email) {
+        return Json.write(Map.of("name", name, "email", email));
+    }
+
+    private static String meetingJson(final boolean checkConflicts) {
+        return Json.write(Map.of("personEmails", List.of(PERSON_1_EMAIL, PERSON_2_EMAIL), "date", START_LOCAL_DATE,
+                "hour", START_HOUR, "checkConflicts", checkConflicts));
+    }
+}
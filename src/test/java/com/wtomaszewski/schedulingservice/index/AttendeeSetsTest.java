@@ -0,0 +1,74 @@
+package test.java.com.wtomaszewski.schedulingservice.index;
+
+import main.java.com.wtomaszewski.schedulingservice.index.AttendeeSets;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonEntry;
+import main.java.com.wtomaszewski.schedulingservice.index.PersonIndex;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class AttendeeSetsTest {
+
+    @Test
+    void shouldShareTheArrayOfTheSameAttendees() {
+        PersonEntry[] persons = registerPersons(3);
+        AttendeeSets attendeeSets = new AttendeeSets();
+
+        int[] first = attendeeSets.intern(new PersonEntry[]{persons[2], persons[0]});
+        int[] second = attendeeSets.intern(new PersonEntry[]{persons[0], persons[2]});
+
+        assertSame(first, second);
+        assertArrayEquals(new int[]{persons[0].id(), persons[2].id()}, first);
+        assertEquals(1, attendeeSets.size());
+    }
+
+    @Test
+    void shouldKeepOneArrayPerGroupOfRecurringMeetings() {
+        PersonEntry[] persons = registerPersons(50);
+        AttendeeSets attendeeSets = new AttendeeSets();
+        int[][] meetings = new int[10_000][];
+
+        for (int i = 0; i < meetings.length; i++) {
+            int organizer = i % persons.length;
+            PersonEntry partner = persons[(organizer + 1 + (i / persons.length) % 7) % persons.length];
+            meetings[i] = attendeeSets.intern(new PersonEntry[]{persons[organizer], partner});
+        }
+
+        assertEquals(persons.length * 7, attendeeSets.size());
+        for (int i = persons.length * 7; i < meetings.length; i++) {
+            assertSame(meetings[i - persons.length * 7], meetings[i]);
+        }
+    }
+
+    @Test
+    void shouldDropSetsNoLongerReferenced()throws InterruptedException {
+        PersonEntry[] persons = registerPersons(100);
+        AttendeeSets attendeeSets = new AttendeeSets();
+        int[] kept = attendeeSets.intern(new PersonEntry[]{persons[0]});
+        for (int i = 1; i < persons.length; i++) {
+            attendeeSets.intern(new PersonEntry[]{persons[0], persons[i]});
+        }
+
+        for (int attempt = 0; attempt < 50 && attendeeSets.size() > 1; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, attendeeSets.size());
+        assertSame(kept, attendeeSets.intern(new PersonEntry[]{persons[0]}));
+    }
+
+    private static PersonEntry[] registerPersons(final int count) {
+        PersonIndex personIndex = new PersonIndex();
+        PersonEntry[] persons = new PersonEntry[count];
+        for (int i = 0; i < count; i++) {
+            String email = "person" + i + "@example.com";
+            personIndex.register(new Person("Person " + i, email), person -> { });
+            persons[i] = personIndex.get(email);
+        }
+        return persons;
+    }
+}
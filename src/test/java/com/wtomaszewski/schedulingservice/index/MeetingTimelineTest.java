@@ -0,0 +1,60 @@
+package test.java.com.wtomaszewski.schedulingservice.index;
+
+import main.java.com.wtomaszewski.schedulingservice.availability.ReservationBitmap;
+import main.java.com.wtomaszewski.schedulingservice.index.MeetingRecord;
+import main.java.com.wtomaszewski.schedulingservice.index.MeetingTimeline;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static main.java.com.wtomaszewski.schedulingservice.index.WeekMeetings.weekOf;
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MeetingTimelineTest {
+
+    private static final long MONDAY_NINE = getEpochHour(LocalDate.of(2024, 1, 1), 9);
+
+    @Test
+    void shouldReturnTheSameMeetingsAfterArchival() {
+        MeetingTimeline timeline = new MeetingTimeline();
+        MeetingRecord first = new MeetingRecord(MONDAY_NINE, new int[]{0, 1});
+        MeetingRecord second = new MeetingRecord(MONDAY_NINE, new int[]{2});
+        MeetingRecord nextWeek = new MeetingRecord(MONDAY_NINE + ReservationBitmap.CHUNK_HOURS, new int[]{0});
+        timeline.add(MONDAY_NINE, first);
+        timeline.add(MONDAY_NINE, second);
+        timeline.add(nextWeek.epochHour(), nextWeek);
+
+        timeline.archiveBefore(weekOf(nextWeek.epochHour()));
+
+        assertEquals(1, timeline.archivedPartitions());
+        assertEquals(1, timeline.hotPartitions());
+        MeetingRecord[] archived = timeline.get(MONDAY_NINE);
+        assertEquals(2, archived.length);
+        assertEquals(MONDAY_NINE, archived[0].epochHour());
+        assertArrayEquals(first.attendeeIds(), archived[0].attendeeIds());
+        assertArrayEquals(second.attendeeIds(), archived[1].attendeeIds());
+        assertNull(timeline.get(MONDAY_NINE + 1));
+        assertArrayEquals(new MeetingRecord[]{nextWeek}, timeline.get(nextWeek.epochHour()));
+    }
+
+    @Test
+    void shouldThawArchivedWeekOnInsert() {
+        MeetingTimeline timeline = new MeetingTimeline();
+        timeline.add(MONDAY_NINE, new MeetingRecord(MONDAY_NINE, new int[]{0}));
+        timeline.archiveBefore(weekOf(MONDAY_NINE) + 1);
+
+        timeline.add(MONDAY_NINE + 1, new MeetingRecord(MONDAY_NINE + 1, new int[]{1}));
+
+        assertEquals(0, timeline.archivedPartitions());
+        assertEquals(1, timeline.get(MONDAY_NINE).length);
+        assertEquals(1, timeline.get(MONDAY_NINE + 1).length);
+
+        timeline.archiveBefore(weekOf(MONDAY_NINE) + 1);
+
+        assertEquals(1, timeline.archivedPartitions());
+        assertEquals(1, timeline.get(MONDAY_NINE + 1)[0].attendeeIds()[0]);
+    }
+}
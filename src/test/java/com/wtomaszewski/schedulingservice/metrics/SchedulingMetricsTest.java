@@ -0,0 +1,105 @@
+package test.java.com.wtomaszewski.schedulingservice.metrics;
+
+import main.java.com.wtomaszewski.schedulingservice.api.InstrumentedSchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.api.MinimalSchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.api.SchedulingAPI;
+import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
+import main.java.com.wtomaszewski.schedulingservice.exception.PersonNotExistException;
+import main.java.com.wtomaszewski.schedulingservice.metrics.Histogram;
+import main.java.com.wtomaszewski.schedulingservice.metrics.Operation;
+import main.java.com.wtomaszewski.schedulingservice.metrics.OperationMetrics;
+import main.java.com.wtomaszewski.schedulingservice.metrics.SchedulingMetrics;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_HOUR;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_LOCAL_DATE;
+
+public class SchedulingMetricsTest {
+
+    private SchedulingMetrics metrics;
+    private SchedulingAPI schedulingAPI;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new SchedulingMetrics(true);
+        final MinimalSchedulingService schedulingService = new MinimalSchedulingService(new InMemoryPersonRepository(new HashSet<>()),
+                new InMemoryMeetingRepository(new HashSet<>()), Clock.systemDefaultZone(), MinimalSchedulingService.DEFAULT_ARCHIVE_HORIZON, metrics);
+        schedulingAPI = new InstrumentedSchedulingAPI(new MinimalSchedulingAPI(schedulingService), metrics);
+    }
+
+    @Test
+    void shouldReportPercentilesWithinBucketPrecision() {
+        final Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 0.001);
+        assertEquals(50_000, histogram.getPercentile(0.5), 50_000 / 16.0);
+        assertEquals(99_000, histogram.getPercentile(0.99), 99_000 / 16.0);
+        assertEquals(100_000, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void shouldCountOutcomesAndScannedVersusReturnedMeetings() {
+        schedulingAPI.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingAPI.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        schedulingAPI.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, false);
+        schedulingAPI.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, false);
+        assertThrows(MeetingTimeslotConflictException.class, () -> schedulingAPI.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, true));
+        assertThrows(PersonNotExistException.class, () -> schedulingAPI.createMeeting(Set.of("unknown@test.com"), START_LOCAL_DATE, START_HOUR, true));
+
+        assertEquals(1, schedulingAPI.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR).size());
+
+        final OperationMetrics createMeeting = metrics.get(Operation.CREATE_MEETING);
+        assertEquals(4, createMeeting.getCalls());
+        assertEquals(2, createMeeting.getFailures());
+        assertEquals(1, createMeeting.getConflicts());
+        assertEquals(1, createMeeting.getUnknownPersons());
+        assertTrue(createMeeting.getLatencyMaxNanos() > 0);
+        final OperationMetrics getSchedule = metrics.get(Operation.GET_SCHEDULE);
+        assertEquals(1.0, getSchedule.getMeanResultSize());
+        assertEquals(2.0, getSchedule.getMeanScanned());
+        assertTrue(metrics.dump().contains("getSchedule"));
+        assertFalse(metrics.dump().contains("suggestTimeSlots"));
+    }
+
+    @Test
+    void shouldStopRecordingWhenDisabledThroughJmx() throws Exception {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        metrics.registerMBeans(server, "test");
+        try {
+            schedulingAPI.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            assertEquals(1L, server.getAttribute(SchedulingMetrics.objectName("test", Operation.CREATE_PERSON), "Calls"));
+
+            server.setAttribute(SchedulingMetrics.objectName("test", null), new Attribute("Enabled", false));
+            schedulingAPI.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+
+            assertFalse(metrics.isEnabled());
+            assertEquals(1, metrics.get(Operation.CREATE_PERSON).getCalls());
+        } finally {
+            metrics.unregisterMBeans(server, "test");
+        }
+    }
+}
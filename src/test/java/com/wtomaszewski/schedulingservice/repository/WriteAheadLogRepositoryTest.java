@@ -0,0 +1,323 @@
+package test.java.com.wtomaszewski.schedulingservice.repository;
+
+import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
+import main.java.com.wtomaszewski.schedulingservice.exception.PersistenceException;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.Person;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.repository.WriteAheadLogRepository;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+import main.java.com.wtomaszewski.schedulingservice.service.PreparedMeeting;
+import main.java.com.wtomaszewski.schedulingservice.service.SchedulingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static main.java.com.wtomaszewski.schedulingservice.util.SchedulingUtils.getEpochHour;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.END_HOUR;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_HOUR;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_LOCAL_DATE;
+
+public class WriteAheadLogRepositoryTest {
+
+    private static final long START_HOUR_MINUTE = getEpochHour(START_LOCAL_DATE, START_HOUR) * 60;
+
+    private Path directory;
+    private Path logFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("scheduling-wal");
+        logFile = directory.resolve("scheduling.log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void shouldRestorePersonsAndMeetingsAfterRestart() {
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true);
+            schedulingService.createMeetings(List.of(
+                    new MeetingRequest(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1, true),
+                    new MeetingRequest(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 2, true)));
+        }
+
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+
+            assertEquals(2, schedulingService.getPersonsMap().size());
+            assertEquals(2, schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR).size());
+            assertEquals(2, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, START_HOUR).size());
+            assertThrows(MeetingTimeslotConflictException.class, () ->
+                    schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true));
+            assertEquals(END_HOUR - START_HOUR - 3, schedulingService.suggestTimeSlots(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, START_LOCAL_DATE, END_HOUR).size());
+        }
+    }
+
+    @Test
+    void shouldNotLogRejectedMeetings() {
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile, Duration.ZERO)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, true);
+            assertThrows(MeetingTimeslotConflictException.class, () ->
+                    schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, true));
+        }
+
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            assertEquals(1, repository.getMeetings().size());
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornRecordAtTheEndOfLog() throws IOException {
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR);
+        }
+        Files.write(segmentFiles().get(0), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1);
+        }
+
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            Set<Meeting> meetings = repository.getMeetings();
+
+            assertEquals(1, repository.getPersons().size());
+            assertEquals(2, meetings.size());
+        }
+    }
+
+    @Test
+    void shouldFailOnCorruptRecordInSealedSegmentWithoutDeletingIt() throws IOException {
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile, Duration.ZERO)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            for (int day = 0; day < 5; day++) {
+                schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE.plusDays(day), START_HOUR);
+            }
+            Path segmentFile = segmentFiles().get(0);
+            byte[] segment = Files.readAllBytes(segmentFile);
+            segment[segment.length / 2] ^= 1;
+            Files.write(segmentFile, segment);
+
+            assertThrows(PersistenceException.class, repository::compact);
+        }
+
+        assertFalse(Files.exists(directory.resolve("scheduling.log.snapshot")));
+        assertEquals(2, segmentFiles().size());
+        assertThrows(PersistenceException.class, () -> new WriteAheadLogRepository(logFile));
+    }
+
+    @Test
+    void shouldRestoreFromSnapshotAndLogTail() throws IOException {
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1, true);
+            repository.compact();
+            schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true);
+        }
+
+        assertTrue(Files.exists(directory.resolve("scheduling.log.snapshot")));
+        assertEquals(1, segmentFiles().size());
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+
+            assertEquals(2, schedulingService.getPersonsMap().size());
+            assertEquals(2, repository.getMeetings().size());
+            assertEquals(List.of(START_HOUR, START_HOUR + 1), schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR).stream()
+                    .map(meeting -> meeting.startTime().getHour())
+                    .toList());
+            assertThrows(MeetingTimeslotConflictException.class, () ->
+                    schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1, true));
+        }
+    }
+
+    @Test
+    void shouldCompactSealedSegmentsInBackground() throws IOException {
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile, Duration.ZERO, 256)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+            for (int day = 0; day < 20; day++) {
+                schedulingService.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE.plusDays(day), START_HOUR, true);
+            }
+        }
+
+        assertTrue(Files.exists(directory.resolve("scheduling.log.snapshot")));
+        assertTrue(segmentFiles().size() <= 2);
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+
+            assertEquals(20, repository.getMeetings().size());
+            assertEquals(20, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, START_HOUR).size());
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("scheduling\\.log\\.\\d+"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Test
+    void shouldRestoreRecurringMeetingsFromLogAndSnapshot() {
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+            schedulingService.createRecurringMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR,
+                    Recurrence.until(Recurrence.Frequency.WEEKLY, 1, START_LOCAL_DATE.plusWeeks(9)), true);
+            repository.compact();
+            schedulingService.createRecurringMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1,
+                    Recurrence.times(Recurrence.Frequency.MONTHLY, 1, 12), true);
+        }
+
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+
+            assertEquals(2, repository.getRecurringMeetings().size());
+            assertEquals(22, schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0).size());
+            assertEquals(10, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, 0).size());
+            assertThrows(MeetingTimeslotConflictException.class, () ->
+                    schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE.plusWeeks(9), START_HOUR, true));
+        }
+    }
+
+    @Test
+    void shouldRestoreMeetingsWithMinutesFromLogAndSnapshot() {
+        LocalDateTime start = START_LOCAL_DATE.atTime(START_HOUR, 0);
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), start.plusMinutes(15), Duration.ofMinutes(30), true);
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1, true);
+            repository.compact();
+            schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), start.plusMinutes(50), Duration.ofMinutes(100), true);
+        }
+
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+
+            assertEquals(Set.of(new Meeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), start.plusMinutes(15), start.plusMinutes(45)),
+                            new Meeting(Set.of(PERSON_1_EMAIL), start.plusHours(1), start.plusHours(2))),
+                    schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0));
+            assertEquals(2, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, 0).size());
+            assertThrows(MeetingTimeslotConflictException.class, () ->
+                    schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), start.plusMinutes(140), Duration.ofMinutes(5), true));
+            schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), start.plusMinutes(150), Duration.ofMinutes(5), true);
+        }
+    }
+
+    @Test
+    void shouldRestoreGuestsOfMeetingsWithoutStoringThemAsPersons() {
+        final String guest = "guest@other-shard.com";
+        LocalDateTime start = START_LOCAL_DATE.atTime(START_HOUR, 0);
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            MinimalSchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.commitPrepared(schedulingService.prepareMeeting(Set.of(PERSON_1_EMAIL, guest), START_HOUR_MINUTE, START_HOUR_MINUTE + 60));
+            repository.compact();
+            schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+            schedulingService.commitPrepared(schedulingService.prepareMeeting(Set.of(PERSON_2_EMAIL, guest), START_HOUR_MINUTE + 75, START_HOUR_MINUTE + 105));
+            schedulingService.commitPrepared(schedulingService.prepareRecurringMeeting(Set.of(PERSON_1_EMAIL, guest), START_LOCAL_DATE, START_HOUR + 3,
+                    Recurrence.times(Recurrence.Frequency.DAILY, 1, 2)));
+
+            assertEquals(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), schedulingService.getPersonsMap().keySet());
+        }
+
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+
+            assertEquals(2, repository.getPersons().size());
+            assertEquals(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), schedulingService.getPersonsMap().keySet());
+            assertEquals(Set.of(new Meeting(Set.of(PERSON_1_EMAIL, guest), start), new Meeting(Set.of(PERSON_1_EMAIL, guest), start.plusHours(3)),
+                            new Meeting(Set.of(PERSON_1_EMAIL, guest), start.plusDays(1).plusHours(3))),
+                    schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0));
+            assertEquals(Set.of(new Meeting(Set.of(PERSON_2_EMAIL, guest), start.plusMinutes(75), start.plusMinutes(105))),
+                    schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, 0));
+            assertTrue(schedulingService.getSchedule(guest, START_LOCAL_DATE, 0).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldRestorePreparedMeetingsUnlessAborted() {
+        LocalDateTime start = START_LOCAL_DATE.atTime(START_HOUR, 0);
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            MinimalSchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+            schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+            schedulingService.prepareMeeting(Set.of(PERSON_1_EMAIL), START_HOUR_MINUTE, START_HOUR_MINUTE + 60);
+            schedulingService.abortPrepared(schedulingService.prepareMeeting(Set.of(PERSON_1_EMAIL), START_HOUR_MINUTE + 60, START_HOUR_MINUTE + 120));
+            PreparedMeeting abortedAfterCompaction = schedulingService.prepareMeeting(Set.of(PERSON_2_EMAIL), START_HOUR_MINUTE, START_HOUR_MINUTE + 60);
+            repository.compact();
+            schedulingService.abortPrepared(abortedAfterCompaction);
+            schedulingService.commitPrepared(schedulingService.prepareMeeting(Set.of(PERSON_2_EMAIL), START_HOUR_MINUTE + 120, START_HOUR_MINUTE + 150));
+        }
+
+        for (int restart = 0; restart < 2; restart++) {
+            try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+                SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+
+                assertEquals(Set.of(new Meeting(Set.of(PERSON_1_EMAIL), start)), schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0));
+                assertEquals(Set.of(new Meeting(Set.of(PERSON_2_EMAIL), start.plusHours(2), start.plusMinutes(150))),
+                        schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, 0));
+                repository.compact();
+            }
+        }
+    }
+
+    @Test
+    void shouldRestoreTimeZonesOfPersonsFromLogAndSnapshot() {
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+            schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL, ZoneId.of("Asia/Kolkata"));
+            repository.compact();
+            schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL, ZoneId.of("America/New_York"));
+        }
+
+        try (WriteAheadLogRepository repository = new WriteAheadLogRepository(logFile)) {
+            SchedulingService schedulingService = new MinimalSchedulingService(repository, repository);
+
+            assertEquals(new Person(PERSON_1_NAME, PERSON_1_EMAIL, ZoneId.of("Asia/Kolkata")), schedulingService.getPersonsMap().get(PERSON_1_EMAIL));
+            assertEquals(new Person(PERSON_2_NAME, PERSON_2_EMAIL, ZoneId.of("America/New_York")), schedulingService.getPersonsMap().get(PERSON_2_EMAIL));
+        }
+    }
+}
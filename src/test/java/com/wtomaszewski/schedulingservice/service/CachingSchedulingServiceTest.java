@@ -0,0 +1,89 @@
+package test.java.com.wtomaszewski.schedulingservice.service;
+
+import main.java.com.wtomaszewski.schedulingservice.cache.CacheStats;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+import main.java.com.wtomaszewski.schedulingservice.service.CachingSchedulingService;
+import main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.END_HOUR;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_HOUR;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_LOCAL_DATE;
+
+public class CachingSchedulingServiceTest {
+
+    private CachingSchedulingService schedulingService;
+
+    @BeforeEach
+    void setUp() {
+        schedulingService = new CachingSchedulingService(new MinimalSchedulingService(new InMemoryPersonRepository(new HashSet<>()),
+                new InMemoryMeetingRepository(new HashSet<>())));
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+    }
+
+    @Test
+    void shouldServeRepeatedScheduleFromCacheAsImmutableView() {
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, true);
+
+        final Set<Meeting> schedule = schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR);
+
+        assertSame(schedule, schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR));
+        assertEquals(1, schedule.size());
+        assertThrows(UnsupportedOperationException.class, schedule::clear);
+        final CacheStats stats = schedulingService.getCacheStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.entries());
+    }
+
+    @Test
+    void shouldInvalidateOnlyWindowsOfAttendeesContainingNewMeeting() {
+        schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR, START_LOCAL_DATE, START_HOUR + 2);
+        schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR + 5, START_LOCAL_DATE, END_HOUR);
+        schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, START_HOUR, START_LOCAL_DATE, START_HOUR + 2);
+
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1, true);
+
+        assertEquals(1, schedulingService.getCacheStats().invalidations());
+        assertEquals(1, schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR, START_LOCAL_DATE, START_HOUR + 2).size());
+        assertEquals(0, schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR + 5, START_LOCAL_DATE, END_HOUR).size());
+        assertEquals(0, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, START_HOUR, START_LOCAL_DATE, START_HOUR + 2).size());
+        assertEquals(2, schedulingService.getCacheStats().hits());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedSchedulesBeyondByteLimit() {
+        final long maxBytes = 2_000;
+        schedulingService = new CachingSchedulingService(new MinimalSchedulingService(new InMemoryPersonRepository(new HashSet<>()),
+                new InMemoryMeetingRepository(new HashSet<>())), maxBytes);
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        for (int hour = 0; hour < 24; hour++) {
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, hour, true);
+        }
+
+        for (int hour = 0; hour < 24; hour++) {
+            schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, hour, START_LOCAL_DATE, 23);
+        }
+
+        final CacheStats stats = schedulingService.getCacheStats();
+        assertTrue(stats.evictions() > 0);
+        assertTrue(stats.estimatedBytes() <= maxBytes);
+        schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 23, START_LOCAL_DATE, 23);
+        assertEquals(stats.hits() + 1, schedulingService.getCacheStats().hits());
+    }
+}
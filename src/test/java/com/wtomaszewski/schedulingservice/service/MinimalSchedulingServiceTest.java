@@ -4,8 +4,17 @@ import main.java.com.wtomaszewski.schedulingservice.exception.DataInitialization
 import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
 import main.java.com.wtomaszewski.schedulingservice.exception.NotUniquePersonException;
 import main.java.com.wtomaszewski.schedulingservice.exception.PersonNotExistException;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingFeed;
+import main.java.com.wtomaszewski.schedulingservice.feed.MeetingSubscription;
 import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingRequest;
+import main.java.com.wtomaszewski.schedulingservice.model.MeetingResult;
+import main.java.com.wtomaszewski.schedulingservice.model.Page;
+import main.java.com.wtomaszewski.schedulingservice.model.PageCursor;
+import main.java.com.wtomaszewski.schedulingservice.model.Recurrence;
+import main.java.com.wtomaszewski.schedulingservice.model.SlotConstraints;
 import main.java.com.wtomaszewski.schedulingservice.model.Person;
+import main.java.com.wtomaszewski.schedulingservice.model.TimeRange;
 import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
 import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
 import main.java.com.wtomaszewski.schedulingservice.repository.MeetingRepository;
@@ -15,20 +24,35 @@ import main.java.com.wtomaszewski.schedulingservice.service.SchedulingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static main.java.com.wtomaszewski.schedulingservice.service.MinimalSchedulingService.INVALID_INPUT_ERROR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static test.java.com.wtomaszewski.schedulingservice.TestConstants.END_HOUR;
 import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_EMAIL;
 import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_NAME;
@@ -60,6 +84,17 @@ public class MinimalSchedulingServiceTest {
         assertEquals(expectedExceptionMessage, expectedThrown.getMessage());
     }
 
+    @Test
+    void shouldThrowDataInitializationExceptionWhenStoredMeetingHasUnknownPerson() {
+        PersonRepository personRepository = new InMemoryPersonRepository(Set.of(new Person(PERSON_1_NAME, PERSON_1_EMAIL)));
+        MeetingRepository meetingRepository = new InMemoryMeetingRepository(Set.of(new Meeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL),
+                LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR, 0)))));
+
+        DataInitializationException expectedThrown = assertThrows(DataInitializationException.class, () -> new MinimalSchedulingService(personRepository, meetingRepository));
+
+        assertTrue(expectedThrown.getCause() instanceof PersonNotExistException);
+    }
+
     @Test
     void shouldCreatePerson() {
         schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
@@ -150,6 +185,79 @@ public class MinimalSchedulingServiceTest {
         assertEquals(expectedExceptionMessage, expectedThrown.getMessage());
     }
 
+    @Test
+    void shouldReportAllConflictingAndUnknownAttendeesWithoutCreatingMeeting() {
+        final String unknownEmail = "unknown@test.com";
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true);
+
+        final MeetingResult rejected = schedulingService.tryCreateMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL, unknownEmail), START_LOCAL_DATE, START_HOUR);
+        final MeetingResult created = schedulingService.tryCreateMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 1);
+
+        assertFalse(rejected.isSuccess());
+        assertEquals(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), Set.copyOf(rejected.conflictingEmails()));
+        assertEquals(List.of(unknownEmail), rejected.unknownEmails());
+        assertSame(MeetingResult.SUCCESS, created);
+        assertEquals(1, schedulingService.getMeetings(START_LOCAL_DATE, START_HOUR).size());
+        assertEquals(1, schedulingService.getMeetings(START_LOCAL_DATE, START_HOUR + 1).size());
+    }
+
+    @Test
+    void shouldCreateMeetingsInBatch() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+
+        List<Meeting> meetings = schedulingService.createMeetings(List.of(
+                new MeetingRequest(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 2, true),
+                new MeetingRequest(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, true),
+                new MeetingRequest(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true)
+        ));
+
+        assertEquals(3, meetings.size());
+        assertEquals(LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR + 2, 0)), meetings.get(0).startTime());
+        assertEquals(Set.of(PERSON_1_EMAIL), meetings.get(1).persons());
+        assertEquals(2, schedulingService.getMeetings(START_LOCAL_DATE, START_HOUR).size());
+        assertEquals(2, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, START_HOUR).size());
+    }
+
+    @Test
+    void shouldNotCreateAnyMeetingWhenBatchContainsConflict() {
+        final String expectedExceptionMessage = String.format(MeetingTimeslotConflictException.EXCEPTION_MSG_FORMAT, PERSON_2_EMAIL);
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+
+        MeetingTimeslotConflictException expectedThrown = assertThrows(MeetingTimeslotConflictException.class, () ->
+                schedulingService.createMeetings(List.of(
+                        new MeetingRequest(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1, true),
+                        new MeetingRequest(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true),
+                        new MeetingRequest(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true)
+                ))
+        );
+
+        assertEquals(expectedExceptionMessage, expectedThrown.getMessage());
+        assertEquals(0, schedulingService.getMeetings(START_LOCAL_DATE, START_HOUR + 1).size());
+        assertEquals(0, schedulingService.getMeetings(START_LOCAL_DATE, START_HOUR).size());
+        assertEquals(0, schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR).size());
+    }
+
+    @Test
+    void shouldNotCreateAnyMeetingWhenBatchContainsUnknownPerson() {
+        final String expectedExceptionMessage = String.format(PersonNotExistException.EXCEPTION_MSG_FORMAT, PERSON_2_EMAIL);
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR);
+
+        PersonNotExistException expectedThrown = assertThrows(PersonNotExistException.class, () ->
+                schedulingService.createMeetings(List.of(
+                        new MeetingRequest(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1, true),
+                        new MeetingRequest(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 2, false)
+                ))
+        );
+
+        assertEquals(expectedExceptionMessage, expectedThrown.getMessage());
+        assertEquals(1, schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR).size());
+    }
+
     @Test
     void shouldGetScheduleMatchForTheSameMeetingForTwoPersons() {
         Set<String> attendees = new HashSet<>();
@@ -180,6 +288,137 @@ public class MinimalSchedulingServiceTest {
         }
     }
 
+    @Test
+    void shouldGetScheduleOnlyWithinBoundedWindow() {
+        LocalDateTime fixedDateTime = LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR, 0));
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+
+        for (int i = 0; i < 48; i++) {
+            schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), fixedDateTime.toLocalDate(), fixedDateTime.getHour());
+            fixedDateTime = fixedDateTime.plusHours(1);
+        }
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 1);
+
+        LocalDateTime windowEnd = LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR, 0)).plusHours(24);
+        List<Meeting> personMeetings = new ArrayList<>(schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR + 1, windowEnd.toLocalDate(), windowEnd.getHour()));
+
+        assertEquals(23, personMeetings.size());
+        assertEquals(LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR + 1, 0)), personMeetings.get(0).startTime());
+        assertEquals(windowEnd.minusHours(1), personMeetings.get(personMeetings.size() - 1).startTime());
+        assertEquals(1, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, START_HOUR, windowEnd.toLocalDate(), windowEnd.getHour()).size());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenScheduleWindowEndsBeforeStart() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+
+        IllegalArgumentException expectedThrown = assertThrows(IllegalArgumentException.class, () ->
+                schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, START_HOUR, START_LOCAL_DATE, START_HOUR - 1)
+        );
+
+        assertEquals(INVALID_INPUT_ERROR, expectedThrown.getMessage());
+    }
+
+    @Test
+    void shouldKeepServingMeetingsOlderThanArchiveHorizon() {
+        PersonRepository personRepository = new InMemoryPersonRepository(Set.of(new Person(PERSON_1_NAME, PERSON_1_EMAIL), new Person(PERSON_2_NAME, PERSON_2_EMAIL)));
+        MeetingRepository meetingRepository = new InMemoryMeetingRepository(Set.of(
+                new Meeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR, 0))),
+                new Meeting(Set.of(PERSON_1_EMAIL), LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR + 1, 0)))));
+        Clock tenWeeksLater = Clock.fixed(START_LOCAL_DATE.plusWeeks(10).atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        SchedulingService archivingService = new MinimalSchedulingService(personRepository, meetingRepository, tenWeeksLater, Period.ofWeeks(4));
+
+        archivingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 2, true);
+
+        assertEquals(2, archivingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0).size());
+        assertEquals(2, archivingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, 0).size());
+        assertEquals(Set.of(new Meeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR, 0)))),
+                archivingService.getMeetings(START_LOCAL_DATE, START_HOUR));
+        assertEquals(1, archivingService.getMeetings(START_LOCAL_DATE, START_HOUR + 2).size());
+        assertThrows(MeetingTimeslotConflictException.class, () ->
+                archivingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true));
+    }
+
+    @Test
+    void shouldPageThroughScheduleIncludingMeetingsInTheSameHour() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 1);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE.plusDays(30), START_HOUR);
+
+        List<Meeting> pagedMeetings = new ArrayList<>();
+        PageCursor cursor = PageCursor.at(START_LOCAL_DATE, 0);
+        int pages = 0;
+        while (cursor != null) {
+            Page<Meeting> page = schedulingService.getSchedulePage(PERSON_1_EMAIL, cursor, START_LOCAL_DATE.plusDays(60), 0, 2);
+            pagedMeetings.addAll(page.items());
+            cursor = page.next();
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(schedulingService.streamSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0, START_LOCAL_DATE.plusDays(60), 0).toList(), pagedMeetings);
+        assertEquals(5, pagedMeetings.size());
+        assertEquals(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), pagedMeetings.get(1).persons());
+        assertEquals(LocalDateTime.of(START_LOCAL_DATE.plusDays(30), LocalTime.of(START_HOUR, 0)), pagedMeetings.get(4).startTime());
+    }
+
+    @Test
+    void shouldReturnFirstFreeTimeSlotsOfLongRangeLazily() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR + 1);
+        LocalDate rangeEnd = START_LOCAL_DATE.plusYears(10);
+
+        List<LocalDateTime> firstSlots = schedulingService.streamFreeTimeSlots(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, rangeEnd, 0)
+                .limit(3)
+                .toList();
+        Page<LocalDateTime> firstPage = schedulingService.getFreeTimeSlotPage(Set.of(PERSON_1_EMAIL), PageCursor.at(START_LOCAL_DATE, START_HOUR), rangeEnd, 0, 2);
+        Page<LocalDateTime> secondPage = schedulingService.getFreeTimeSlotPage(Set.of(PERSON_1_EMAIL), firstPage.next(), rangeEnd, 0, 2);
+
+        LocalDateTime start = LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(START_HOUR, 0));
+        assertEquals(List.of(start, start.plusHours(2), start.plusHours(3)), firstSlots);
+        assertEquals(firstSlots.subList(0, 2), firstPage.items());
+        assertEquals(List.of(start.plusHours(3), start.plusHours(4)), secondPage.items());
+        assertTrue(secondPage.hasNext());
+    }
+
+    @Test
+    void shouldFindFirstCommonSlotsWithinWorkingHoursSkippingWeekends() {
+        LocalDate friday = LocalDate.of(2024, 1, 5);
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), friday, 9);
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), friday, 10);
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), friday, 16);
+
+        List<LocalDateTime> slots = schedulingService.findFirstCommonSlots(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), friday, 0, friday.plusDays(7), 0, 4,
+                SlotConstraints.workingHours(9, 17).withConsecutiveHours(3));
+
+        assertEquals(List.of(friday.atTime(11, 0), friday.atTime(12, 0), friday.atTime(13, 0), friday.plusDays(3).atTime(9, 0)), slots);
+    }
+
+    @Test
+    void shouldFindTheSameFirstCommonSlotsAsSuggestTimeSlotsForLargeGroup() {
+        Random random = new Random(7);
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            String email = PERSON_1_EMAIL.replace("1@", i + "@");
+            schedulingService.createPerson(PERSON_1_NAME + i, email);
+            emails.add(email);
+            for (int j = 0; j < 20; j++) {
+                schedulingService.createMeeting(Set.of(email), START_LOCAL_DATE.plusDays(random.nextInt(3)), random.nextInt(24));
+            }
+        }
+
+        List<LocalDateTime> expected = schedulingService.suggestTimeSlots(emails, START_LOCAL_DATE, 0, START_LOCAL_DATE.plusDays(30), 0).stream().limit(5).toList();
+
+        assertEquals(expected, schedulingService.findFirstCommonSlots(emails, START_LOCAL_DATE, 0, START_LOCAL_DATE.plusDays(30), 0, 5));
+    }
+
     @Test
     void shouldSuggestEarlierTimeSlotForOnePerson() {
         Set<String> attendees = new HashSet<>();
@@ -252,4 +491,332 @@ public class MinimalSchedulingServiceTest {
         executor.shutdown();
         executor.awaitTermination(1, TimeUnit.MINUTES);
     }
+
+    @Test
+    void shouldNotDoubleBookPersonsWhenCreatingMeetingsConcurrently() throws Exception {
+        int personsCount = 4;
+        int slotsCount = 240;
+        int numThreads = 8;
+        LocalDateTime startDateTime = LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(0, 0));
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < personsCount; i++) {
+            String email = PERSON_1_EMAIL.replace("1@", i + "@");
+            schedulingService.createPerson(PERSON_1_NAME + i, email);
+            emails.add(email);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CyclicBarrier slotBarrier = new CyclicBarrier(numThreads);
+        AtomicInteger createdMeetings = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                for (int slot = 0; slot < slotsCount; slot++) {
+                    LocalDateTime slotTime = startDateTime.plusHours(slot);
+                    slotBarrier.await();
+                    for (int attempt = 0; attempt < personsCount; attempt++) {
+                        int first = random.nextInt(personsCount);
+                        Set<String> attendees = Set.of(emails.get(first), emails.get((first + 1 + random.nextInt(personsCount - 1)) % personsCount));
+                        try {
+                            schedulingService.createMeeting(attendees, slotTime.toLocalDate(), slotTime.getHour(), true);
+                            createdMeetings.incrementAndGet();
+                        } catch (MeetingTimeslotConflictException e) {
+                            // expected when another thread booked one of the attendees first
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        int meetingsCount = 0;
+        for (int slot = 0; slot < slotsCount; slot++) {
+            LocalDateTime slotTime = startDateTime.plusHours(slot);
+            Set<String> bookedPersons = new HashSet<>();
+            for (Meeting meeting : schedulingService.getMeetings(slotTime.toLocalDate(), slotTime.getHour())) {
+                for (String email : meeting.persons()) {
+                    assertTrue(bookedPersons.add(email), email + " is double-booked at " + slotTime);
+                }
+                meetingsCount++;
+            }
+        }
+        assertEquals(createdMeetings.get(), meetingsCount);
+    }
+
+    @Test
+    void shouldBookDistinctEarliestFreeHoursWhenBookingConcurrently() throws Exception {
+        int numThreads = 8;
+        int bookingsPerThread = 3;
+        LocalDateTime startDateTime = LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(0, 0));
+        LocalDateTime endDateTime = startDateTime.plusHours(numThreads * bookingsPerThread + 1);
+        Set<String> attendees = Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL);
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), startDateTime, Duration.ofMinutes(15), true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CyclicBarrier startBarrier = new CyclicBarrier(numThreads);
+        List<Future<List<Meeting>>> futures = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            futures.add(executor.submit(() -> {
+                startBarrier.await();
+                List<Meeting> booked = new ArrayList<>();
+                for (int i = 0; i < bookingsPerThread; i++) {
+                    booked.add(schedulingService.bookFirstAvailable(attendees, startDateTime.toLocalDate(), startDateTime.getHour(),
+                            endDateTime.toLocalDate(), endDateTime.getHour()).orElseThrow());
+                }
+                return booked;
+            }));
+        }
+        Set<LocalDateTime> bookedHours = new HashSet<>();
+        for (Future<List<Meeting>> future : futures) {
+            for (Meeting meeting : future.get(1, TimeUnit.MINUTES)) {
+                assertEquals(attendees, meeting.persons());
+                assertTrue(bookedHours.add(meeting.startTime()), meeting.startTime() + " is booked twice");
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(numThreads * bookingsPerThread, bookedHours.size());
+        assertFalse(bookedHours.contains(startDateTime));
+        assertEquals(endDateTime.minusHours(1), Collections.max(bookedHours));
+        assertTrue(schedulingService.bookFirstAvailable(attendees, startDateTime.toLocalDate(), startDateTime.getHour(),
+                endDateTime.toLocalDate(), endDateTime.getHour()).isEmpty());
+        IllegalArgumentException expectedThrown = assertThrows(IllegalArgumentException.class, () -> schedulingService.bookFirstAvailable(attendees,
+                endDateTime.toLocalDate(), endDateTime.getHour(), startDateTime.toLocalDate(), startDateTime.getHour()));
+        assertEquals(INVALID_INPUT_ERROR, expectedThrown.getMessage());
+    }
+
+    @Test
+    void shouldPublishCreatedMeetingsToSubscribersAndCoalesceOverflow() {
+        LocalDateTime start = LocalDateTime.of(START_LOCAL_DATE, LocalTime.of(0, 0));
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        assertThrows(PersonNotExistException.class, () -> schedulingService.subscribe(Set.of("unknown@test.com"), null));
+        MeetingSubscription windowSubscription = schedulingService.subscribe(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), new TimeRange(start, start.plusHours(2)));
+        MeetingSubscription person2Subscription = schedulingService.subscribe(Set.of(PERSON_2_EMAIL), null);
+
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, 0, true);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), start.plusMinutes(90), Duration.ofMinutes(60), true);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, 3, true);
+        assertThrows(MeetingTimeslotConflictException.class, () -> schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, 0, true));
+
+        List<Meeting> delivered = new ArrayList<>();
+        windowSubscription.drainTo(delivered);
+        assertEquals(List.of(new Meeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), start), new Meeting(Set.of(PERSON_1_EMAIL), start.plusMinutes(90), start.plusMinutes(150))),
+                delivered);
+        assertEquals(new Meeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), start), person2Subscription.poll());
+        assertNull(person2Subscription.poll());
+
+        int meetings = MeetingFeed.DEFAULT_QUEUE_CAPACITY + 5;
+        List<MeetingRequest> requests = new ArrayList<>();
+        for (int i = 1; i <= meetings; i++) {
+            requests.add(new MeetingRequest(Set.of(PERSON_2_EMAIL), start.plusHours(i).toLocalDate(), start.plusHours(i).getHour(), true));
+        }
+        schedulingService.createMeetings(requests);
+        delivered.clear();
+        assertEquals(MeetingFeed.DEFAULT_QUEUE_CAPACITY, person2Subscription.drainTo(delivered));
+        assertEquals(start.plusHours(1), delivered.get(0).startTime());
+        assertEquals(new TimeRange(start.plusHours(MeetingFeed.DEFAULT_QUEUE_CAPACITY + 1), start.plusHours(meetings + 1)), person2Subscription.takeMissed());
+        assertNull(person2Subscription.takeMissed());
+        assertEquals(delivered.get(0), windowSubscription.poll());
+        assertNull(windowSubscription.poll());
+
+        person2Subscription.close();
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), start.minusHours(1).toLocalDate(), start.minusHours(1).getHour(), true);
+        assertNull(person2Subscription.poll());
+        windowSubscription.close();
+    }
+
+    @Test
+    void shouldExpandRecurringMeetingInScheduleAndTimeSlots() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE.plusDays(1), START_HOUR, true);
+
+        schedulingService.createRecurringMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 1,
+                Recurrence.times(Recurrence.Frequency.DAILY, 2, 3), true);
+
+        assertEquals(List.of(START_LOCAL_DATE.atTime(START_HOUR + 1, 0), START_LOCAL_DATE.plusDays(1).atTime(START_HOUR, 0),
+                        START_LOCAL_DATE.plusDays(2).atTime(START_HOUR + 1, 0), START_LOCAL_DATE.plusDays(4).atTime(START_HOUR + 1, 0)),
+                schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0).stream().map(Meeting::startTime).toList());
+        assertEquals(1, schedulingService.getMeetings(START_LOCAL_DATE.plusDays(2), START_HOUR + 1).size());
+        assertTrue(schedulingService.getMeetings(START_LOCAL_DATE.plusDays(1), START_HOUR + 1).isEmpty());
+        Set<LocalDateTime> slots = schedulingService.suggestTimeSlots(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE.plusDays(4), START_HOUR, START_LOCAL_DATE.plusDays(4), START_HOUR + 3);
+        assertEquals(Set.of(START_LOCAL_DATE.plusDays(4).atTime(START_HOUR, 0), START_LOCAL_DATE.plusDays(4).atTime(START_HOUR + 2, 0)), slots);
+        assertThrows(MeetingTimeslotConflictException.class, () ->
+                schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE.plusDays(2), START_HOUR + 1, true));
+    }
+
+    @Test
+    void shouldRejectRecurringMeetingOverlappingMeetingOrSeries() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        schedulingService.createRecurringMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR,
+                Recurrence.until(Recurrence.Frequency.WEEKLY, 2, START_LOCAL_DATE.plusYears(1)), true);
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE.plusDays(300), START_HOUR, true);
+
+        assertThrows(MeetingTimeslotConflictException.class, () -> schedulingService.createRecurringMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE.plusDays(3), START_HOUR,
+                Recurrence.times(Recurrence.Frequency.DAILY, 5, 10), true));
+        assertThrows(MeetingTimeslotConflictException.class, () -> schedulingService.createRecurringMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR,
+                Recurrence.times(Recurrence.Frequency.DAILY, 1, 365), true));
+        schedulingService.createRecurringMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE.plusWeeks(1), START_HOUR,
+                Recurrence.until(Recurrence.Frequency.WEEKLY, 2, START_LOCAL_DATE.plusYears(1)), true);
+        assertThrows(IllegalArgumentException.class, () -> schedulingService.createRecurringMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR,
+                Recurrence.until(Recurrence.Frequency.DAILY, 1, START_LOCAL_DATE.minusDays(1)), true));
+        assertEquals(53, schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0).size());
+    }
+
+    @Test
+    void shouldCheckConflictsOfMeetingsWithMinutePrecision() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        LocalDateTime start = START_LOCAL_DATE.atTime(START_HOUR, 0);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), start, Duration.ofMinutes(15), true);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), start.plusMinutes(15), Duration.ofMinutes(30), true);
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), start.plusMinutes(45), Duration.ofMinutes(90), true);
+
+        assertThrows(MeetingTimeslotConflictException.class, () ->
+                schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), start.plusMinutes(10), Duration.ofMinutes(10), true));
+        assertThrows(MeetingTimeslotConflictException.class, () ->
+                schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 2, true));
+        assertThrows(IllegalArgumentException.class, () ->
+                schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), start, Duration.ofSeconds(90), true));
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), start.plusMinutes(45), Duration.ofMinutes(15), true);
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), start.plusMinutes(135), Duration.ofHours(1), true);
+
+        assertEquals(List.of(new Meeting(Set.of(PERSON_1_EMAIL), start, start.plusMinutes(15)),
+                        new Meeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), start.plusMinutes(15), start.plusMinutes(45)),
+                        new Meeting(Set.of(PERSON_1_EMAIL), start.plusMinutes(45), start.plusMinutes(60))),
+                List.copyOf(schedulingService.getSchedule(PERSON_1_EMAIL, START_LOCAL_DATE, 0)));
+        assertEquals(3, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, 0).size());
+        assertEquals(Set.of(start.plusHours(1)), schedulingService.suggestTimeSlots(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, START_LOCAL_DATE, START_HOUR + 2));
+    }
+
+    @Test
+    void shouldSuggestFreeTimeRangesOfAtLeastMinimalDuration() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL);
+        LocalDateTime start = START_LOCAL_DATE.atTime(START_HOUR, 0);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, true);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), start.plusMinutes(80), Duration.ofMinutes(25), true);
+        schedulingService.createMeeting(Set.of(PERSON_2_EMAIL), start.plusMinutes(120), Duration.ofMinutes(50), true);
+
+        assertEquals(List.of(new TimeRange(start.plusMinutes(60), start.plusMinutes(80)), new TimeRange(start.plusMinutes(105), start.plusMinutes(120)),
+                        new TimeRange(start.plusMinutes(170), start.plusMinutes(240))),
+                schedulingService.suggestTimeRanges(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), start.plusMinutes(30), start.plusHours(4), Duration.ofMinutes(15)));
+        assertEquals(List.of(new TimeRange(start.plusMinutes(170), start.plusMinutes(240))),
+                schedulingService.suggestTimeRanges(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), start, start.plusHours(4), Duration.ofMinutes(31)));
+    }
+
+    @Test
+    void shouldFindTheSameFreeTimeSlotsInParallelAsSequentially() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        SchedulingService parallelService = new MinimalSchedulingService(new InMemoryPersonRepository(new HashSet<>()), new InMemoryMeetingRepository(new HashSet<>()),
+                Clock.systemDefaultZone(), MinimalSchedulingService.DEFAULT_ARCHIVE_HORIZON, null, pool, 0);
+        Random random = new Random(5);
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            emails.add("person" + i + "@test.com");
+            schedulingService.createPerson("Person " + i, emails.get(i));
+            parallelService.createPerson("Person " + i, emails.get(i));
+        }
+        for (int i = 0; i < 600; i++) {
+            Set<String> attendees = Set.of(emails.get(random.nextInt(emails.size())));
+            LocalDateTime startTime = START_LOCAL_DATE.atStartOfDay().plusMinutes(random.nextInt(24 * 60 * 90));
+            if (i % 3 == 0) {
+                Duration duration = Duration.ofMinutes(1 + random.nextInt(180));
+                schedulingService.createMeeting(attendees, startTime, duration, false);
+                parallelService.createMeeting(attendees, startTime, duration, false);
+            } else {
+                schedulingService.createMeeting(attendees, startTime.toLocalDate(), startTime.getHour(), false);
+                parallelService.createMeeting(attendees, startTime.toLocalDate(), startTime.getHour(), false);
+            }
+        }
+        schedulingService.createRecurringMeeting(Set.copyOf(emails.subList(0, 3)), START_LOCAL_DATE, START_HOUR, Recurrence.times(Recurrence.Frequency.DAILY, 3, 20), false);
+        parallelService.createRecurringMeeting(Set.copyOf(emails.subList(0, 3)), START_LOCAL_DATE, START_HOUR, Recurrence.times(Recurrence.Frequency.DAILY, 3, 20), false);
+
+        for (int i = 0; i < 50; i++) {
+            Set<String> attendees = Set.copyOf(emails.subList(0, 1 + random.nextInt(emails.size())));
+            LocalDateTime startTime = START_LOCAL_DATE.atStartOfDay().plusHours(random.nextInt(24 * 30));
+            LocalDateTime endTime = startTime.plusHours(random.nextInt(24 * 60));
+            assertEquals(schedulingService.suggestTimeSlots(attendees, startTime.toLocalDate(), startTime.getHour(), endTime.toLocalDate(), endTime.getHour()),
+                    parallelService.suggestTimeSlots(attendees, startTime.toLocalDate(), startTime.getHour(), endTime.toLocalDate(), endTime.getHour()));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void shouldLoadTheSameMeetingsInParallelAsSequentially() {
+        Random random = new Random(7);
+        Set<Person> persons = new HashSet<>();
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            emails.add("person" + i + "@test.com");
+            persons.add(new Person("Person " + i, emails.get(i)));
+        }
+        Set<Meeting> meetings = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            Set<String> attendees = new HashSet<>();
+            while (attendees.size() < 1 + random.nextInt(3)) {
+                attendees.add(emails.get(random.nextInt(emails.size())));
+            }
+            LocalDateTime startTime = START_LOCAL_DATE.atStartOfDay().plusHours(i);
+            meetings.add(i % 4 == 0
+                    ? new Meeting(attendees, startTime.plusMinutes(15), startTime.plusMinutes(50))
+                    : new Meeting(attendees, startTime));
+        }
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        MinimalSchedulingService sequentialService = new MinimalSchedulingService(new InMemoryPersonRepository(persons), new InMemoryMeetingRepository(meetings),
+                Clock.systemDefaultZone(), MinimalSchedulingService.DEFAULT_ARCHIVE_HORIZON, null, sequentialPool, Long.MAX_VALUE);
+        MinimalSchedulingService parallelService = new MinimalSchedulingService(new InMemoryPersonRepository(persons), new InMemoryMeetingRepository(meetings),
+                Clock.systemDefaultZone(), MinimalSchedulingService.DEFAULT_ARCHIVE_HORIZON, null, parallelPool, Long.MAX_VALUE);
+
+        LocalDate endDate = START_LOCAL_DATE.plusDays(50_000 / 24 + 1);
+        for (String email : emails) {
+            assertEquals(sequentialService.getSchedule(email, START_LOCAL_DATE, 0, endDate, 0), parallelService.getSchedule(email, START_LOCAL_DATE, 0, endDate, 0));
+        }
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime time = START_LOCAL_DATE.atStartOfDay().plusHours(random.nextInt(50_000));
+            assertEquals(sequentialService.getMeetings(time.toLocalDate(), time.getHour()), parallelService.getMeetings(time.toLocalDate(), time.getHour()));
+            Set<String> attendees = Set.copyOf(emails.subList(0, 1 + random.nextInt(4)));
+            assertEquals(sequentialService.suggestTimeSlots(attendees, time.toLocalDate(), time.getHour(), endDate, 0),
+                    parallelService.suggestTimeSlots(attendees, time.toLocalDate(), time.getHour(), endDate, 0));
+        }
+        assertEquals(meetings.stream().mapToInt(meeting -> meeting.persons().size()).sum(),
+                emails.stream().mapToInt(email -> parallelService.getSchedule(email, START_LOCAL_DATE, 0, endDate, 0).size()).sum());
+        sequentialPool.shutdown();
+        parallelPool.shutdown();
+    }
+
+    @Test
+    void shouldSuggestTimeSlotsWithinLocalWorkingHoursOfEveryAttendee() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL, ZoneId.of("Europe/Warsaw"));
+        schedulingService.createPerson(PERSON_2_NAME, PERSON_2_EMAIL, ZoneId.of("America/New_York"));
+        LocalDate monday = LocalDate.of(2024, 3, 4);
+        schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), monday, 15, true);
+
+        // New York moves to daylight saving time on Sunday 2024-03-10, Warsaw only three weeks later
+        Set<LocalDateTime> slots = schedulingService.suggestTimeSlots(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), monday, 0, monday.plusDays(8), 0,
+                SlotConstraints.workingHours(9, 17));
+
+        List<LocalDateTime> expected = new ArrayList<>(List.of(monday.atTime(14, 0)));
+        for (int day = 1; day < 5; day++) {
+            expected.add(monday.plusDays(day).atTime(14, 0));
+            expected.add(monday.plusDays(day).atTime(15, 0));
+        }
+        expected.addAll(List.of(monday.plusDays(7).atTime(13, 0), monday.plusDays(7).atTime(14, 0), monday.plusDays(7).atTime(15, 0)));
+        assertEquals(expected, List.copyOf(slots));
+        assertEquals(Set.of(monday.plusDays(1).atTime(14, 0), monday.plusDays(2).atTime(14, 0), monday.plusDays(3).atTime(14, 0), monday.plusDays(4).atTime(14, 0),
+                        monday.plusDays(7).atTime(13, 0), monday.plusDays(7).atTime(14, 0)),
+                schedulingService.suggestTimeSlots(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), monday, 0, monday.plusDays(8), 0,
+                        SlotConstraints.workingHours(9, 17).withConsecutiveHours(2)));
+        assertThrows(IllegalArgumentException.class, () -> schedulingService.createPerson("Person 3", "person3@test.com", null));
+    }
 }
@@ -0,0 +1,134 @@
+package test.java.com.wtomaszewski.schedulingservice.service;
+
+import main.java.com.wtomaszewski.schedulingservice.exception.MeetingTimeslotConflictException;
+import main.java.com.wtomaszewski.schedulingservice.exception.NotUniquePersonException;
+import main.java.com.wtomaszewski.schedulingservice.exception.PersonNotExistException;
+import main.java.com.wtomaszewski.schedulingservice.model.Meeting;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryMeetingRepository;
+import main.java.com.wtomaszewski.schedulingservice.repository.InMemoryPersonRepository;
+import main.java.com.wtomaszewski.schedulingservice.service.SingleWriterSchedulingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_1_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_EMAIL;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.PERSON_2_NAME;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_HOUR;
+import static test.java.com.wtomaszewski.schedulingservice.TestConstants.START_LOCAL_DATE;
+
+public class SingleWriterSchedulingServiceTest {
+
+    private SingleWriterSchedulingService schedulingService;
+
+    @BeforeEach
+    void setUp() {
+        schedulingService = new SingleWriterSchedulingService(new InMemoryPersonRepository(new HashSet<>()), new InMemoryMeetingRepository(new HashSet<>()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        schedulingService.close();
+    }
+
+    @Test
+    void shouldCompleteWritesAndRejectConflictsThroughFutures() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.createPersonAsync(PERSON_2_NAME, PERSON_2_EMAIL).join();
+
+        final CompletableFuture<Meeting> created = schedulingService.createMeetingAsync(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true);
+        final CompletableFuture<Meeting> conflicting = schedulingService.createMeetingAsync(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR, true);
+        final CompletableFuture<Meeting> unknownPerson = schedulingService.createMeetingAsync(Set.of("unknown@test.com"), START_LOCAL_DATE, START_HOUR, true);
+        final CompletableFuture<Meeting> nextHour = schedulingService.createMeetingAsync(Set.of(PERSON_2_EMAIL), START_LOCAL_DATE, START_HOUR + 1, true);
+
+        assertEquals(new Meeting(Set.of(PERSON_1_EMAIL, PERSON_2_EMAIL), START_LOCAL_DATE.atTime(START_HOUR, 0)), created.join());
+        assertTrue(assertThrows(CompletionException.class, conflicting::join).getCause() instanceof MeetingTimeslotConflictException);
+        assertTrue(assertThrows(CompletionException.class, unknownPerson::join).getCause() instanceof PersonNotExistException);
+        assertEquals(START_LOCAL_DATE.atTime(START_HOUR + 1, 0), nextHour.join().startTime());
+        // a completed write is visible to reads on any thread
+        assertEquals(2, schedulingService.getSchedule(PERSON_2_EMAIL, START_LOCAL_DATE, START_HOUR).size());
+
+        assertThrows(MeetingTimeslotConflictException.class,
+                () -> schedulingService.createMeeting(Set.of(PERSON_1_EMAIL), START_LOCAL_DATE, START_HOUR, true));
+        assertThrows(NotUniquePersonException.class, () -> schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL));
+    }
+
+    @Test
+    void shouldNotDoubleBookPersonsWhenWritersSubmitConcurrently() throws Exception {
+        final int personsCount = 6;
+        final int slotsCount = 200;
+        final int numThreads = 8;
+        final LocalDateTime startDateTime = START_LOCAL_DATE.atStartOfDay();
+        final List<String> emails = new ArrayList<>();
+        for (int i = 0; i < personsCount; i++) {
+            final String email = PERSON_1_EMAIL.replace("1@", i + "@");
+            schedulingService.createPerson(PERSON_1_NAME + i, email);
+            emails.add(email);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        final List<Future<List<CompletableFuture<Meeting>>>> futures = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                final List<CompletableFuture<Meeting>> results = new ArrayList<>();
+                for (int slot = 0; slot < slotsCount; slot++) {
+                    final LocalDateTime slotTime = startDateTime.plusHours(slot);
+                    final Set<String> attendees = Set.of(emails.get((slot + thread) % personsCount), emails.get((slot + thread + 1) % personsCount));
+                    results.add(schedulingService.createMeetingAsync(attendees, slotTime.toLocalDate(), slotTime.getHour(), true));
+                }
+                return results;
+            }));
+        }
+        int createdMeetings = 0;
+        for (Future<List<CompletableFuture<Meeting>>> future : futures) {
+            for (CompletableFuture<Meeting> result : future.get(1, TimeUnit.MINUTES)) {
+                try {
+                    result.join();
+                    createdMeetings++;
+                } catch (CompletionException e) {
+                    assertTrue(e.getCause() instanceof MeetingTimeslotConflictException);
+                }
+            }
+        }
+        executor.shutdown();
+
+        int meetingsCount = 0;
+        for (int slot = 0; slot < slotsCount; slot++) {
+            final LocalDateTime slotTime = startDateTime.plusHours(slot);
+            final Set<String> bookedPersons = new HashSet<>();
+            for (Meeting meeting : schedulingService.getMeetings(slotTime.toLocalDate(), slotTime.getHour())) {
+                for (String email : meeting.persons()) {
+                    assertTrue(bookedPersons.add(email), "double booked " + email + " at " + slotTime);
+                }
+                meetingsCount++;
+            }
+        }
+        assertEquals(createdMeetings, meetingsCount);
+    }
+
+    @Test
+    void shouldRejectWritesAfterClose() {
+        schedulingService.createPerson(PERSON_1_NAME, PERSON_1_EMAIL);
+        schedulingService.close();
+
+        assertThrows(IllegalStateException.class, () -> schedulingService.createPersonAsync(PERSON_2_NAME, PERSON_2_EMAIL));
+        assertEquals(1, schedulingService.getPersonsMap().size());
+    }
+}